@@ -1,8 +1,11 @@
 package org.aksw.fox;
 
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 
+import org.aksw.fox.utils.CancelToken;
 import org.aksw.fox.utils.FoxWebLog;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -21,10 +24,19 @@ abstract class AFox implements IFox {
   protected FoxWebLog foxWebLog = new FoxWebLog();
   protected CountDownLatch countDownLatch = null;
   protected Map<String, String> parameter = null;
+  protected Set<String> skippedTools = new LinkedHashSet<>();
+  protected volatile CancelToken cancelToken = CancelToken.NONE;
 
   @Override
   public void run() {
     foxWebLog = new FoxWebLog();
+    skippedTools = new LinkedHashSet<>();
+    cancelToken = new CancelToken();
+  }
+
+  @Override
+  public void cancel() {
+    cancelToken.cancel();
   }
 
   @Override
@@ -47,6 +59,11 @@ abstract class AFox implements IFox {
     return foxWebLog.getConsoleOutput();
   }
 
+  @Override
+  public Set<String> getSkippedTools() {
+    return skippedTools;
+  }
+
   protected void infoLog(final String m) {
     if (foxWebLog != null) {
       foxWebLog.setMessage(m);
@@ -1,26 +1,38 @@
 package org.aksw.fox;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import javax.xml.bind.DatatypeConverter;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.EntityLocator;
+import org.aksw.fox.data.NearDuplicateIndex;
 import org.aksw.fox.data.Relation;
 import org.aksw.fox.data.TokenManager;
 import org.aksw.fox.data.exception.LoadingNotPossibleException;
 import org.aksw.fox.data.exception.UnsupportedLangException;
+import org.aksw.fox.nerlearner.ClassifierCache;
 import org.aksw.fox.output.FoxJenaNew;
 import org.aksw.fox.output.IFoxJena;
+import org.aksw.fox.tools.Context;
+import org.aksw.fox.tools.ModelRegistry;
 import org.aksw.fox.tools.Tools;
 import org.aksw.fox.tools.ToolsGenerator;
 import org.aksw.fox.tools.ner.INER;
@@ -29,9 +41,8 @@ import org.aksw.fox.tools.ner.linking.NoLinking;
 import org.aksw.fox.tools.re.FoxRETools;
 import org.aksw.fox.tools.re.IRE;
 import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.utils.FoxTextUtil;
-import org.jetlang.fibers.Fiber;
-import org.jetlang.fibers.ThreadFiber;
 
 /**
  *
@@ -41,9 +52,30 @@ import org.jetlang.fibers.ThreadFiber;
 public class Fox extends AFox {
 
   /**
-   *
+   * Number of sentences per window in the streaming mode, 0 to process documents as a whole.
+   */
+  public static final String CFG_KEY_WINDOW_SENTENCES =
+      Fox.class.getName().concat(".windowSentences");
+
+  /**
+   * Annotations of recently processed documents, shared by all FOX instances and dropped as soon as
+   * a classifier is reloaded.
+   */
+  public static final NearDuplicateIndex nearDuplicates = new NearDuplicateIndex();
+  static {
+    ClassifierCache.addListener(model -> nearDuplicates.clear());
+  }
+
+  /**
+   * Class name of the linking tool of the current request, null for the tool of the language.
+   */
+  protected String linkingClass = null;
+
+  /**
+   * Linking tools in use, shared with other FOX instances, the tool of the language has the empty
+   * key.
    */
-  protected ILinking linking = null;
+  protected final Map<String, ModelRegistry.Model<ILinking>> linkingTools = new HashMap<>();
 
   /**
    *
@@ -62,6 +94,19 @@ public class Fox extends AFox {
 
   protected FoxUtil foxUtil = new FoxUtil();
 
+  /**
+   * The analyzed input of the current request.
+   */
+  protected AnalyzedDocument document = null;
+
+  protected int windowSentences = 0;
+
+  /**
+   * True in case the current request neither uses nor fills the shared caches, see
+   * {@link FoxParameter.Cache}.
+   */
+  protected boolean bypassCache = false;
+
   /**
    *
    * Constructor.
@@ -71,6 +116,15 @@ public class Fox extends AFox {
   public Fox(final String lang) {
     this.lang = lang;
 
+    final String window = FoxCfg.get(CFG_KEY_WINDOW_SENTENCES);
+    if (window != null) {
+      try {
+        windowSentences = Integer.parseInt(window);
+      } catch (final NumberFormatException e) {
+        LOG.error("Not a number: " + CFG_KEY_WINDOW_SENTENCES + ": " + window);
+      }
+    }
+
     try {
       final ToolsGenerator toolsGenerator = new ToolsGenerator();
       nerTools = toolsGenerator.getNERTools(lang);
@@ -79,6 +133,41 @@ public class Fox extends AFox {
     }
   }
 
+  @Override
+  public void close() {
+    if (nerTools != null) {
+      nerTools.close();
+    }
+    reTools.close();
+    synchronized (linkingTools) {
+      linkingTools.values().forEach(ModelRegistry.Model::release);
+      linkingTools.clear();
+    }
+  }
+
+  /**
+   * Gets the linking tool of the current request, the tool is created once and reused.
+   *
+   * @return tool
+   */
+  protected ILinking getLinking() {
+    final String key = linkingClass == null ? "" : linkingClass;
+    synchronized (linkingTools) {
+      try {
+        ModelRegistry.Model<ILinking> model = linkingTools.get(key);
+        if (model == null) {
+          model = linkingClass == null ? new ToolsGenerator().getDisambiguationTool(lang)
+              : ModelRegistry.acquire(linkingClass);
+          linkingTools.put(key, model);
+        }
+        return model.get();
+      } catch (UnsupportedLangException | LoadingNotPossibleException | ClassCastException e) {
+        infoLog(e.getLocalizedMessage());
+        return new NoLinking();
+      }
+    }
+  }
+
   @Override
   public String getResultsAndClean() {
     final String response = foxJena.print();
@@ -92,8 +181,13 @@ public class Fox extends AFox {
    */
   protected Set<Entity> doNER() {
     infoLog("Start NER (" + lang + ")...");
-    final Set<Entity> entities =
-        nerTools.getEntities(parameter.get(FoxParameter.Parameter.INPUT.toString()));
+    final Set<Entity> entities = nerTools.getEntities(document);
+
+    final Set<String> skipped = nerTools.getSkippedTools();
+    if (!skipped.isEmpty()) {
+      skippedTools.addAll(skipped);
+      infoLog("Skipped tools: " + skipped);
+    }
 
     // remove duplicate annotations
     final Map<String, Entity> wordEntityMap = new HashMap<>();
@@ -125,47 +219,46 @@ public class Fox extends AFox {
       infoLog("Start RE with " + tools.size() + " tools ...");
 
       // use all tools to retrieve entities
-      // start all threads
-      final List<Fiber> fibers = new ArrayList<>();
-      final CountDownLatch latch = new CountDownLatch(tools.size());
+      // start all tasks
+      final Context reContext = new Context(cancelToken).child();
+      final Map<IRE, Future<Set<Relation>>> futures = new LinkedHashMap<>();
       for (final IRE tool : tools) {
-
-        tool.setCountDownLatch(latch);
-        tool.setInput(parameter.get(FoxParameter.Parameter.INPUT.toString()), entities);
-
-        final Fiber fiber = new ThreadFiber();
-        fibers.add(fiber);
-        fiber.start();
-        fiber.execute(tool);
+        futures.put(tool, FoxExecutors.submit(tool.getToolName(), tool.isRemote(),
+            () -> tool.extract(document, entities, reContext)));
       }
 
       // wait for finish
       final int min = Integer.parseInt(FoxCfg.get(Tools.CFG_KEY_LIFETIME));
-      try {
-        latch.await(min, TimeUnit.MINUTES);
-      } catch (final InterruptedException e) {
-        LOG.error("Timeout after " + min + "min.");
-        LOG.error(e.getLocalizedMessage(), e);
-        LOG.error("input parameter:\n" + parameter.toString());
-      }
-
-      // shutdown threads
-      for (final Fiber fiber : fibers) {
-        fiber.dispose();
-      }
-
-      // get results
-      if (latch.getCount() == 0) {
-
-        for (final IRE tool : tools) {
-
-          final Set<Relation> rs = tool.getResults();
+      final long end = System.nanoTime() + TimeUnit.MINUTES.toNanos(min);
+      boolean timeout = false;
+      for (final Map.Entry<IRE, Future<Set<Relation>>> entry : futures.entrySet()) {
+        try {
+          final Set<Relation> rs =
+              entry.getValue().get(end - System.nanoTime(), TimeUnit.NANOSECONDS);
           if ((rs != null) && !rs.isEmpty()) {
-            relations.put(tool.getToolName(), rs);
+            relations.put(entry.getKey().getToolName(), rs);
+          }
+        } catch (final TimeoutException e) {
+          timeout = true;
+          skippedTools.add(entry.getKey().getToolName());
+        } catch (final ExecutionException e) {
+          if (!(e.getCause() instanceof CancellationException)) {
+            LOG.error(entry.getKey().getToolName() + " failed.", e.getCause());
           }
+          skippedTools.add(entry.getKey().getToolName());
+        } catch (final InterruptedException e) {
+          LOG.error("Interrupted after " + min + "min.");
+          LOG.error("input parameter:\n" + parameter.toString());
+          Thread.currentThread().interrupt();
         }
+      }
 
-      } else {
+      // stop tasks still running
+      reContext.cancel();
+      FoxExecutors.cancel(new ArrayList<>(futures.values()));
+      cancelToken.check();
+
+      if (timeout) {
         infoLog("Timeout after " + min + " min.");
       }
       infoLog("RE done.");
@@ -186,12 +279,7 @@ public class Fox extends AFox {
       return entities;
     }
 
-    INER nerLight = null;
-    for (final INER t : nerTools.getNerTools()) {
-      if (name.equals(t.getClass().getName())) {
-        nerLight = t;
-      }
-    }
+    INER nerLight = nerTools.getNerTool(name);
 
     if (nerLight == null) {
       LOG.info("Given (" + name + ") tool is not supported.");
@@ -200,52 +288,61 @@ public class Fox extends AFox {
 
     infoLog("NER tool(" + lang + ") is: " + nerLight.getToolName());
 
-    // clean input
-    String input = parameter.get(FoxParameter.Parameter.INPUT.toString());
-    final TokenManager tokenManager = new TokenManager(input);
-    input = tokenManager.getInput();
-    parameter.put(FoxParameter.Parameter.INPUT.toString(), input);
+    final TokenManager tokenManager = document.getTokenManager();
 
     {
-      final CountDownLatch latch = new CountDownLatch(1);
-      final Fiber fiber = new ThreadFiber();
-      nerLight.setCountDownLatch(latch);
-      nerLight.setInput(parameter.get(FoxParameter.Parameter.INPUT.toString()));
-
-      fiber.start();
-      fiber.execute(nerLight);
+      final Context lightContext = new Context(cancelToken, bypassCache).child();
+      final INER tool = nerLight;
+      final Future<List<Entity>> future = FoxExecutors.submit(nerLight.getToolName(),
+          nerLight.isRemote(), () -> tool.getResults(document, lightContext));
 
       final int min = Integer.parseInt(FoxCfg.get(Tools.CFG_KEY_LIFETIME));
+      List<Entity> found = null;
       try {
-        latch.await(min, TimeUnit.MINUTES);
-      } catch (final InterruptedException e) {
-        LOG.error("Timeout after " + min + " min.");
+        found = future.get(min, TimeUnit.MINUTES);
+      } catch (final TimeoutException | ExecutionException e) {
+        LOG.error("Light NER not done after " + min + " min.");
         LOG.error("\n", e);
         LOG.error("input:\n" + parameter.get(FoxParameter.Parameter.INPUT.toString()));
+      } catch (final InterruptedException e) {
+        LOG.error("Interrupted while waiting for light NER.");
+        Thread.currentThread().interrupt();
       }
 
-      // shutdown threads
-      fiber.dispose();
+      // stop the task if still running
+      lightContext.cancel();
+      future.cancel(true);
+      cancelToken.check();
       // get results
-      if (latch.getCount() == 0) {
-        entities = new HashSet<Entity>(nerLight.getResults());
-
+      if (found != null) {
+        entities = new HashSet<Entity>(found);
       } else {
-        if (LOG.isDebugEnabled()) {
-          LOG.debug("timeout after " + min + "min.");
-          // TODO: handle timeout
-        }
+        skippedTools.add(nerLight.getToolName());
       }
     }
 
     tokenManager.repairEntities(entities);
 
-    // make an index for each entity
+    // make an index for each entity, use the indices given by the tool or search
+    final Set<String> surfaceForms = new HashSet<>();
+    for (final Entity entity : entities) {
+      if ((entity.getIndices() == null) || entity.getIndices().isEmpty()) {
+        surfaceForms.add(entity.getText());
+      }
+    }
+    final EntityLocator locator = tokenManager.locate(surfaceForms);
     final Map<Integer, Entity> indexMap = new HashMap<>();
     for (final Entity entity : entities) {
-      for (final Integer i : FoxTextUtil.getIndices(entity.getText(),
-          tokenManager.getTokenInput())) {
-        indexMap.put(i, entity);
+      final Set<Integer> indices = entity.getIndices();
+      if ((indices == null) || indices.isEmpty()) {
+        for (final Integer i : locator.getIndices(entity.getText())) {
+          indexMap.put(i, entity);
+        }
+      } else {
+        for (final Integer i : indices) {
+          indexMap.put(i, entity);
+        }
+        indices.clear();
       }
     }
 
@@ -283,43 +380,38 @@ public class Fox extends AFox {
     if ((entities != null) && !entities.isEmpty()) {
       infoLog("Start NE linking ...");
 
-      final CountDownLatch latch = new CountDownLatch(1);
-      final ToolsGenerator toolsGenerator = new ToolsGenerator();
-      if (linking == null) {
-        try {
-          linking = toolsGenerator.getDisambiguationTool(lang);
-        } catch (UnsupportedLangException | LoadingNotPossibleException e1) {
-          infoLog(e1.getLocalizedMessage());
-          linking = new NoLinking();
-        }
-      }
-      linking.setCountDownLatch(latch);
-      linking.setInput(entities, parameter.get(FoxParameter.Parameter.INPUT.toString()));
-
-      final Fiber fiber = new ThreadFiber();
-      fiber.start();
-      fiber.execute(linking);
+      final ILinking tool = getLinking();
+      final Context linkingContext = new Context(cancelToken).child();
+      final Set<Entity> input = entities;
+      final Future<Set<Entity>> future = FoxExecutors.submit(tool.getClass().getSimpleName(),
+          true, () -> tool.link(input, document, linkingContext));
 
       // use another time for the uri lookup?
       final int min = Integer.parseInt(FoxCfg.get(Tools.CFG_KEY_LIFETIME));
+      Set<Entity> linked = null;
       try {
-        latch.await(min, TimeUnit.MINUTES);
-      } catch (final InterruptedException e) {
-        LOG.error("Timeout after " + min + "min.");
+        linked = future.get(min, TimeUnit.MINUTES);
+      } catch (final TimeoutException | ExecutionException e) {
+        LOG.error("Linking not done after " + min + "min.");
         LOG.error("\n", e);
+      } catch (final InterruptedException e) {
+        LOG.error("Interrupted while waiting for linking.");
+        Thread.currentThread().interrupt();
       }
 
-      // shutdown threads
-      fiber.dispose();
+      // stop the task if still running
+      linkingContext.cancel();
+      future.cancel(true);
+      cancelToken.check();
       // get results
-      if (latch.getCount() == 0) {
-        entities = new HashSet<Entity>(linking.getResults());
+      if (linked != null) {
+        entities = new HashSet<Entity>(linked);
       } else {
-        infoLog("Timeout after " + min + " min (" + linking.getClass().getName() + ").");
+        infoLog("Timeout after " + min + " min (" + tool.getClass().getName() + ").");
+        skippedTools.add(tool.getClass().getSimpleName());
         // use dev lookup after timeout
-        new NoLinking().setUris(entities, parameter.get(FoxParameter.Parameter.INPUT.toString()));
+        new NoLinking().setUris(entities, document.getInput());
       }
-      linking = null;
     }
     infoLog("Start NE linking done.");
   }
@@ -331,15 +423,35 @@ public class Fox extends AFox {
     }
 
     final String input = parameter.get(FoxParameter.Parameter.INPUT.toString());
-    final String out = parameter.get(FoxParameter.Parameter.OUTPUT.toString());
-    final String docuri = parameter.get("docuri");
 
     infoLog("Preparing output format ...");
 
     // foxJena.reset();
-    foxJena.setLang(out);
-    foxJena.addInput(input, docuri);
+    foxJena.setLang(parameter.get(FoxParameter.Parameter.OUTPUT.toString()));
+    foxJena.addInput(document, parameter.get("docuri"));
+    addOutput(entities, relations);
+
+    infoLog("Preparing output format done.");
+
+    if (isReturnHtml()) {
+      html(entities, input);
+    }
+    infoLog("Found " + entities.size() + " entities.");
+  }
+
+  protected boolean isReturnHtml() {
+    return (parameter.get("returnHtml") != null)
+        && parameter.get("returnHtml").toLowerCase().endsWith("true");
+  }
 
+  /**
+   * Adds entities and relations to the output, the input has to be added before.
+   *
+   * @param entities
+   * @param relations
+   */
+  protected void addOutput(final Set<Entity> entities,
+      final Map<String, Set<Relation>> relations) {
     final String start = DatatypeConverter.printDateTime(new GregorianCalendar());
     final String end = DatatypeConverter.printDateTime(new GregorianCalendar());
     foxJena.addEntities(entities, start, end);
@@ -351,17 +463,154 @@ public class Fox extends AFox {
         infoLog("Found " + relations.size() + " relations.");
       }
     }
+  }
 
-    infoLog("Preparing output format done.");
+  /**
+   * Streaming mode, runs NER, RE and linking on windows of {@link #windowSentences} sentences and
+   * adds the results of each window with offsets in the whole input to the output. Only one window
+   * is analyzed at a time, so tokens, tool results and the classifier input are bounded by the
+   * window. For Turtle, TriG, N-Triples and N-Quads the model of a window is serialized and
+   * dropped, see {@link IFoxJena#flush()}, but the serialization of all windows is kept in memory
+   * till the response is done, since the response is cached and its header lists the skipped tools
+   * of all windows. The model of other formats, e.g. JSON-LD and RDF/XML, keeps all windows.
+   *
+   * A window that is not found in the input, e.g. due to a sentence that differs from the input,
+   * is analyzed on its own and its entities are placed by their text, see
+   * {@link #placeEntities(Set, String, int)}.
+   *
+   * @param input clean input
+   * @param sentences sentences of the input
+   * @param task
+   */
+  protected void runWindows(final String input, final String[] sentences,
+      final FoxParameter.Task task) {
+    infoLog("Start streaming " + sentences.length + " sentences in windows of " + windowSentences
+        + " sentences ...");
+
+    foxJena.setLang(parameter.get(FoxParameter.Parameter.OUTPUT.toString()));
+    foxJena.addInput(input, parameter.get("docuri"));
+
+    final StringBuilder html = isReturnHtml() ? new StringBuilder() : null;
+    int htmlEnd = 0;
+    boolean flushed = true;
+    int found = 0;
+    int pointer = 0;
+    for (int i = 0; i < sentences.length; i += windowSentences) {
+      cancelToken.check();
+      final int to = Math.min(i + windowSentences, sentences.length);
+
+      // window offsets in the input
+      int start = -1;
+      for (int s = i; s < to; s++) {
+        final int index = input.indexOf(sentences[s], pointer);
+        if (index > -1) {
+          pointer = index + sentences[s].length();
+          if (start < 0) {
+            start = index;
+          }
+        }
+      }
+      final String[] split = Arrays.copyOfRange(sentences, i, to);
+      if (start < 0) {
+        LOG.warn("Window not found in input, its entities are placed by their text, sentences: " + i
+            + " - " + to);
+      }
 
-    if ((parameter.get("returnHtml") != null)
-        && parameter.get("returnHtml").toLowerCase().endsWith("true")) {
-      html(entities, input);
+      document = new AnalyzedDocument(
+          start < 0 ? String.join(" ", split) : input.substring(start, pointer), split, lang);
+      final Set<Entity> entities = doNER();
+      final Map<String, Set<Relation>> relations =
+          (task == FoxParameter.Task.RE) && (entities != null) ? doRE(entities) : null;
+      setURIs(entities);
+      document = null;
+
+      if (entities != null) {
+        if (start < 0) {
+          pointer = placeEntities(entities, input, pointer);
+        } else {
+          shiftIndices(entities, start);
+        }
+        addOutput(entities, relations);
+        flushed = foxJena.flush() && flushed;
+        found += entities.size();
+        if (html != null) {
+          html.append(toHtml(entities, input, htmlEnd, pointer));
+          htmlEnd = pointer;
+        }
+      }
     }
-    infoLog("Found " + entities.size() + " entities.");
+
+    if (html != null) {
+      html.append(input.substring(htmlEnd));
+      parameter.put(FoxParameter.Parameter.INPUT.toString(), html.toString());
+    }
+    if (!flushed) {
+      LOG.warn("Output format can not be flushed per window, the output model kept all windows.");
+    }
+    infoLog("Streaming done, found " + found + " entities.");
+  }
+
+  /**
+   * Replaces the start indices of the entities of a window that is not found in the input with the
+   * occurrences of their texts in the input from the given index on. Entities without an
+   * occurrence are removed.
+   *
+   * @param entities with start indices in the window
+   * @param input
+   * @param from index in the input the window starts after
+   * @return end of the last placed entity or from
+   */
+  protected int placeEntities(final Set<Entity> entities, final String input, final int from) {
+    int end = from;
+    for (final Iterator<Entity> iter = entities.iterator(); iter.hasNext();) {
+      final Entity entity = iter.next();
+      final int occurrences = entity.getIndices() == null ? 1 : entity.getIndices().size();
+      final Set<Integer> indices = new TreeSet<>();
+      int index = input.indexOf(entity.getText(), from);
+      while ((index > -1) && (indices.size() < occurrences)) {
+        indices.add(index);
+        end = Math.max(end, index + entity.getText().length());
+        index = input.indexOf(entity.getText(), index + 1);
+      }
+      if (indices.isEmpty()) {
+        iter.remove();
+      } else {
+        if (entity.getIndices() != null) {
+          entity.getIndices().clear();
+        }
+        entity.addAllIndicies(indices);
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Adds the offset to all start indices of the entities.
+   */
+  protected void shiftIndices(final Set<Entity> entities, final int offset) {
+    entities.forEach(entity -> entity.shiftIndices(offset));
   }
 
   protected void html(final Set<Entity> entities, final String input) {
+    parameter.put(FoxParameter.Parameter.INPUT.toString(),
+        toHtml(entities, input, 0, input.length()));
+
+    if (LOG.isTraceEnabled()) {
+      foxUtil.infotrace(nerTools, entities);
+    }
+  }
+
+  /**
+   * Creates the html of a part of the input with links of the entities in this part.
+   *
+   * @param entities with start indices in the part
+   * @param input
+   * @param from start of the part
+   * @param to end of the part
+   * @return html
+   */
+  protected String toHtml(final Set<Entity> entities, final String input, final int from,
+      final int to) {
 
     final Map<Integer, Entity> indexEntityMap = new HashMap<>();
     for (final Entity entity : entities) {
@@ -375,7 +624,7 @@ public class Fox extends AFox {
 
     String html = "";
 
-    int last = 0;
+    int last = from;
     for (final Integer index : startIndices) {
       final Entity entity = indexEntityMap.get(index);
       if ((entity.uri != null) && !entity.uri.trim().isEmpty()) {
@@ -389,12 +638,8 @@ public class Fox extends AFox {
       }
     }
 
-    html += input.substring(last);
-    parameter.put(FoxParameter.Parameter.INPUT.toString(), html);
-
-    if (LOG.isTraceEnabled()) {
-      foxUtil.infotrace(nerTools, entities);
-    }
+    html += input.substring(last, to);
+    return html;
   }
 
   /**
@@ -404,7 +649,95 @@ public class Fox extends AFox {
   public void run() {
     super.run();
     infoLog("Running Fox...");
+    document = null;
+    if (nerTools != null) {
+      nerTools.setCancelToken(cancelToken);
+      nerTools.setBypassCache(bypassCache);
+    }
+
+    try {
+      process();
+      // done
+      infoLog("Running Fox done.");
+    } catch (final CancellationException e) {
+      document = null;
+      infoLog("Running Fox cancelled.");
+    } finally {
+      if (nerTools != null) {
+        nerTools.setCancelToken(null);
+      }
+      if (countDownLatch != null) {
+        countDownLatch.countDown();
+      }
+    }
+  }
+
+  /**
+   * Gets the scope of near-duplicates with reusable annotations.
+   */
+  protected String getScope(final FoxParameter.Task task) {
+    return lang + ":" + task + ":" + linkingClass;
+  }
+
+  /**
+   * Reuses the annotations of the sentences the near-duplicate has as well, NER, RE and linking
+   * run on the other sentences only.
+   *
+   * @param similar near-duplicate of the document
+   * @param task NER or RE
+   * @return annotations of the document
+   */
+  protected NearDuplicateIndex.Record reuse(final NearDuplicateIndex.Record similar,
+      final FoxParameter.Task task) {
+    final NearDuplicateIndex.Record result = new NearDuplicateIndex.Record(document);
+    final int[] alignment = similar.align(result);
+    similar.copyTo(result, alignment);
+
+    final boolean[] reused = new boolean[document.getSentenceCount()];
+    for (final int j : alignment) {
+      if (j > -1) {
+        reused[j] = true;
+      }
+    }
+    final List<Integer> changed = new ArrayList<>();
+    for (int j = 0; j < reused.length; j++) {
+      if (!reused[j]) {
+        changed.add(j);
+      }
+    }
+    infoLog("Near-duplicate found, reused " + (reused.length - changed.size()) + "/"
+        + reused.length + " sentences.");
+
+    if (!changed.isEmpty()) {
+      final String[] sentences = new String[changed.size()];
+      final int[] positions = new int[changed.size()];
+      for (int k = 0; k < sentences.length; k++) {
+        positions[k] = changed.get(k);
+        sentences[k] = document.getSentence(positions[k]);
+      }
+
+      final AnalyzedDocument whole = document;
+      document = new AnalyzedDocument(String.join(" ", sentences), sentences, lang);
+      try {
+        final Set<Entity> entities = doNER();
+        final Map<String, Set<Relation>> relations =
+            (task == FoxParameter.Task.RE) && (entities != null) ? doRE(entities) : null;
+        setURIs(entities);
+        if (entities != null) {
+          new NearDuplicateIndex.Record(document, entities, relations).copyTo(result, positions);
+        }
+      } finally {
+        document = whole;
+      }
+    }
+    return result;
+  }
 
+  /**
+   * Runs the task given by the parameter, stops with a {@link CancellationException} in case the
+   * run was cancelled.
+   */
+  protected void process() {
     if (parameter == null) {
       LOG.error("Parameter not set.");
     } else {
@@ -414,17 +747,34 @@ public class Fox extends AFox {
 
       Set<Entity> entities = null;
       Map<String, Set<Relation>> relations = null;
+      boolean streamed = false;
+      boolean linked = false;
+      long[] signature = null;
 
       if ((input == null) || (task == null)) {
         LOG.error("Input or task parameter not set.");
       } else {
-        final TokenManager tokenManager = new TokenManager(input);
-        // clean input
-        input = tokenManager.getInput();
+        // clean input, segmented and tokenized once for all tools
+        input = TokenManager.cleanInput(input);
         parameter.put(FoxParameter.Parameter.INPUT.toString(), input);
+        final String[] sentences = FoxTextUtil.getSentences(input, lang);
+        final FoxParameter.Task t = FoxParameter.Task.fromString(task.toLowerCase());
+        final boolean isLight =
+            (light != null) && !light.equalsIgnoreCase(FoxParameter.FoxLight.OFF.toString());
+
+        if (!isLight && ((t == FoxParameter.Task.NER) || (t == FoxParameter.Task.RE))
+            && (windowSentences > 0) && (sentences != null)
+            && (sentences.length > windowSentences)) {
+          runWindows(input, sentences, t);
+          streamed = true;
+        } else {
+          document = new AnalyzedDocument(input, sentences, lang);
+        }
 
-        // light version
-        if ((light != null) && !light.equalsIgnoreCase(FoxParameter.FoxLight.OFF.toString())) {
+        if (streamed) {
+          // output is done
+        } else if (isLight) {
+          // light version
           switch (FoxParameter.Task.fromString(task.toLowerCase())) {
             case NER:
               entities = doNERLight(light);
@@ -441,11 +791,21 @@ public class Fox extends AFox {
               LOG.warn("Operation not supported.");
               break;
             case NER:
-              entities = doNER();
-              break;
             case RE:
-              entities = doNER();
-              relations = doRE(entities);
+              if (nearDuplicates.isEnabled() && !bypassCache) {
+                signature = nearDuplicates.signature(document.getTokenManager().getTokenSplit());
+              }
+              final NearDuplicateIndex.Record similar =
+                  signature == null ? null : nearDuplicates.find(getScope(t), signature);
+              if (similar != null) {
+                final NearDuplicateIndex.Record reused = reuse(similar, t);
+                entities = reused.getEntities();
+                relations = reused.getRelations();
+                linked = true;
+              } else {
+                entities = doNER();
+                relations = t == FoxParameter.Task.RE ? doRE(entities) : null;
+              }
               break;
             default:
               LOG.warn("Operation not supported.");
@@ -454,14 +814,16 @@ public class Fox extends AFox {
         }
       }
 
-      setURIs(entities);
-      setOutput(entities, relations);
-    }
-
-    // done
-    infoLog("Running Fox done.");
-    if (countDownLatch != null) {
-      countDownLatch.countDown();
+      if (!streamed) {
+        if (!linked) {
+          setURIs(entities);
+        }
+        if ((signature != null) && (entities != null) && skippedTools.isEmpty()) {
+          nearDuplicates.add(getScope(FoxParameter.Task.fromString(task.toLowerCase())), signature,
+              new NearDuplicateIndex.Record(document, entities, relations));
+        }
+        setOutput(entities, relations);
+      }
     }
   }
 
@@ -469,18 +831,23 @@ public class Fox extends AFox {
   public void setParameter(final Map<String, String> parameter) {
     super.setParameter(parameter);
 
+    bypassCache = FoxParameter.Cache.OFF.toString()
+        .equalsIgnoreCase(parameter.get(FoxParameter.Parameter.CACHE.toString()));
+
     String paraUriLookup = parameter.get(FoxParameter.Parameter.LINKING.toString());
     if (paraUriLookup != null) {
+      paraUriLookup = paraUriLookup.trim();
       if (paraUriLookup.equalsIgnoreCase(FoxParameter.Linking.OFF.toString())) {
         paraUriLookup = NoLinking.class.getName();
+      } else if (!paraUriLookup.equals(NoLinking.class.getName())
+          && !ToolsGenerator.isDisambiguationTool(paraUriLookup)) {
+        // only configured tools are acquired, each class would stay in the registry
+        infoLog("Unknown linking tool: " + paraUriLookup + ", linking is off.");
+        paraUriLookup = NoLinking.class.getName();
       }
-
-      try {
-        linking = (ILinking) FoxCfg.getClass(paraUriLookup.trim());
-      } catch (final Exception e) {
-        LOG.error("InterfaceURI not found. Check parameter: "
-            + FoxParameter.Parameter.LINKING.toString());
-      }
+      linkingClass = paraUriLookup;
+    } else {
+      linkingClass = null;
     }
   }
 }
@@ -16,7 +16,8 @@ public class FoxParameter {
     FOXLIGHT("foxlight"), //
     NIF("nif"), //
     LANG("lang"), //
-    LINKING("disamb");
+    LINKING("disamb"), //
+    CACHE("cache");
 
     private final String para;
 
@@ -67,6 +68,26 @@ public class FoxParameter {
     }
   }
 
+  /**
+   * Values of {@link Parameter#CACHE}, off for runs that have to run all tools, e.g. health checks
+   * and warm-ups, so they neither use nor fill the caches of all requests.
+   */
+  public enum Cache {
+
+    OFF("off");
+
+    private final String para;
+
+    Cache(final String parameter) {
+      para = parameter;
+    }
+
+    @Override
+    public String toString() {
+      return para;
+    }
+  }
+
   public enum Output {
 
     RDFXML(Lang.RDFXML.getName()), //
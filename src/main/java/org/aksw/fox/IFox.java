@@ -1,6 +1,7 @@
 package org.aksw.fox;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 
 /**
@@ -9,7 +10,7 @@ import java.util.concurrent.CountDownLatch;
  * @author Ren&eacute; Speck <speck@informatik.uni-leipzig.de>
  *
  */
-public interface IFox extends Runnable {
+public interface IFox extends Runnable, AutoCloseable {
 
   /**
    * Sets an optional {@link java.util.concurrent.CountDownLatch} object. FOX counts it down
@@ -46,4 +47,24 @@ public interface IFox extends Runnable {
    * @return log
    */
   public String getLog();
+
+  /**
+   * Gets the tools that were skipped in the last run, because they were not done in time or
+   * failed.
+   *
+   * @return tool names
+   */
+  public Set<String> getSkippedTools();
+
+  /**
+   * Stops the current run, tools stop their work at their next check.
+   */
+  public void cancel();
+
+  /**
+   * Releases the tools of this instance, e.g. when it is removed from a pool. The instance can not
+   * be used anymore.
+   */
+  @Override
+  public default void close() {}
 }
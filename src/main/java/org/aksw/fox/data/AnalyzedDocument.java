@@ -0,0 +1,169 @@
+package org.aksw.fox.data;
+
+import java.util.Arrays;
+
+import org.aksw.fox.utils.FoxTextUtil;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * The input of one request, segmented and tokenized once and shared read-only by all tools.
+ *
+ * Holds the clean input, its sentences with start offsets, the token of each sentence and a
+ * {@link TokenManager} over all token. Arrays are copied on access, so instances can be used by
+ * many threads.
+ *
+ * @author rspeck
+ *
+ */
+public class AnalyzedDocument {
+
+  public static Logger LOG = LogManager.getLogger(AnalyzedDocument.class);
+
+  protected final String lang;
+  protected final String input;
+
+  protected final String[] sentences;
+  protected final int[] sentenceStarts;
+  protected final String[][] sentenceToken;
+
+  protected final TokenManager tokenManager;
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param text plain text
+   * @param lang language of the text
+   */
+  public AnalyzedDocument(final String text, final String lang) {
+    this(TokenManager.cleanInput(text), null, lang);
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param input clean input, see {@link TokenManager#cleanInput(String)}
+   * @param sentenceSplit sentences of the input separated by one space or null to detect them with
+   *        the sentence model of the language
+   * @param lang language of the text
+   */
+  public AnalyzedDocument(final String input, final String[] sentenceSplit, final String lang) {
+    this.lang = lang;
+    this.input = input;
+
+    final String[] s =
+        sentenceSplit == null ? FoxTextUtil.getSentences(input, lang) : sentenceSplit.clone();
+    sentences = s == null ? new String[0] : s;
+    sentenceStarts = new int[sentences.length];
+    sentenceToken = new String[sentences.length][];
+
+    int pointer = 0;
+    int tokenCount = 0;
+    for (int i = 0; i < sentences.length; i++) {
+      final int start = input.indexOf(sentences[i], pointer);
+      sentenceStarts[i] = start < 0 ? pointer : start;
+      pointer = sentenceStarts[i] + sentences[i].length();
+
+      sentenceToken[i] = FoxTextUtil.getSentenceToken(sentences[i]);
+      tokenCount += sentenceToken[i].length;
+    }
+
+    final String[] tokenSplit = new String[tokenCount];
+    int i = 0;
+    for (final String[] token : sentenceToken) {
+      System.arraycopy(token, 0, tokenSplit, i, token.length);
+      i += token.length;
+    }
+    tokenManager = new TokenManager(input, tokenSplit);
+
+    LOG.info("sentences: " + sentences.length + ", token: " + tokenCount);
+  }
+
+  public String getLang() {
+    return lang;
+  }
+
+  /**
+   * Gets the clean input, see {@link TokenManager#cleanInput(String)}.
+   *
+   * @return input
+   */
+  public String getInput() {
+    return input;
+  }
+
+  public int getSentenceCount() {
+    return sentences.length;
+  }
+
+  public String[] getSentences() {
+    return sentences.clone();
+  }
+
+  public String getSentence(final int i) {
+    return sentences[i];
+  }
+
+  /**
+   * Gets the start offset of a sentence in the input.
+   *
+   * @param i sentence position
+   * @return offset
+   */
+  public int getSentenceStart(final int i) {
+    return sentenceStarts[i];
+  }
+
+  /**
+   * Gets the input from the start of a sentence to the start of the next one, so the whitespace
+   * after the sentence is included.
+   *
+   * @param i sentence position
+   * @return text
+   */
+  public String getSentenceText(final int i) {
+    final int end = (i + 1) < sentences.length ? sentenceStarts[i + 1] : input.length();
+    return input.substring(sentenceStarts[i], end);
+  }
+
+  /**
+   * Gets the token of a sentence as given by {@link FoxTextUtil#getSentenceToken(String)}.
+   *
+   * @param i sentence position
+   * @return a copy of the token
+   */
+  public String[] getSentenceToken(final int i) {
+    return sentenceToken[i].clone();
+  }
+
+  /**
+   * Creates a document of the sentences <code>from</code> (inclusive) to <code>to</code>
+   * (exclusive). Offsets of the new document start at {@link #getSentenceStart(int)} of
+   * <code>from</code> in this document.
+   *
+   * @param from first sentence
+   * @param to sentence after the last one
+   * @return document
+   */
+  public AnalyzedDocument subDocument(final int from, final int to) {
+    if ((from < 0) || (to > sentences.length) || (from >= to)) {
+      throw new IndexOutOfBoundsException(
+          "from: " + from + ", to: " + to + ", sentences: " + sentences.length);
+    }
+    final int end = sentenceStarts[to - 1] + sentences[to - 1].length();
+    return new AnalyzedDocument(input.substring(sentenceStarts[from], end),
+        Arrays.copyOfRange(sentences, from, to), lang);
+  }
+
+  public TokenManager getTokenManager() {
+    return tokenManager;
+  }
+
+  @Override
+  public String toString() {
+    return "AnalyzedDocument [lang=" + lang + ", sentences=" + sentences.length + ", length="
+        + input.length() + "]";
+  }
+}
@@ -1,6 +1,5 @@
 package org.aksw.fox.data;
 
-import java.util.HashSet;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -13,9 +12,13 @@ public class Entity implements IData {
 
   public static final float DEFAULT_RELEVANCE = -1;
 
-  protected String text = "";
+  /**
+   * Text and type are the identity of an entity, see {@link #equals(Object)}, and do not change
+   * while the entity is in a hash set. Use {@link #withText(String)} for an other text.
+   */
+  protected final String text;
 
-  protected String type = "";
+  protected final String type;
 
   public String uri = null;
 
@@ -24,7 +27,8 @@ public class Entity implements IData {
   protected String tool = "";
 
   /**
-   * Start indices.
+   * Start indices, character offsets in the input. The end offset of an occurrence is the start
+   * index plus the text length.
    */
   protected Set<Integer> indicies = null;
 
@@ -67,8 +71,20 @@ public class Entity implements IData {
     this.tool = tool;
   }
 
-  public void addText(final String text) {
-    this.text += " " + text;
+  /**
+   * Creates a copy of this entity with the given text, e.g. to add a token of a multiword entity
+   * or for a repaired text.
+   *
+   * @param text
+   * @return new entity with the type, relevance, tool, uri and indices of this entity
+   */
+  public Entity withText(final String text) {
+    final Entity entity = new Entity(text, type, relevance, tool);
+    entity.uri = uri;
+    if (indicies != null) {
+      entity.addAllIndicies(indicies);
+    }
+    return entity;
   }
 
   @Override
@@ -126,11 +142,26 @@ public class Entity implements IData {
    */
   public void addAllIndicies(final Set<Integer> indices) {
     if (indicies == null) {
-      indicies = new HashSet<>();
+      indicies = new TreeSet<>();
     }
     indicies.addAll(indices);
   }
 
+  /**
+   * Adds the offset to all start indices, used for results of a part of the input.
+   *
+   * @param offset
+   */
+  public void shiftIndices(final int offset) {
+    if ((indicies != null) && (offset != 0)) {
+      final Set<Integer> shifted = new TreeSet<>();
+      for (final Integer index : indicies) {
+        shifted.add(index + offset);
+      }
+      indicies = shifted;
+    }
+  }
+
   @Override
   public String getToolName() {
     return tool;
@@ -157,10 +188,6 @@ public class Entity implements IData {
     return result;
   }
 
-  public void setText(final String text) {
-    this.text = text;
-  }
-
   @Override
   public String toString() {
     return "Entity [text=" + text + ", type=" + type + ", tool=" + tool + ", relevance=" + relevance
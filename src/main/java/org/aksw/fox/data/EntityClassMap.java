@@ -22,6 +22,16 @@ public class EntityClassMap {
 
   public static final List<String> entityClasses = Arrays.asList(L, O, P, N);
 
+  /**
+   * Compact codes of the types/classes, used in {@link EntitySpan} and {@link EntitySet}.
+   */
+  public static final byte CODE_N = 0;
+  public static final byte CODE_L = 1;
+  public static final byte CODE_O = 2;
+  public static final byte CODE_P = 3;
+
+  private static final String[] codeToClass = {N, L, O, P};
+
   protected static final Map<String, String> entityClassesOracel = new HashMap<>();
   static {
     entityClassesOracel.put("ORGANIZATION", O);
@@ -76,6 +86,33 @@ public class EntityClassMap {
     return t;
   }
 
+  /**
+   * Gets the code of a type/class.
+   *
+   * @param type one of {@link #entityClasses}
+   * @return code, {@link #CODE_N} for unknown types
+   */
+  public static byte toCode(final String type) {
+    if (L.equals(type)) {
+      return CODE_L;
+    } else if (O.equals(type)) {
+      return CODE_O;
+    } else if (P.equals(type)) {
+      return CODE_P;
+    }
+    return CODE_N;
+  }
+
+  /**
+   * Gets the type/class of a code.
+   *
+   * @param code
+   * @return type/class, {@link #N} for unknown codes
+   */
+  public static String fromCode(final byte code) {
+    return (code > 0) && (code < codeToClass.length) ? codeToClass[code] : N;
+  }
+
   /**
    * Gets the null type/class.
    */
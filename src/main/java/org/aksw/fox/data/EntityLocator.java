@@ -0,0 +1,281 @@
+package org.aksw.fox.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.aksw.fox.utils.FoxTextUtil;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Finds all token aligned occurrences of many entity surface forms in one pass over a text (Aho
+ * Corasick automaton).
+ *
+ * An occurrence is token aligned if it starts at the begin of the text or after a space and ends at
+ * the end of the text or before a space, as with {@link FoxTextUtil#getIndices(String, String)}.
+ * Surface forms are trimmed.
+ *
+ * @author rspeck
+ *
+ */
+public class EntityLocator {
+
+  public static Logger LOG = LogManager.getLogger(EntityLocator.class);
+
+  protected final String text;
+
+  /**
+   * Trimmed surface form to start indices of the found occurrences.
+   */
+  protected final Map<String, Set<Integer>> occurrences = new HashMap<>();
+
+  // automaton
+  protected final List<String> patterns = new ArrayList<>();
+  /**
+   * Transitions, open addressing over the key of a state and a char, see {@link #key(int, char)}.
+   * The next state 0 marks a free slot, the root is never the next state.
+   */
+  protected long[] transitionKeys = new long[64];
+  protected int[] transitionStates = new int[64];
+  protected int transitions = 0;
+  protected int[] fail = new int[16];
+  protected int[] match = new int[16];
+  protected int[] outputLink = new int[16];
+  protected int states = 1;
+
+  /**
+   * Builds the automaton and locates the given surface forms in the text.
+   *
+   * @param text to search in, e.g. {@link TokenManager#getTokenInput()}
+   * @param surfaceForms to search for
+   */
+  public EntityLocator(final String text, final Collection<String> surfaceForms) {
+    this.text = text == null ? "" : text;
+
+    match[0] = -1;
+    for (final String surfaceForm : surfaceForms) {
+      if (surfaceForm != null) {
+        final String pattern = surfaceForm.trim();
+        if (!pattern.isEmpty() && !occurrences.containsKey(pattern)) {
+          occurrences.put(pattern, Collections.<Integer>emptySet());
+          addPattern(pattern);
+        }
+      }
+    }
+    buildFailureLinks();
+    locate();
+  }
+
+  /**
+   * Gets the start indices of all token aligned occurrences.
+   *
+   * @param surfaceForm
+   * @return start indices, empty in case there is no occurrence
+   */
+  public Set<Integer> getIndices(final String surfaceForm) {
+    if (surfaceForm == null) {
+      return Collections.emptySet();
+    }
+    final Set<Integer> indices = occurrences.get(surfaceForm.trim());
+    if (indices == null) {
+      LOG.debug("not in automaton: " + surfaceForm);
+      return FoxTextUtil.getIndices(surfaceForm, text);
+    }
+    return indices;
+  }
+
+  /**
+   * Checks if the surface form occurs in the text.
+   *
+   * @param surfaceForm
+   * @return true in case there is at least one token aligned occurrence
+   */
+  public boolean contains(final String surfaceForm) {
+    return !getIndices(surfaceForm).isEmpty();
+  }
+
+  /**
+   * Gets all found surface forms with their start indices.
+   *
+   * @return trimmed surface form to start indices
+   */
+  public Map<String, Set<Integer>> getOccurrences() {
+    final Map<String, Set<Integer>> found = new LinkedHashMap<>();
+    for (final String pattern : patterns) {
+      final Set<Integer> indices = occurrences.get(pattern);
+      if (!indices.isEmpty()) {
+        found.put(pattern, indices);
+      }
+    }
+    return found;
+  }
+
+  private static long key(final int state, final char c) {
+    return ((long) state << 16) | c;
+  }
+
+  private static int slot(final long key, final int mask) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+  }
+
+  private int next(final int state, final char c) {
+    final long key = key(state, c);
+    final int mask = transitionKeys.length - 1;
+    for (int i = slot(key, mask); transitionStates[i] != 0; i = (i + 1) & mask) {
+      if (transitionKeys[i] == key) {
+        return transitionStates[i];
+      }
+    }
+    return -1;
+  }
+
+  private void putTransition(final long key, final int next) {
+    if (((transitions + 1) << 1) > transitionKeys.length) {
+      final long[] keys = transitionKeys;
+      final int[] states = transitionStates;
+      transitionKeys = new long[keys.length << 1];
+      transitionStates = new int[keys.length << 1];
+      for (int i = 0; i < keys.length; i++) {
+        if (states[i] != 0) {
+          insert(keys[i], states[i]);
+        }
+      }
+    }
+    insert(key, next);
+    transitions++;
+  }
+
+  private void insert(final long key, final int next) {
+    final int mask = transitionKeys.length - 1;
+    int i = slot(key, mask);
+    while (transitionStates[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    transitionKeys[i] = key;
+    transitionStates[i] = next;
+  }
+
+  private void addPattern(final String pattern) {
+    int state = 0;
+    for (int i = 0; i < pattern.length(); i++) {
+      final char c = pattern.charAt(i);
+      int next = next(state, c);
+      if (next < 0) {
+        next = newState();
+        putTransition(key(state, c), next);
+      }
+      state = next;
+    }
+    match[state] = patterns.size();
+    patterns.add(pattern);
+  }
+
+  private int newState() {
+    if (states == fail.length) {
+      final int len = states << 1;
+      fail = Arrays.copyOf(fail, len);
+      match = Arrays.copyOf(match, len);
+      outputLink = Arrays.copyOf(outputLink, len);
+    }
+    match[states] = -1;
+    return states++;
+  }
+
+  /**
+   * Breadth first over the trie, sets the failure link and the link to the next state on the
+   * failure chain that ends a pattern.
+   */
+  private void buildFailureLinks() {
+    // children of each state
+    final List<List<long[]>> children = new ArrayList<>(states);
+    for (int i = 0; i < states; i++) {
+      children.add(null);
+    }
+    for (int i = 0; i < transitionKeys.length; i++) {
+      if (transitionStates[i] == 0) {
+        continue;
+      }
+      final int parent = (int) (transitionKeys[i] >>> 16);
+      List<long[]> list = children.get(parent);
+      if (list == null) {
+        list = new ArrayList<>(2);
+        children.set(parent, list);
+      }
+      list.add(new long[] {transitionKeys[i] & 0xFFFF, transitionStates[i]});
+    }
+
+    final int[] queue = new int[states];
+    int head = 0;
+    int tail = 0;
+    fail[0] = 0;
+    outputLink[0] = -1;
+    queue[tail++] = 0;
+    while (head < tail) {
+      final int state = queue[head++];
+      final List<long[]> list = children.get(state);
+      if (list == null) {
+        continue;
+      }
+      for (final long[] child : list) {
+        final char c = (char) child[0];
+        final int next = (int) child[1];
+
+        int f = -1;
+        if (state != 0) {
+          int s = fail[state];
+          while (true) {
+            f = next(s, c);
+            if ((f >= 0) || (s == 0)) {
+              break;
+            }
+            s = fail[s];
+          }
+        }
+        fail[next] = f < 0 ? 0 : f;
+        outputLink[next] = match[fail[next]] >= 0 ? fail[next] : outputLink[fail[next]];
+        queue[tail++] = next;
+      }
+    }
+  }
+
+  /**
+   * One pass over the text.
+   */
+  private void locate() {
+    final int len = text.length();
+    int state = 0;
+    for (int i = 0; i < len; i++) {
+      final char c = text.charAt(i);
+      int next = next(state, c);
+      while ((next < 0) && (state != 0)) {
+        state = fail[state];
+        next = next(state, c);
+      }
+      state = next < 0 ? 0 : next;
+
+      // token aligned end
+      if ((i + 1 == len) || (text.charAt(i + 1) == ' ')) {
+        for (int s = match[state] >= 0 ? state : outputLink[state]; s > 0; s = outputLink[s]) {
+          final String pattern = patterns.get(match[s]);
+          final int start = (i + 1) - pattern.length();
+          if ((start == 0) || (text.charAt(start - 1) == ' ')) {
+            Set<Integer> indices = occurrences.get(pattern);
+            if (indices.isEmpty()) {
+              indices = new TreeSet<>();
+              occurrences.put(pattern, indices);
+            }
+            indices.add(start);
+          }
+        }
+      }
+    }
+  }
+}
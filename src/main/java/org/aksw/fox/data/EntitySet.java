@@ -0,0 +1,301 @@
+package org.aksw.fox.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The entity occurrences of one tool in columns of primitive arrays (start, end and type code), a
+ * compact form of a <code>Set&lt;Entity&gt;</code> with indices.
+ *
+ * Spans are kept sorted by start offset and are unique, so lookups are binary searches. Rows are
+ * read with {@link #get(int)} or the column getters.
+ *
+ * @author rspeck
+ *
+ */
+public class EntitySet implements Iterable<EntitySpan> {
+
+  protected final short tool;
+
+  protected int[] starts;
+  protected int[] ends;
+  protected byte[] types;
+  protected int size = 0;
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param toolName
+   */
+  public EntitySet(final String toolName) {
+    this(ToolIds.getId(toolName), 8);
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param tool tool id
+   * @param capacity initial capacity
+   */
+  public EntitySet(final short tool, final int capacity) {
+    this.tool = tool;
+    starts = new int[Math.max(capacity, 1)];
+    ends = new int[Math.max(capacity, 1)];
+    types = new byte[Math.max(capacity, 1)];
+  }
+
+  /**
+   * Creates a set of the occurrences of the given entities, entities without indices are skipped.
+   *
+   * @param toolName
+   * @param entities entities with start indices
+   * @return set
+   */
+  public static EntitySet fromEntities(final String toolName,
+      final Collection<Entity> entities) {
+    final EntitySet set = new EntitySet(ToolIds.getId(toolName), entities.size());
+    for (final Entity entity : entities) {
+      if (entity.getIndices() != null) {
+        final byte type = EntityClassMap.toCode(entity.getType());
+        final int length = entity.getText().length();
+        for (final Integer start : entity.getIndices()) {
+          set.add(start, start + length, type);
+        }
+      }
+    }
+    set.trimToSize();
+    return set;
+  }
+
+  /**
+   * Creates entities, one for each text and type with all start indices.
+   *
+   * @param input the text the offsets refer to
+   * @return entities
+   */
+  public Set<Entity> toEntities(final String input) {
+    return toEntities(input, 0);
+  }
+
+  /**
+   * Creates entities of spans with offsets relative to the given offset, e.g. of a sentence.
+   *
+   * @param input the text the shifted offsets refer to
+   * @param offset added to all offsets
+   * @return entities with the shifted start indices
+   */
+  public Set<Entity> toEntities(final String input, final int offset) {
+    final Map<Entity, Entity> entities = new LinkedHashMap<>();
+    final String toolName = getToolName();
+    for (int i = 0; i < size; i++) {
+      final Entity entity = new Entity(input.substring(offset + starts[i], offset + ends[i]),
+          EntityClassMap.fromCode(types[i]), Entity.DEFAULT_RELEVANCE, toolName);
+      Entity known = entities.get(entity);
+      if (known == null) {
+        known = entity;
+        entities.put(entity, entity);
+      }
+      known.addIndicies(offset + starts[i]);
+    }
+    return new LinkedHashSet<>(entities.keySet());
+  }
+
+  /**
+   * Adds a span, keeps the order by start offset.
+   *
+   * @param start inclusive
+   * @param end exclusive
+   * @param type type code
+   * @return false in case the span is already in the set
+   */
+  public boolean add(final int start, final int end, final byte type) {
+    if ((start < 0) || (end < start)) {
+      throw new IllegalArgumentException("Invalid span: " + start + ", " + end);
+    }
+
+    int pos;
+    if ((size == 0) || (compare(size - 1, start, end, type) < 0)) {
+      pos = size;
+    } else {
+      pos = search(start, end, type);
+      if (pos >= 0) {
+        return false;
+      }
+      pos = -pos - 1;
+    }
+
+    if (size == starts.length) {
+      final int capacity = size + (size >> 1) + 1;
+      starts = Arrays.copyOf(starts, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      types = Arrays.copyOf(types, capacity);
+    }
+    if (pos < size) {
+      System.arraycopy(starts, pos, starts, pos + 1, size - pos);
+      System.arraycopy(ends, pos, ends, pos + 1, size - pos);
+      System.arraycopy(types, pos, types, pos + 1, size - pos);
+    }
+    starts[pos] = start;
+    ends[pos] = end;
+    types[pos] = type;
+    size++;
+    return true;
+  }
+
+  public boolean add(final EntitySpan span) {
+    return add(span.getStart(), span.getEnd(), span.getTypeCode());
+  }
+
+  /**
+   * Adds the spans of the other set, e.g. of a batch, shifted by the offset. Spans after the last
+   * one are appended without a search.
+   *
+   * @param other
+   * @param offset added to all offsets of the other set
+   */
+  public void addAll(final EntitySet other, final int offset) {
+    for (int i = 0; i < other.size; i++) {
+      add(other.starts[i] + offset, other.ends[i] + offset, other.types[i]);
+    }
+  }
+
+  public boolean contains(final int start, final int end, final byte type) {
+    return search(start, end, type) >= 0;
+  }
+
+  /**
+   * Gets the position of the first span that starts at or after the given offset.
+   *
+   * @param start offset
+   * @return position, {@link #size()} in case there is none
+   */
+  public int firstAtOrAfter(final int start) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (starts[mid] < start) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  private int compare(final int i, final int start, final int end, final byte type) {
+    int c = Integer.compare(starts[i], start);
+    if (c == 0) {
+      c = Integer.compare(ends[i], end);
+    }
+    if (c == 0) {
+      c = Byte.compare(types[i], type);
+    }
+    return c;
+  }
+
+  private int search(final int start, final int end, final byte type) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int c = compare(mid, start, end, type);
+      if (c < 0) {
+        low = mid + 1;
+      } else if (c > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Sets the capacity to the size.
+   */
+  public void trimToSize() {
+    if (size < starts.length) {
+      starts = Arrays.copyOf(starts, size);
+      ends = Arrays.copyOf(ends, size);
+      types = Arrays.copyOf(types, size);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public int getStart(final int i) {
+    checkIndex(i);
+    return starts[i];
+  }
+
+  public int getEnd(final int i) {
+    checkIndex(i);
+    return ends[i];
+  }
+
+  public byte getTypeCode(final int i) {
+    checkIndex(i);
+    return types[i];
+  }
+
+  public EntitySpan get(final int i) {
+    checkIndex(i);
+    return new EntitySpan(starts[i], ends[i], types[i], tool);
+  }
+
+  public short getToolId() {
+    return tool;
+  }
+
+  public String getToolName() {
+    return ToolIds.getName(tool);
+  }
+
+  private void checkIndex(final int i) {
+    if ((i < 0) || (i >= size)) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", size: " + size);
+    }
+  }
+
+  @Override
+  public Iterator<EntitySpan> iterator() {
+    return new Iterator<EntitySpan>() {
+      int i = 0;
+
+      @Override
+      public boolean hasNext() {
+        return i < size;
+      }
+
+      @Override
+      public EntitySpan next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return get(i++);
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("EntitySet [tool=").append(getToolName());
+    sb.append(", size=").append(size).append("]");
+    return sb.toString();
+  }
+}
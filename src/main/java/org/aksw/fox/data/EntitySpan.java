@@ -0,0 +1,126 @@
+package org.aksw.fox.data;
+
+/**
+ * An immutable entity occurrence: character offsets in the input, a type code (see
+ * {@link EntityClassMap#toCode(String)}) and a tool id (see {@link ToolIds}).
+ *
+ * @author rspeck
+ *
+ */
+public final class EntitySpan implements IData, Comparable<EntitySpan> {
+
+  private final int start;
+  private final int end;
+  private final byte type;
+  private final short tool;
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param start inclusive
+   * @param end exclusive
+   * @param type type code
+   * @param tool tool id
+   */
+  public EntitySpan(final int start, final int end, final byte type, final short tool) {
+    if ((start < 0) || (end < start)) {
+      throw new IllegalArgumentException("Invalid span: " + start + ", " + end);
+    }
+    this.start = start;
+    this.end = end;
+    this.type = type;
+    this.tool = tool;
+  }
+
+  public int getStart() {
+    return start;
+  }
+
+  public int getEnd() {
+    return end;
+  }
+
+  public int length() {
+    return end - start;
+  }
+
+  public byte getTypeCode() {
+    return type;
+  }
+
+  public String getType() {
+    return EntityClassMap.fromCode(type);
+  }
+
+  public short getToolId() {
+    return tool;
+  }
+
+  @Override
+  public String getToolName() {
+    return ToolIds.getName(tool);
+  }
+
+  /**
+   * Gets the text of the span.
+   *
+   * @param input the text the offsets refer to
+   * @return text
+   */
+  public String getText(final CharSequence input) {
+    return input.subSequence(start, end).toString();
+  }
+
+  /**
+   * Checks if the spans share at least one character.
+   */
+  public boolean overlaps(final EntitySpan other) {
+    return (start < other.end) && (other.start < end);
+  }
+
+  @Override
+  public int compareTo(final EntitySpan o) {
+    int c = Integer.compare(start, o.start);
+    if (c == 0) {
+      c = Integer.compare(end, o.end);
+    }
+    if (c == 0) {
+      c = Byte.compare(type, o.type);
+    }
+    if (c == 0) {
+      c = Short.compare(tool, o.tool);
+    }
+    return c;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof EntitySpan)) {
+      return false;
+    }
+    final EntitySpan other = (EntitySpan) obj;
+    return (start == other.start) && (end == other.end) && (type == other.type)
+        && (tool == other.tool);
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = (prime * result) + start;
+    result = (prime * result) + end;
+    result = (prime * result) + type;
+    result = (prime * result) + tool;
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "EntitySpan [start=" + start + ", end=" + end + ", type=" + getType() + ", tool="
+        + getToolName() + "]";
+  }
+}
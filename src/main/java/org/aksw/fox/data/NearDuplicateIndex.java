@@ -0,0 +1,470 @@
+package org.aksw.fox.data;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aksw.fox.utils.FoxCfg;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * MinHash/LSH index over the annotations of recently processed documents, to find a near-duplicate
+ * of a new document, e.g. the same wire story with another headline or footer.
+ *
+ * The signature of a document has {@link #HASHES} min hashes of the shingles of
+ * {@link #CFG_KEY_SHINGLE_SIZE} token of its {@link TokenManager}. Signatures are split in
+ * {@link #BANDS} bands, documents with an equal band are candidates and the candidate with the most
+ * equal min hashes is a near-duplicate in case this estimated Jaccard similarity is at least
+ * {@link #CFG_KEY_THRESHOLD}. Documents are compared within a scope only, e.g. the language, task
+ * and linking tool.
+ *
+ * The index keeps the last {@link #CFG_KEY_MAX_DOCUMENTS} documents with at most
+ * {@link #CFG_KEY_MAX_BYTES} estimated bytes, least recently used ones are removed first. Documents
+ * larger than the byte limit are not added.
+ *
+ * @author rspeck
+ *
+ */
+public class NearDuplicateIndex {
+
+  public static final Logger LOG = LogManager.getLogger(NearDuplicateIndex.class);
+
+  public static final String CFG_KEY_MAX_DOCUMENTS =
+      NearDuplicateIndex.class.getName().concat(".maxDocuments");
+  public static final String CFG_KEY_MAX_BYTES =
+      NearDuplicateIndex.class.getName().concat(".maxBytes");
+  public static final String CFG_KEY_THRESHOLD =
+      NearDuplicateIndex.class.getName().concat(".threshold");
+  public static final String CFG_KEY_SHINGLE_SIZE =
+      NearDuplicateIndex.class.getName().concat(".shingleSize");
+
+  /**
+   * Min hashes per signature, {@link #BANDS} bands of {@link #ROWS} rows.
+   */
+  public static final int HASHES = 64;
+  public static final int BANDS = 16;
+  public static final int ROWS = HASHES / BANDS;
+
+  protected static final long[] seeds = new long[HASHES];
+  static {
+    final Random random = new Random(HASHES);
+    for (int i = 0; i < HASHES; i++) {
+      seeds[i] = random.nextLong();
+    }
+  }
+
+  protected final int maxDocuments;
+  protected final long maxBytes;
+  protected final double threshold;
+  protected final int shingleSize;
+
+  /**
+   * Id to document in access order, id to signature to compare candidates without a change of the
+   * access order, band key to ids, guarded by this.
+   */
+  protected final LinkedHashMap<Long, Record> records = new LinkedHashMap<>(16, 0.75f, true);
+  protected final Map<Long, long[]> signatures = new HashMap<>();
+  protected final Map<String, Set<Long>> buckets = new HashMap<>();
+  protected long ids = 0;
+  protected long bytes = 0;
+
+  protected final AtomicLong lookups = new AtomicLong();
+  protected final AtomicLong matches = new AtomicLong();
+  protected final AtomicLong evictions = new AtomicLong();
+  protected final AtomicLong oversized = new AtomicLong();
+
+  /**
+   * Creates the index with the settings in the fox properties.
+   */
+  public NearDuplicateIndex() {
+    this(Integer.parseInt(FoxCfg.get(CFG_KEY_MAX_DOCUMENTS, "1000")),
+        Long.parseLong(FoxCfg.get(CFG_KEY_MAX_BYTES, "67108864")),
+        Double.parseDouble(FoxCfg.get(CFG_KEY_THRESHOLD, "0.8")),
+        Integer.parseInt(FoxCfg.get(CFG_KEY_SHINGLE_SIZE, "3")));
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param maxDocuments 0 to disable the index
+   * @param maxBytes max. estimated size of all documents
+   * @param threshold min. estimated Jaccard similarity of near-duplicates
+   * @param shingleSize token per shingle
+   */
+  public NearDuplicateIndex(final int maxDocuments, final long maxBytes, final double threshold,
+      final int shingleSize) {
+    this.maxDocuments = maxDocuments;
+    this.maxBytes = maxBytes;
+    this.threshold = threshold;
+    this.shingleSize = Math.max(1, shingleSize);
+  }
+
+  public boolean isEnabled() {
+    return maxDocuments > 0;
+  }
+
+  /**
+   * Creates the MinHash signature of the token.
+   *
+   * @param token e.g. {@link TokenManager#getTokenSplit()}
+   * @return signature
+   */
+  public long[] signature(final String[] token) {
+    final List<String> words = new ArrayList<>(token.length);
+    for (final String t : token) {
+      if ((t != null) && !t.trim().isEmpty()) {
+        words.add(t);
+      }
+    }
+
+    final long[] signature = new long[HASHES];
+    Arrays.fill(signature, Long.MAX_VALUE);
+    final int shingles = Math.max(1, (words.size() - shingleSize) + 1);
+    for (int s = 0; s < shingles; s++) {
+      final long hash = hash(words.subList(s, Math.min(words.size(), s + shingleSize)));
+      for (int i = 0; i < HASHES; i++) {
+        signature[i] = Math.min(signature[i], mix(hash ^ seeds[i]));
+      }
+    }
+    return signature;
+  }
+
+  /**
+   * Finds the most similar document of the scope.
+   *
+   * @param scope
+   * @param signature
+   * @return near-duplicate or null
+   */
+  public synchronized Record find(final String scope, final long[] signature) {
+    lookups.incrementAndGet();
+    final Set<Long> candidates = new HashSet<>();
+    for (int band = 0; band < BANDS; band++) {
+      final Set<Long> bucket = buckets.get(bandKey(scope, signature, band));
+      if (bucket != null) {
+        candidates.addAll(bucket);
+      }
+    }
+
+    Long best = null;
+    double bestSimilarity = threshold;
+    for (final Long id : candidates) {
+      final double similarity = similarity(signature, signatures.get(id));
+      if (similarity >= bestSimilarity) {
+        best = id;
+        bestSimilarity = similarity;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+    matches.incrementAndGet();
+    LOG.info("Near-duplicate found, estimated similarity: " + bestSimilarity);
+    // access order of the match only
+    return records.get(best);
+  }
+
+  /**
+   * Adds a document.
+   *
+   * @param scope
+   * @param signature of the document
+   * @param record annotations of the document
+   */
+  public synchronized void add(final String scope, final long[] signature, final Record record) {
+    if (!isEnabled()) {
+      return;
+    }
+    record.scope = scope;
+    record.signature = signature;
+    record.size = record.sizeOf();
+    if (record.size > maxBytes) {
+      oversized.incrementAndGet();
+      LOG.debug("Document not indexed, estimated bytes: " + record.size);
+      return;
+    }
+    final long id = ids++;
+    records.put(id, record);
+    signatures.put(id, signature);
+    bytes += record.size;
+    for (int band = 0; band < BANDS; band++) {
+      buckets.computeIfAbsent(bandKey(scope, signature, band), k -> new HashSet<>()).add(id);
+    }
+
+    final Iterator<Map.Entry<Long, Record>> iter = records.entrySet().iterator();
+    while (((records.size() > maxDocuments) || (bytes > maxBytes)) && iter.hasNext()) {
+      final Map.Entry<Long, Record> eldest = iter.next();
+      iter.remove();
+      signatures.remove(eldest.getKey());
+      bytes -= eldest.getValue().size;
+      for (int band = 0; band < BANDS; band++) {
+        final String key = bandKey(eldest.getValue().scope, eldest.getValue().signature, band);
+        final Set<Long> bucket = buckets.get(key);
+        if (bucket != null) {
+          bucket.remove(eldest.getKey());
+          if (bucket.isEmpty()) {
+            buckets.remove(key);
+          }
+        }
+      }
+      evictions.incrementAndGet();
+    }
+  }
+
+  /**
+   * Removes all documents, e.g. after the model changed.
+   */
+  public synchronized void clear() {
+    records.clear();
+    signatures.clear();
+    buckets.clear();
+    bytes = 0;
+  }
+
+  /**
+   * Gets the counters of the index.
+   *
+   * @return documents, bytes, lookups, matches, evictions and documents too large to add
+   */
+  public JSONObject getStats() {
+    final JSONObject o = new JSONObject();
+    synchronized (this) {
+      o.put("documents", records.size());
+      o.put("bytes", bytes);
+    }
+    o.put("maxDocuments", maxDocuments);
+    o.put("maxBytes", maxBytes);
+    o.put("threshold", threshold);
+    o.put("lookups", lookups.get());
+    o.put("matches", matches.get());
+    o.put("evictions", evictions.get());
+    o.put("oversized", oversized.get());
+    return o;
+  }
+
+  /**
+   * Estimates the Jaccard similarity of two documents.
+   *
+   * @return ratio of equal min hashes
+   */
+  public static double similarity(final long[] a, final long[] b) {
+    int equal = 0;
+    for (int i = 0; i < HASHES; i++) {
+      if (a[i] == b[i]) {
+        equal++;
+      }
+    }
+    return equal / (double) HASHES;
+  }
+
+  protected static String bandKey(final String scope, final long[] signature, final int band) {
+    long hash = band;
+    for (int i = band * ROWS; i < ((band + 1) * ROWS); i++) {
+      hash = mix(hash ^ signature[i]);
+    }
+    return scope + ":" + band + ":" + hash;
+  }
+
+  /**
+   * FNV-1a over the chars of the words.
+   */
+  protected static long hash(final List<String> words) {
+    long hash = 0xcbf29ce484222325L;
+    for (final String word : words) {
+      for (int i = 0; i < word.length(); i++) {
+        hash ^= word.charAt(i);
+        hash *= 0x100000001b3L;
+      }
+      hash ^= ' ';
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  /**
+   * Finalizer of SplitMix64.
+   */
+  protected static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * The sentences of a document with its entities and relations, offsets in the document. Entities
+   * are merged by text and type, occurrences are kept as indices.
+   */
+  public static class Record {
+    protected final String[] sentences;
+    protected final int[] starts;
+    protected final Map<Entity, Entity> entities = new LinkedHashMap<>();
+    protected final Map<String, Set<Relation>> relations = new HashMap<>();
+
+    protected String scope = null;
+    protected long[] signature = null;
+    protected long size = 0;
+
+    /**
+     * Creates a record without annotations.
+     *
+     * @param document
+     */
+    public Record(final AnalyzedDocument document) {
+      sentences = document.getSentences();
+      starts = new int[sentences.length];
+      for (int i = 0; i < sentences.length; i++) {
+        starts[i] = document.getSentenceStart(i);
+      }
+    }
+
+    /**
+     * Creates a record with copies of the annotations.
+     *
+     * @param document
+     * @param entities with indices in the document
+     * @param relations tool to relations or null
+     */
+    public Record(final AnalyzedDocument document, final Set<Entity> entities,
+        final Map<String, Set<Relation>> relations) {
+      this(document);
+      final Record source = new Record(document);
+      entities.forEach(entity -> source.entities.put(entity, entity));
+      if (relations != null) {
+        source.relations.putAll(relations);
+      }
+      final int[] identity = new int[sentences.length];
+      for (int i = 0; i < identity.length; i++) {
+        identity[i] = i;
+      }
+      source.copyTo(this, identity);
+    }
+
+    /**
+     * Estimates the bytes of the sentences, the signature and the annotations.
+     *
+     * @return estimated bytes
+     */
+    protected long sizeOf() {
+      long size = (8L * HASHES) + (4L * starts.length);
+      for (final String sentence : sentences) {
+        size += 2L * sentence.length();
+      }
+      for (final Entity entity : entities.values()) {
+        size += 64 + (2L * entity.getText().length())
+            + (entity.getIndices() == null ? 0 : 16L * entity.getIndices().size());
+      }
+      for (final Set<Relation> set : relations.values()) {
+        size += 64L * set.size();
+      }
+      return size;
+    }
+
+    public Set<Entity> getEntities() {
+      return new HashSet<>(entities.values());
+    }
+
+    public Map<String, Set<Relation>> getRelations() {
+      return relations;
+    }
+
+    public int getSentenceCount() {
+      return sentences.length;
+    }
+
+    /**
+     * Aligns the sentences of this record with equal sentences of the target, each target sentence
+     * is used once.
+     *
+     * @param target
+     * @return target sentence of each sentence of this record, -1 if the target does not have it
+     */
+    public int[] align(final Record target) {
+      final Map<String, Queue<Integer>> positions = new HashMap<>();
+      for (int j = 0; j < target.sentences.length; j++) {
+        positions.computeIfAbsent(target.sentences[j], k -> new ArrayDeque<>()).add(j);
+      }
+      final int[] alignment = new int[sentences.length];
+      for (int i = 0; i < sentences.length; i++) {
+        final Queue<Integer> queue = positions.get(sentences[i]);
+        alignment[i] = (queue == null) || queue.isEmpty() ? -1 : queue.poll();
+      }
+      return alignment;
+    }
+
+    /**
+     * Copies the annotations into the target. Occurrences in sentences without a target sentence
+     * are dropped, relations are copied in case all occurrences of both entities are copied.
+     *
+     * @param target
+     * @param alignment target sentence of each sentence of this record, -1 to drop it
+     */
+    public void copyTo(final Record target, final int[] alignment) {
+      for (final Entity entity : entities.values()) {
+        final Entity copy = copy(entity, target, alignment);
+        if (copy.getIndices() != null) {
+          target.addEntity(copy);
+        }
+      }
+      for (final Map.Entry<String, Set<Relation>> entry : relations.entrySet()) {
+        for (final Relation relation : entry.getValue()) {
+          final Entity subject = copy(relation.getSubjectEntity(), target, alignment);
+          final Entity object = copy(relation.getObjectEntity(), target, alignment);
+          if (isCopied(relation.getSubjectEntity(), subject)
+              && isCopied(relation.getObjectEntity(), object)) {
+            target.relations.computeIfAbsent(entry.getKey(), k -> new HashSet<>())
+                .add(new Relation(subject, relation.getRelationLabel(),
+                    relation.getRelationByTool(), object, relation.getRelation(),
+                    relation.getToolName(), relation.getRelevance()));
+          }
+        }
+      }
+    }
+
+    protected void addEntity(final Entity entity) {
+      final Entity known = entities.putIfAbsent(entity, entity);
+      if (known != null) {
+        known.addAllIndicies(entity.getIndices());
+        if (known.uri == null) {
+          known.uri = entity.uri;
+        }
+      }
+    }
+
+    private static boolean isCopied(final Entity entity, final Entity copy) {
+      return (entity.getIndices() != null) && (copy.getIndices() != null)
+          && (entity.getIndices().size() == copy.getIndices().size());
+    }
+
+    /**
+     * Copies the entity with the indices of its occurrences in the target.
+     */
+    protected Entity copy(final Entity entity, final Record target, final int[] alignment) {
+      final Entity copy = new Entity(entity.getText(), entity.getType(), entity.getRelevance(),
+          entity.getToolName());
+      copy.uri = entity.uri;
+      if (entity.getIndices() != null) {
+        for (final int index : entity.getIndices()) {
+          int i = Arrays.binarySearch(starts, index);
+          i = i < 0 ? Math.max(0, -i - 2) : i;
+          if ((i < alignment.length) && (alignment[i] > -1)) {
+            copy.addIndicies((index - starts[i]) + target.starts[alignment[i]]);
+          }
+        }
+      }
+      return copy;
+    }
+  }
+}
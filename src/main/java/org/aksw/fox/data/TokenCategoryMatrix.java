@@ -2,12 +2,17 @@ package org.aksw.fox.data;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.log4j.Logger;
 
 /**
+ * The category of each token found by a tool. A token has exactly one category, the null
+ * category in case the tool found nothing, so the matrix keeps one category id per token. Tokens
+ * and categories have ids in the iteration order of the given sets, set and get are lookups by id.
  *
  * @author rspeck
  *
@@ -18,7 +23,17 @@ public class TokenCategoryMatrix {
 
   List<String> token = null;
   List<String> categories = null;
-  boolean[][] values = null;
+
+  /**
+   * Token and category to id.
+   */
+  Map<String, Integer> tokenIds = null;
+  Map<String, Integer> categoryIds = null;
+
+  /**
+   * Category id of each token id.
+   */
+  byte[] values = null;
 
   public TokenCategoryMatrix(final Set<String> token, final Set<String> categories,
       final String nullCategory, final Set<Entity> foundEntities, final String splitregText) {
@@ -31,15 +46,25 @@ public class TokenCategoryMatrix {
       // LOGGER
     }
 
-    this.categories = new ArrayList<>();
-    this.categories.addAll(categories);
-    this.token = new ArrayList<>(token);
-    values = new boolean[token.size()][categories.size()];
+    if (categories.size() > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many categories: " + categories.size());
+    }
 
-    for (int i = 0; i < token.size(); i++) {
-      values[i][this.categories.indexOf(nullCategory)] = true;
+    this.categories = new ArrayList<>(categories);
+    categoryIds = new HashMap<>();
+    for (int i = 0; i < this.categories.size(); i++) {
+      categoryIds.putIfAbsent(this.categories.get(i), i);
     }
 
+    this.token = new ArrayList<>(token);
+    tokenIds = new HashMap<>(this.token.size() * 2);
+    for (int i = 0; i < this.token.size(); i++) {
+      tokenIds.putIfAbsent(this.token.get(i), i);
+    }
+
+    values = new byte[this.token.size()];
+    Arrays.fill(values, (byte) getCategoryId(nullCategory));
+
     if (foundEntities != null) {
       for (final Entity e : foundEntities) {
         setFound(e, splitregText);
@@ -67,16 +92,17 @@ public class TokenCategoryMatrix {
       logger.trace("split" + Arrays.asList(split));
     } // TRACE
 
+    final int category = getCategoryId(entity.type);
+    if (category < 0) {
+      logger.error("category not found: " + entity.type);
+      return;
+    }
     for (String s : split) {
       s = s.trim();
       if (!s.isEmpty()) {
-        final int tokenIndex = token.indexOf(s);
+        final int tokenIndex = getTokenId(s);
         if (tokenIndex > -1) {
-          for (int i = 0; i < categories.size(); i++) {
-            values[tokenIndex][i] = false;
-          }
-
-          values[tokenIndex][categories.indexOf(entity.type)] = true;
+          values[tokenIndex] = (byte) category;
         } else {
           logger.error("token not found: " + s);
         }
@@ -85,24 +111,57 @@ public class TokenCategoryMatrix {
   }
 
   public boolean getValue(final String token, final String category) {
-    if (this.token.indexOf(token) != -1) {
-      return values[this.token.indexOf(token)][categories.indexOf(category)];
+    final int tokenIndex = getTokenId(token);
+    if (tokenIndex != -1) {
+      return values[tokenIndex] == getCategoryId(category);
     } else {
       logger.error("token not found: " + token);
       return false;
     }
   }
 
+  /**
+   * Gets the category of a token.
+   *
+   * @param tokenId position of the token in the token set
+   * @return position of the category in the category set
+   */
+  public int getCategory(final int tokenId) {
+    return values[tokenId];
+  }
+
+  /**
+   * Gets the id of a token.
+   *
+   * @param token
+   * @return position in the token set or -1
+   */
+  public int getTokenId(final String token) {
+    final Integer id = tokenIds.get(token);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Gets the id of a category.
+   *
+   * @param category
+   * @return position in the category set or -1
+   */
+  public int getCategoryId(final String category) {
+    final Integer id = categoryIds.get(category);
+    return id == null ? -1 : id;
+  }
+
   @Override
   public String toString() {
-    String r = "";
+    final StringBuilder r = new StringBuilder();
     for (int i = 0; i < token.size(); i++) {
-      r += "[";
+      r.append("[");
       for (int j = 0; j < categories.size(); j++) {
-        r += values[i][j] ? "1 " : "0 ";
+        r.append(values[i] == j ? "1 " : "0 ");
       }
-      r += "] -> " + token.get(i) + "\n";
+      r.append("] -> ").append(token.get(i)).append("\n");
     }
-    return r;
+    return r.toString();
   }
 }
@@ -1,9 +1,17 @@
 package org.aksw.fox.data;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.aksw.fox.utils.FoxTextUtil;
 import org.apache.commons.lang3.StringUtils;
@@ -13,6 +21,10 @@ import org.apache.log4j.Logger;
 /**
  * Manages token, token labels and indices.
  *
+ * The token index is built in one pass over the token. Token start offsets (in
+ * {@link #getTokenInput()}) and token lengths are kept in ascending order in primitive arrays, so
+ * lookups by offset are binary searches.
+ *
  * @author rspeck
  *
  */
@@ -27,123 +39,313 @@ public class TokenManager {
 
   public static final String SEP = "fFWAeRQ9w0L";
 
-  protected Map<Integer, String> indexToken = new LinkedHashMap<>();
-  protected Map<Integer, String> indexLabel = new LinkedHashMap<>();
-  protected Map<String, Integer> labelIndex = new LinkedHashMap<>();
+  protected static final Pattern PUNCT_SPACE =
+      Pattern.compile("([\\p{Punct}&&[^\")\\]}.]])(\\s+)");
+  protected static final Pattern SPACE_PUNCT =
+      Pattern.compile("(\\s+)([\\p{Punct}&&[^\"(\\[{]])");
+
+  /**
+   * Trimmed token, its start offset in tokenInput and its length, sorted by offset.
+   */
+  protected String[] tokens = new String[0];
+  protected int[] tokenStarts = new int[0];
+  protected int[] tokenLengths = new int[0];
+  protected int tokenCount = 0;
+
+  protected Set<String> labeledInput = null;
 
   /**
    *
    * @param sentences
    */
-  public TokenManager(String sentences) {
+  public TokenManager(final String sentences) {
+    this(cleanInput(sentences), null);
+  }
 
+  /**
+   *
+   * Constructor.
+   *
+   * @param input clean input, see {@link #cleanInput(String)}
+   * @param tokenSplit token of the input as given by
+   *        {@link FoxTextUtil#getSentencesToken(String)} or null to tokenize the input
+   */
+  public TokenManager(final String input, final String[] tokenSplit) {
     LOG.info("TokenManager ...");
-    if (LOG.isDebugEnabled()) {
-      LOG.debug(sentences);
-    }
 
-    // clean sentences
-    input = StringUtils.join(FoxTextUtil.getSentences(sentences), " ").trim();
-    sentences = null;
-
-    // token
-    tokenSplit = FoxTextUtil.getSentencesToken(input);
-
-    // token input
-    tokenInput = "";
-    for (final String token : tokenSplit) {
-      if (!token.trim().isEmpty()) {
-        tokenInput += " " + token;
+    this.input = input;
+    this.tokenSplit = tokenSplit == null ? FoxTextUtil.getSentencesToken(input) : tokenSplit;
+
+    tokens = new String[this.tokenSplit.length];
+    tokenStarts = new int[this.tokenSplit.length];
+    tokenLengths = new int[this.tokenSplit.length];
+
+    // token input and index, offsets are shifted by one since the leading space is removed
+    final StringBuilder sb = new StringBuilder(input.length() + 1);
+    for (final String token : this.tokenSplit) {
+      final String trimmed = token.trim();
+      if (!trimmed.isEmpty()) {
+        sb.append(' ');
+        addToken(trimmed, (sb.length() - 1) + token.indexOf(trimmed.charAt(0)));
+        sb.append(token);
       } else {
         if (token.isEmpty()) {
-          tokenInput += " ";
+          sb.append(' ');
         } else {
-          tokenInput += token;
+          sb.append(token);
         }
       }
     }
-    if (tokenInput.length() > 1) {
-      tokenInput = tokenInput.substring(1, tokenInput.length());
-    }
+    tokenInput = sb.length() > 1 ? sb.substring(1) : sb.toString();
 
     if (LOG.isDebugEnabled()) {
       LOG.debug(input);
       LOG.debug(tokenInput);
     }
+  }
 
-    // initializes indexToken, indexLabel and labelIndex
-    int pointer = 0;
-    for (int i = 0; i < tokenSplit.length; i++) {
-      final String token = tokenSplit[i].trim();
-      if (!token.isEmpty()) {
-        final int index = tokenInput.substring(pointer, tokenInput.length()).indexOf(token);
-        if (index != -1) {
-          pointer = index + pointer;
-          indexToken.put(pointer, token);
-          setlabel(pointer, token + SEP + pointer);
-        } else {
-          LOG.debug("token not found:" + token);
+  /**
+   * Cleans the input, sentences are joined with one space.
+   *
+   * @param sentences plain text
+   * @return clean input
+   */
+  public static String cleanInput(final String sentences) {
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(sentences);
+    }
+    return StringUtils.join(FoxTextUtil.getSentences(sentences), " ").trim();
+  }
+
+  private void addToken(final String token, final int start) {
+    tokens[tokenCount] = token;
+    tokenStarts[tokenCount] = start;
+    tokenLengths[tokenCount] = token.length();
+    tokenCount++;
+  }
+
+  public void repairEntities(final Set<Entity> entities) {
+    repairEntities(Collections.singleton(entities));
+  }
+
+  /**
+   * Repairs the entities of all given sets with one {@link EntityLocator}. Entities with start
+   * indices given by the tool keep their text and the indices that match the token input. Other
+   * entities get the first of their {@link #repairVariants(String)} that occurs in the token input
+   * or an empty text. Entities with an other text are replaced in their set by a copy with the
+   * repaired text, see {@link Entity#withText(String)}.
+   *
+   * @param entitySets e.g. the results of all tools
+   */
+  public void repairEntities(final Collection<Set<Entity>> entitySets) {
+    final Map<Entity, List<String>> variants = new IdentityHashMap<>();
+    final Set<String> surfaceForms = new HashSet<>();
+    for (final Set<Entity> entities : entitySets) {
+      for (final Entity entity : entities) {
+        if (retainAlignedIndices(entity)) {
+          continue;
         }
+        final List<String> v = repairVariants(entity.getText());
+        variants.put(entity, v);
+        surfaceForms.addAll(v);
       }
     }
-  }
 
-  public void repairEntities(Set<Entity> entities) {
+    final EntityLocator locator = locate(surfaceForms);
+    for (final Set<Entity> entities : entitySets) {
+      final List<Entity> repaired = new ArrayList<>();
+      for (final Iterator<Entity> it = entities.iterator(); it.hasNext();) {
+        final Entity entity = it.next();
+        final List<String> v = variants.get(entity);
+        if (v != null) {
+          final String text = repairText(entity, v, locator);
+          if (!text.equals(entity.getText())) {
+            it.remove();
+            repaired.add(entity.withText(text));
+          }
+        }
+      }
+      entities.addAll(repaired);
+    }
+  }
 
+  /**
+   * Locates the entities in the token input without changing them. Entities with start indices
+   * keep the ones that match the token input, other entities get the occurrences of the first of
+   * their {@link #repairVariants(String)} that occurs in the token input.
+   *
+   * @param entities e.g. the results of a tool
+   * @return entity to a copy with the text in the token input and its start indices, entities that
+   *         do not occur are missing
+   */
+  public Map<Entity, Entity> locateEntities(final Collection<Entity> entities) {
+    final Map<Entity, Entity> located = new IdentityHashMap<>();
+    final Map<Entity, List<String>> variants = new IdentityHashMap<>();
+    final Set<String> surfaceForms = new HashSet<>();
     for (final Entity entity : entities) {
-      repairEntity(entity);
+      if ((entity.getText() == null) || entity.getText().trim().isEmpty()) {
+        continue;
+      }
+      final Entity copy = entity.withText(entity.getText());
+      if (retainAlignedIndices(copy)) {
+        located.put(entity, copy);
+      } else {
+        final List<String> v = repairVariants(entity.getText());
+        variants.put(entity, v);
+        surfaceForms.addAll(v);
+      }
     }
-    entities = new HashSet<>(entities);
+
+    if (!variants.isEmpty()) {
+      final EntityLocator locator = locate(surfaceForms);
+      for (final Map.Entry<Entity, List<String>> entry : variants.entrySet()) {
+        final Entity entity = entry.getKey();
+        final String text = repairText(entity, entry.getValue(), locator);
+        final Set<Integer> indices = text.isEmpty() ? null : locator.getIndices(text);
+        if ((indices != null) && !indices.isEmpty()) {
+          final Entity copy =
+              new Entity(text, entity.getType(), entity.getRelevance(), entity.getToolName());
+          copy.uri = entity.uri;
+          copy.addAllIndicies(indices);
+          located.put(entity, copy);
+        }
+      }
+    }
+    return located;
+  }
+
+  /**
+   * Locates the entities in the token input, see {@link #locateEntities(Collection)}, and keeps
+   * their occurrences as spans. Entities that do not occur are dropped.
+   *
+   * @param toolName
+   * @param entities
+   * @return spans with offsets in the token input
+   */
+  public EntitySet toEntitySet(final String toolName, final Collection<Entity> entities) {
+    return EntitySet.fromEntities(toolName, locateEntities(entities).values());
   }
 
-  private void repairEntity(final Entity entity) {
+  /**
+   * Removes the start indices of the entity that do not match the token input.
+   *
+   * @param entity
+   * @return true in case the entity has at least one matching start index
+   */
+  public boolean retainAlignedIndices(final Entity entity) {
+    final Set<Integer> indices = entity.getIndices();
+    if ((indices == null) || indices.isEmpty()) {
+      return false;
+    }
+    indices.removeIf(index -> !isTokenAligned(entity.getText(), index));
+    if (indices.isEmpty()) {
+      LOG.debug("indices do not match:" + entity.getText() + "(" + entity.getToolName() + ")");
+      return false;
+    }
+    return true;
+  }
 
-    Set<Integer> occurrence = FoxTextUtil.getIndices(entity.getText(), getTokenInput());
-    if (occurrence.size() != 0) {
+  /**
+   * Checks if the text occurs at the given index of the token input and starts and ends at token
+   * boundaries.
+   *
+   * @param text
+   * @param index offset in {@link #getTokenInput()}
+   * @return true in case of an occurrence
+   */
+  public boolean isTokenAligned(final String text, final int index) {
+    if ((text == null) || text.isEmpty() || (index < 0) || (getTokenPosition(index) < 0)) {
+      return false;
+    }
+    final int end = index + text.length();
+    return tokenInput.startsWith(text, index)
+        && ((end == tokenInput.length()) || (tokenInput.charAt(end) == ' '))
+        && (getTokenPositionAt(end - 1) > -1);
+  }
 
-    } else {
-      LOG.debug("can't find entity:" + entity.getText() + "(" + entity.getToolName()
-          + "), try to fix ...");
+  /**
+   * Builds an {@link EntityLocator} for the token input.
+   *
+   * @param surfaceForms to locate
+   * @return locator
+   */
+  public EntityLocator locate(final Collection<String> surfaceForms) {
+    return new EntityLocator(tokenInput, surfaceForms);
+  }
 
-      String fix = entity.getText().replaceAll("([\\p{Punct}&&[^\")\\]}.]])(\\s+)", "$1");
-      occurrence = FoxTextUtil.getIndices(fix, tokenInput);
+  private String repairText(final Entity entity, final List<String> variants,
+      final EntityLocator locator) {
 
-      if (occurrence.size() != 0) {
-        entity.setText(fix);
-        LOG.debug("fixed.");
-      } else {
-        fix = fix.replaceAll("(\\s+)([\\p{Punct}&&[^\"(\\[{]])", "$2");
-        occurrence = FoxTextUtil.getIndices(fix, tokenInput);
+    String text = "";
+    for (int i = 0; i < variants.size(); i++) {
+      if (locator.contains(variants.get(i))) {
+        text = variants.get(i);
+        if (i > 0) {
+          LOG.debug("fixed entity:" + entity.getText() + "(" + entity.getToolName() + ")");
+        }
+        break;
+      }
+    }
+    if (text.isEmpty()) {
+      LOG.debug("can't fix entity:" + entity.getText() + "(" + entity.getToolName() + ")");
+    }
+    return text.trim();
+  }
 
-        if (occurrence.size() != 0) {
-          entity.setText(fix);
-          LOG.debug("fixed.");
-        } else {
+  /**
+   * The entity text and its repaired forms in the order they are tried: without spaces after
+   * punctuation, additionally without spaces before punctuation and with or without a trailing
+   * point.
+   *
+   * @param text entity text
+   * @return variants
+   */
+  protected static List<String> repairVariants(final String text) {
+    final String fixSpaceAfter = PUNCT_SPACE.matcher(text).replaceAll("$1");
+    final String fixSpaceBefore = SPACE_PUNCT.matcher(fixSpaceAfter).replaceAll("$2");
+    final String fixPoint =
+        text.endsWith(".") ? text.substring(0, text.length() - 1) : text + ".";
+    return Arrays.asList(text, fixSpaceAfter, fixSpaceBefore, fixPoint);
+  }
 
-          if (entity.getText().endsWith(".")) {
-            fix = entity.getText().substring(0, entity.getText().length() - 1);
-          } else {
-            fix = entity.getText() + ".";
-          }
+  /**
+   * Gets the position of the token that starts at the given offset.
+   *
+   * @param index offset in {@link #getTokenInput()}
+   * @return position or -1
+   */
+  public int getTokenPosition(final int index) {
+    final int pos = Arrays.binarySearch(tokenStarts, 0, tokenCount, index);
+    return pos < 0 ? -1 : pos;
+  }
 
-          occurrence = FoxTextUtil.getIndices(fix, tokenInput);
-          if (occurrence.size() != 0) {
-            entity.setText(fix);
-            LOG.debug("fixed.");
-          } else {
-            LOG.debug("can't fix it.");
-            entity.setText("");
-          }
-        }
+  /**
+   * Gets the position of the token that covers the given offset.
+   *
+   * @param index offset in {@link #getTokenInput()}
+   * @return position or -1 in case the offset is not in a token
+   */
+  public int getTokenPositionAt(final int index) {
+    int pos = Arrays.binarySearch(tokenStarts, 0, tokenCount, index);
+    if (pos < 0) {
+      pos = -pos - 2;
+      if ((pos < 0) || (index >= (tokenStarts[pos] + tokenLengths[pos]))) {
+        return -1;
       }
     }
-    entity.setText(entity.getText().trim());
+    return pos;
   }
 
-  // private
-  private void setlabel(final int index, final String label) {
-    indexLabel.put(index, label);
-    labelIndex.put(label, index);
+  public int getTokenCount() {
+    return tokenCount;
+  }
+
+  public int getTokenStart(final int position) {
+    return tokenStarts[position];
+  }
+
+  public int getTokenLength(final int position) {
+    return tokenLengths[position];
   }
 
   // getter
@@ -156,13 +358,14 @@ public class TokenManager {
   }
 
   public Set<String> getLabeledInput() {
-    for (final Integer index : indexToken.keySet()) {
-      final String label = indexLabel.get(index);
-      if (label == null) {
-        setlabel(index, indexToken.get(index));
+    if (labeledInput == null) {
+      final Set<String> labels = new LinkedHashSet<>(tokenCount * 2);
+      for (int i = 0; i < tokenCount; i++) {
+        labels.add(label(i));
       }
+      labeledInput = Collections.unmodifiableSet(labels);
     }
-    return labelIndex.keySet();
+    return labeledInput;
   }
 
   //
@@ -170,15 +373,39 @@ public class TokenManager {
     return input;
   }
 
+  /**
+   * Gets the index of a label.
+   *
+   * @param label of a token
+   * @return index in {@link #getTokenInput()} or -1 for unknown labels
+   */
   public int getLabelIndex(final String label) {
-    return labelIndex.get(label);
+    final int sep = label.lastIndexOf(SEP);
+    if (sep > 0) {
+      try {
+        final int index = Integer.parseInt(label.substring(sep + SEP.length()));
+        final int pos = getTokenPosition(index);
+        if ((pos > -1) && (tokens[pos].length() == sep) && label.startsWith(tokens[pos])) {
+          return index;
+        }
+      } catch (final NumberFormatException e) {
+        LOG.debug("not a label: " + label);
+      }
+    }
+    return -1;
   }
 
   public String getLabel(final int index) {
-    return indexLabel.get(index);
+    final int pos = getTokenPosition(index);
+    return pos < 0 ? null : label(pos);
   }
 
   public String getToken(final int index) {
-    return indexToken.get(index);
+    final int pos = getTokenPosition(index);
+    return pos < 0 ? null : tokens[pos];
+  }
+
+  private String label(final int position) {
+    return tokens[position] + SEP + tokenStarts[position];
   }
 }
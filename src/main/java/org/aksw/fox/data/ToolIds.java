@@ -0,0 +1,52 @@
+package org.aksw.fox.data;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process-wide ids for tool names, so entity spans store a short instead of the name.
+ *
+ * @author rspeck
+ *
+ */
+public class ToolIds {
+
+  private static final Map<String, Short> ids = new ConcurrentHashMap<>();
+  private static final List<String> names = new CopyOnWriteArrayList<>();
+
+  private ToolIds() {}
+
+  /**
+   * Gets the id of a tool name, assigns a new id to unknown names.
+   *
+   * @param name tool name
+   * @return id
+   */
+  public static short getId(final String name) {
+    final Short id = ids.get(name);
+    if (id != null) {
+      return id;
+    }
+    synchronized (names) {
+      return ids.computeIfAbsent(name, n -> {
+        if (names.size() > Short.MAX_VALUE) {
+          throw new IllegalStateException("Too many tool names.");
+        }
+        names.add(n);
+        return (short) (names.size() - 1);
+      });
+    }
+  }
+
+  /**
+   * Gets the name of an id.
+   *
+   * @param id tool id
+   * @return name or null for unknown ids
+   */
+  public static String getName(final short id) {
+    return (id > -1) && (id < names.size()) ? names.get(id) : null;
+  }
+}
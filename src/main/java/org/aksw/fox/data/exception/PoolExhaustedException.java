@@ -0,0 +1,32 @@
+package org.aksw.fox.data.exception;
+
+/**
+ * No pooled instance became free in time.
+ *
+ * @author rspeck
+ *
+ */
+public class PoolExhaustedException extends Exception {
+    private static final long serialVersionUID = -2206305936487130461L;
+
+    protected final long retryAfter;
+
+    /**
+     *
+     * @param m
+     * @param retryAfter estimated seconds till an instance is free
+     */
+    public PoolExhaustedException(String m, long retryAfter) {
+        super(m);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets the estimated seconds till an instance is free, e.g. for a Retry-After header.
+     *
+     * @return seconds
+     */
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,16 @@
+package org.aksw.fox.data.exception;
+
+/**
+ * A tool could not get a result, e.g. its web service did not answer. The tool is skipped and
+ * nothing of the call is cached.
+ *
+ * @author rspeck
+ *
+ */
+public class ToolFailedException extends RuntimeException {
+    private static final long serialVersionUID = -4319734625083817231L;
+
+    public ToolFailedException(String m, Throwable cause) {
+        super(m, cause);
+    }
+}
@@ -0,0 +1,274 @@
+package org.aksw.fox.nerlearner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.aksw.fox.utils.FoxCfg;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import weka.classifiers.Classifier;
+import weka.core.SerializationHelper;
+
+/**
+ * Process-wide cache of the deserialized classifiers, one per model file. A file is read once and
+ * the classifier is kept as an immutable {@link Model} with a version. A reload reads the file
+ * again and replaces the model in one step, requests keep the model they started with and nobody
+ * waits for the new one.
+ *
+ * A model file is read again with {@link #reload(String)} or, in case of {@link #CFG_KEY_WATCH},
+ * as soon as the file changed on disk. A file that can not be read, e.g. because it is not written
+ * completely so far, keeps the current model.
+ *
+ * Classifiers are not thread-safe for classification (e.g. MultilayerPerceptron keeps the current
+ * instance in its nodes), so the cached classifier is never used itself, each
+ * {@link FoxClassifier} uses its own copy of it, see {@link Model#copy()}.
+ *
+ * @author rspeck
+ *
+ */
+public class ClassifierCache {
+
+  public static final Logger LOG = LogManager.getLogger(ClassifierCache.class);
+
+  public static final String CFG_KEY_WATCH = ClassifierCache.class.getName().concat(".watch");
+
+  protected static final boolean watch = Boolean.parseBoolean(FoxCfg.get(CFG_KEY_WATCH, "false"));
+
+  /**
+   * File to current model.
+   */
+  protected static final Map<String, Model> models = new ConcurrentHashMap<>();
+
+  protected static final AtomicLong versions = new AtomicLong();
+
+  /**
+   * Called with the new model after a reload.
+   */
+  protected static final List<Consumer<Model>> listeners = new CopyOnWriteArrayList<>();
+
+  protected static WatchService watchService = null;
+
+  private ClassifierCache() {}
+
+  /**
+   * Gets the model of the file, reads the file on the first call.
+   *
+   * @param file serialized classifier
+   * @return model or null in case the file could not be read
+   */
+  public static Model get(final String file) {
+    final String key = file.trim();
+    final Model model = models.get(key);
+    return model != null ? model : load(key);
+  }
+
+  private static synchronized Model load(final String file) {
+    Model model = models.get(file);
+    if (model == null) {
+      model = read(file);
+      if (model != null) {
+        models.put(file, model);
+        watch(file);
+      }
+    }
+    return model;
+  }
+
+  /**
+   * Reads the file again and replaces the cached model. The current model is kept in case the file
+   * could not be read.
+   *
+   * @param file serialized classifier
+   * @return true if the model was replaced
+   */
+  public static boolean reload(final String file) {
+    final String key = file.trim();
+    final Model model = read(key);
+    if (model == null) {
+      return false;
+    }
+    synchronized (ClassifierCache.class) {
+      models.put(key, model);
+      watch(key);
+    }
+    for (final Consumer<Model> listener : listeners) {
+      listener.accept(model);
+    }
+    return true;
+  }
+
+  /**
+   * Adds a listener that is called with the new model after each reload, e.g. to invalidate results
+   * of the old model.
+   *
+   * @param listener
+   */
+  public static void addListener(final Consumer<Model> listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Reads all cached model files again.
+   *
+   * @return file to true if the model was replaced
+   */
+  public static JSONObject reloadAll() {
+    final JSONObject reloaded = new JSONObject();
+    for (final String file : new ArrayList<>(models.keySet())) {
+      reloaded.put(file, reload(file));
+    }
+    return reloaded;
+  }
+
+  /**
+   * Gets the state of all cached models.
+   *
+   * @return one object per model with file, version, last modified time of the file and load time
+   *         in ms
+   */
+  public static JSONArray getStats() {
+    final JSONArray stats = new JSONArray();
+    for (final Model model : new ArrayList<>(models.values())) {
+      final JSONObject o = new JSONObject();
+      o.put("file", model.file);
+      o.put("version", model.version);
+      o.put("lastModified", model.lastModified);
+      o.put("loadTime", model.loadTime);
+      stats.put(o);
+    }
+    return stats;
+  }
+
+  protected static Model read(final String file) {
+    LOG.info("readClassifier: " + file);
+    final long start = System.currentTimeMillis();
+    final long lastModified = new File(file).lastModified();
+    try {
+      final Classifier classifier = (Classifier) SerializationHelper.read(file);
+      final Model model = new Model(file, classifier, versions.incrementAndGet(), lastModified,
+          System.currentTimeMillis() - start);
+      LOG.info("Loaded " + file + " in " + model.loadTime + "ms, version: " + model.version + ".");
+      return model;
+    } catch (final Exception e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    }
+    return null;
+  }
+
+  /**
+   * Registers the folder of the file at the watch service, starts the service on the first call.
+   */
+  protected static synchronized void watch(final String file) {
+    if (!watch) {
+      return;
+    }
+    try {
+      if (watchService == null) {
+        watchService = FileSystems.getDefault().newWatchService();
+        final Thread thread = new Thread(ClassifierCache::watchLoop, "fox-classifier-watch");
+        thread.setDaemon(true);
+        thread.start();
+      }
+      final Path folder = Paths.get(file).toAbsolutePath().getParent();
+      folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_MODIFY);
+    } catch (final IOException e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    }
+  }
+
+  private static void watchLoop() {
+    while (true) {
+      WatchKey key;
+      try {
+        key = watchService.take();
+      } catch (final InterruptedException e) {
+        return;
+      }
+      final Path folder = (Path) key.watchable();
+      for (final WatchEvent<?> event : key.pollEvents()) {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+          continue;
+        }
+        final Path changed = folder.resolve((Path) event.context());
+        for (final Model model : new ArrayList<>(models.values())) {
+          final File file = new File(model.file);
+          if (Paths.get(model.file).toAbsolutePath().equals(changed)
+              && (file.lastModified() != model.lastModified)) {
+            reload(model.file);
+          }
+        }
+      }
+      key.reset();
+    }
+  }
+
+  /**
+   * A deserialized classifier, never changed after it is read.
+   */
+  public static class Model {
+    protected final String file;
+    protected final Classifier classifier;
+    protected final long version;
+    protected final long lastModified;
+    protected final long loadTime;
+
+    protected Model(final String file, final Classifier classifier, final long version,
+        final long lastModified, final long loadTime) {
+      this.file = file;
+      this.classifier = classifier;
+      this.version = version;
+      this.lastModified = lastModified;
+      this.loadTime = loadTime;
+    }
+
+    public String getFile() {
+      return file;
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    /**
+     * Gets the last modified time of the file that was read, it identifies the model across
+     * restarts.
+     *
+     * @return ms
+     */
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * Creates a deep copy of the classifier to classify with.
+     *
+     * @return copy or null in case it could not be copied
+     */
+    public Classifier copy() {
+      try {
+        return Classifier.makeCopy(classifier);
+      } catch (final Exception e) {
+        LOG.error(e.getLocalizedMessage(), e);
+      }
+      return null;
+    }
+  }
+}
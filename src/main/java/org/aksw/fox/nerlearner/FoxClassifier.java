@@ -1,6 +1,9 @@
 package org.aksw.fox.nerlearner;
 
 import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -40,6 +43,11 @@ public class FoxClassifier {
       FoxClassifier.class.getName().concat(".training");
 
   protected Classifier classifier = null;
+  /**
+   * Version of the cached model {@link #classifier} is a copy of, see
+   * {@link #useCachedClassifier(String)}.
+   */
+  protected long classifierVersion = -1;
   protected Instances instances = null;
   protected FoxInstances foxInstances = null;
   private boolean isTrained = false;
@@ -85,11 +93,23 @@ public class FoxClassifier {
   }
 
   protected String getName(final String lang) {
+    return getModelFile(lang);
+  }
+
+  /**
+   * Gets the file of the serialized classifier of the language.
+   *
+   * @param lang
+   * @return file
+   */
+  public static String getModelFile(final String lang) {
     return FoxCfg.get(FoxClassifier.CFG_KEY_MODEL_PATH) + File.separator + lang + File.separator
         + FoxCfg.get(FoxClassifier.CFG_KEY_LEARNER);
   }
 
   /**
+   * Writes the classifier to a temporary file and moves it to the model file afterwards, so
+   * readers of the model file, e.g. a running server, never see a file written in parts.
    *
    * @param classifier
    * @param file
@@ -100,7 +120,10 @@ public class FoxClassifier {
     final String path = FilenameUtils.getPath(name);
     try {
       FileUtils.forceMkdir(new File(path));
-      SerializationHelper.write(name, classifier);
+      final String tmp = name + ".tmp";
+      SerializationHelper.write(tmp, classifier);
+      Files.move(Paths.get(tmp), Paths.get(name), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
     } catch (final Exception e) {
       LOG.error(e.getLocalizedMessage(), e);
     }
@@ -114,12 +137,33 @@ public class FoxClassifier {
     LOG.info("readClassifier: " + name);
     try {
       classifier = (Classifier) SerializationHelper.read(name.trim());
+      classifierVersion = -1;
     } catch (final Exception e) {
       LOG.error(e.getLocalizedMessage(), e);
     }
     LOG.info("readClassifier done.");
   }
 
+  /**
+   * Uses the classifier of the language from the {@link ClassifierCache}, so the model file is read
+   * once per process and not per call. The classifier is copied only in case the cached model
+   * changed since the last call.
+   *
+   * @param lang
+   */
+  public void useCachedClassifier(final String lang) {
+    final ClassifierCache.Model model = ClassifierCache.get(getName(lang));
+    if (model == null) {
+      LOG.error("No classifier for " + lang + ".");
+    } else if (model.getVersion() != classifierVersion) {
+      final Classifier copy = model.copy();
+      if (copy != null) {
+        classifier = copy;
+        classifierVersion = model.getVersion();
+      }
+    }
+  }
+
   /**
    * Rewrites results and input to labels, uses a serialized classifier to classify this labels and
    * rewrites the labels.
@@ -133,7 +177,40 @@ public class FoxClassifier {
 
     // rewrite to use labels
     initInstances(pp.getLabeledInput(), pp.getLabeledToolResults(), null);
+    return classify(pp, instances, classifier);
+  }
+
+  /**
+   * Same as {@link #classify(IPostProcessing)}, but does not change this object. Can be called
+   * concurrently as long as each thread uses its own classifier, see {@link #copyClassifier()}.
+   *
+   * @param pp
+   * @param classifier
+   * @return classified token
+   */
+  public Set<Entity> classify(final IPostProcessing pp, final Classifier classifier) {
+    LOG.info("classify ...");
+    final Instances instances =
+        new FoxInstances().getInstances(pp.getLabeledInput(), pp.getLabeledToolResults());
+    return classify(pp, instances, classifier);
+  }
+
+  /**
+   * Creates a deep copy of the current classifier.
+   *
+   * @return copy or null in case it could not be copied
+   */
+  public Classifier copyClassifier() {
+    try {
+      return Classifier.makeCopy(classifier);
+    } catch (final Exception e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    }
+    return null;
+  }
 
+  protected Set<Entity> classify(final IPostProcessing pp, final Instances instances,
+      final Classifier classifier) {
     final Instances classified = new Instances(instances);
     for (int i = 0; i < instances.numInstances(); i++) {
       try {
@@ -238,6 +315,7 @@ public class FoxClassifier {
 
   public void setClassifier(final Classifier classifier) {
     this.classifier = classifier;
+    classifierVersion = -1;
   }
 
   public Classifier getClassifier() {
@@ -13,6 +13,7 @@ import java.util.Set;
 
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.data.EntityLocator;
 import org.aksw.fox.data.TokenManager;
 import org.aksw.fox.utils.FoxTextUtil;
 import org.apache.log4j.LogManager;
@@ -47,8 +48,7 @@ public class PostProcessing implements IPostProcessing {
         this.tokenManager = tokenManager;
 
         // check entities and try to repair entities
-        for (Set<Entity> entites : toolResults.values())
-            tokenManager.repairEntities(entites);
+        tokenManager.repairEntities(toolResults.values());
 
         this.toolResults = toolResults;
 
@@ -73,6 +73,21 @@ public class PostProcessing implements IPostProcessing {
      */
     @Override
     public Map<String, String> getLabeledMap(Map<String, String> map) {
+        return getLabeledMap(map, tokenManager.locate(map.keySet()), Collections.<String, Set<Integer>> emptyMap());
+    }
+
+    /**
+     * Label entities, occurrences are taken from the given start indices or the given locator.
+     * 
+     * @param map
+     * @param locator
+     *            to find the entities without indices in the token input
+     * @param indices
+     *            entity text to start indices given by the tools
+     * @return
+     */
+    protected Map<String, String> getLabeledMap(Map<String, String> map, EntityLocator locator,
+            Map<String, Set<Integer>> indices) {
         Map<String, String> rtn = new HashMap<>();
 
         // 1. label MWU
@@ -81,7 +96,7 @@ public class PostProcessing implements IPostProcessing {
             if (mapEntry.getKey().contains(" ")) {
                 if (LOG.isDebugEnabled())
                     LOG.debug(rtn);
-                rtn = labeledEntry(mapEntry, rtn);
+                rtn = labeledEntry(mapEntry, rtn, occurrence(mapEntry.getKey(), locator, indices));
                 if (LOG.isDebugEnabled())
                     LOG.debug(rtn);
             } else {
@@ -104,7 +119,7 @@ public class PostProcessing implements IPostProcessing {
         for (Entry<String, String> mapEntry : tokenEntities) {
             if (LOG.isDebugEnabled())
                 LOG.debug(rtn);
-            rtn = labeledEntry(mapEntry, rtn);
+            rtn = labeledEntry(mapEntry, rtn, occurrence(mapEntry.getKey(), locator, indices));
             if (LOG.isDebugEnabled())
                 LOG.debug(rtn);
         }
@@ -135,19 +150,31 @@ public class PostProcessing implements IPostProcessing {
         if (LOG.isDebugEnabled())
             LOG.debug(toolResults);
 
+        // one locator for the entities of all tools without indices
+        Set<String> surfaceForms = new HashSet<>();
+        for (Set<Entity> entities : toolResults.values())
+            for (Entity entity : entities)
+                if (entity.getIndices() == null || entity.getIndices().isEmpty())
+                    surfaceForms.add(entity.getText());
+        EntityLocator locator = tokenManager.locate(surfaceForms);
+
         // for each tool
         for (Entry<String, Set<Entity>> entry : toolResults.entrySet()) {
 
             // entities to map
             Map<String, String> resutlsMap = new HashMap<>();
-            for (Entity entity : entry.getValue())
+            Map<String, Set<Integer>> indices = new HashMap<>();
+            for (Entity entity : entry.getValue()) {
                 resutlsMap.put(entity.getText(), entity.getType());
+                if (entity.getIndices() != null && !entity.getIndices().isEmpty())
+                    indices.put(entity.getText(), entity.getIndices());
+            }
 
             if (LOG.isTraceEnabled())
                 LOG.trace(resutlsMap);
 
             // label map
-            resutlsMap = getLabeledMap(resutlsMap);
+            resutlsMap = getLabeledMap(resutlsMap, locator, indices);
 
             if (LOG.isTraceEnabled())
                 LOG.trace(resutlsMap);
@@ -221,7 +248,8 @@ public class PostProcessing implements IPostProcessing {
 
             // check previous index and entity category
             if (testIndex && results.get(results.size() - 1).getType().equals(category)) {
-                results.get(results.size() - 1).addText(token);
+                Entity last = results.get(results.size() - 1);
+                results.set(results.size() - 1, last.withText(last.getText() + " " + token));
             } else {
                 int index = -1;
                 try {
@@ -264,8 +292,15 @@ public class PostProcessing implements IPostProcessing {
         return set;
     }
 
+    // start indices given by a tool or found by the locator
+    private Set<Integer> occurrence(String text, EntityLocator locator, Map<String, Set<Integer>> indices) {
+        Set<Integer> occurrence = indices.get(text);
+        return occurrence != null ? occurrence : locator.getIndices(text);
+    }
+
     // label an entity
-    protected Map<String, String> labeledEntry(Entry<String, String> entity, Map<String, String> labeledMap) {
+    protected Map<String, String> labeledEntry(Entry<String, String> entity, Map<String, String> labeledMap,
+            Set<Integer> occurrence) {
 
         // token of an entity
         String[] entityToken = FoxTextUtil.getToken(entity.getKey());
@@ -275,7 +310,6 @@ public class PostProcessing implements IPostProcessing {
         }
 
         // all entity occurrence
-        Set<Integer> occurrence = FoxTextUtil.getIndices(entity.getKey(), tokenManager.getTokenInput());
         if (occurrence.size() == 0) {
             LOG.error("entity not found:" + entity.getKey());
         } else {
@@ -3,21 +3,21 @@ package org.aksw.fox.nerlearner.reader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
 import org.aksw.fox.data.TokenCategoryMatrix;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.utils.FoxTextUtil;
 import org.apache.log4j.Logger;
-import org.jetlang.fibers.Fiber;
-import org.jetlang.fibers.ThreadFiber;
 
 import weka.core.Attribute;
 import weka.core.FastVector;
@@ -90,35 +90,34 @@ public class FoxInstances {
     final List<String> sortedToolNames = new ArrayList<>(toolTokenCategoryMatrix.keySet());
     Collections.sort(sortedToolNames);
 
-    // each row
+    // matrices in the order of the features, categories in the order of the matrix categories
+    final int classes = EntityClassMap.entityClasses.size();
+    final TokenCategoryMatrix[] matrices = new TokenCategoryMatrix[sortedToolNames.size()];
+    for (int i = 0; i < matrices.length; i++) {
+      matrices[i] = toolTokenCategoryMatrix.get(sortedToolNames.get(i));
+    }
+
+    // each row, the token id is the position in the token set
     int diffNull = 0;
+    int t = 0;
     for (final String tok : token) {
-      int i = 0; // tool index
-
       if (logger.isTraceEnabled()) {
         logger.trace("token: " + tok);
       }
 
-      for (final String toolname : sortedToolNames) {
-        if (logger.isTraceEnabled()) {
-          logger.trace("toolname: " + toolname);
-        }
-        int c = 0; // category index
-        final int start = EntityClassMap.entityClasses.size();
-        for (int j = i * start; j < ((i * start) + start); j++) {
-
-          final TokenCategoryMatrix tcm = toolTokenCategoryMatrix.get(toolname);
-          final double v = tcm.getValue(tok, EntityClassMap.entityClasses.get(c)) ? 1.0 : 0.0;
+      for (int i = 0; i < matrices.length; i++) {
+        final int category = matrices[i].getCategory(t);
+        for (int c = 0; c < classes; c++) {
+          final int j = (i * classes) + c;
+          final double v = c == category ? 1.0 : 0.0;
 
           if (logger.isTraceEnabled()) {
-            logger.trace(j + ": " + c + ": " + v);
+            logger.trace(sortedToolNames.get(i) + ": " + j + ": " + c + ": " + v);
           }
           row.setValue((Attribute) featureVector.elementAt(j), v);
-
-          c++;
         }
-        i++;
       }
+      t++;
       if (oracle != null) {
         row.setValue((Attribute) featureVector.elementAt(instances.numAttributes() - 1),
             EntityClassMap.oracel(oracelToken.get(tok)));
@@ -161,29 +160,26 @@ public class FoxInstances {
 
     final Set<String> entityClasses = new LinkedHashSet<>(EntityClassMap.entityClasses);
     final Map<String, TokenCategoryMatrix> toolTokenCategoryMatrix = new HashMap<>();
-    final CountDownLatch latch = new CountDownLatch(toolResults.entrySet().size());
 
-    final List<Fiber> fibers = new ArrayList<>();
+    final Map<String, Future<TokenCategoryMatrix>> futures = new LinkedHashMap<>();
     for (final Entry<String, Set<Entity>> entry : toolResults.entrySet()) {
-      final Fiber fiber = new ThreadFiber();
-      fiber.start();
-      fiber.execute(() -> {
-        toolTokenCategoryMatrix.put(entry.getKey(), new TokenCategoryMatrix(token, entityClasses,
-            EntityClassMap.getNullCategory(), entry.getValue(), FoxTextUtil.tokenSpliter));
-        latch.countDown();
-      });
-      fibers.add(fiber);
-    }
-
-    try {
-      latch.await(Long.MAX_VALUE, TimeUnit.MINUTES);
-    } catch (final InterruptedException e) {
-      logger.error("\n", e);
+      futures.put(entry.getKey(),
+          FoxExecutors.local().submit(() -> new TokenCategoryMatrix(token, entityClasses,
+              EntityClassMap.getNullCategory(), entry.getValue(), FoxTextUtil.tokenSpliter)));
     }
 
-    // shutdown threads
-    for (final Fiber fiber : fibers) {
-      fiber.dispose();
+    // the map is filled by this thread only
+    for (final Entry<String, Future<TokenCategoryMatrix>> entry : futures.entrySet()) {
+      try {
+        toolTokenCategoryMatrix.put(entry.getKey(), entry.getValue().get());
+      } catch (final InterruptedException e) {
+        logger.error("\n", e);
+        FoxExecutors.cancel(new ArrayList<>(futures.values()));
+        Thread.currentThread().interrupt();
+        break;
+      } catch (final ExecutionException e) {
+        logger.error("\n", e);
+      }
     }
 
     return toolTokenCategoryMatrix;
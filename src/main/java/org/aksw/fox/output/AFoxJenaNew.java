@@ -1,6 +1,8 @@
 package org.aksw.fox.output;
 
 import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.commons.validator.routines.UrlValidator;
 import org.apache.jena.rdf.model.Model;
@@ -32,7 +34,18 @@ public class AFoxJenaNew {
   public static final String ns_nif =
       "http://persistence.uni-leipzig.org/nlp2rdf/ontologies/nif-core#";
 
+  /**
+   * Formats with serializations that can be concatenated, see {@link #flush()}.
+   */
+  protected static final List<Lang> flushable =
+      Arrays.asList(Lang.TURTLE, Lang.TRIG, Lang.NTRIPLES, Lang.NQUADS);
+
   protected Model graph = ModelFactory.createDefaultModel();
+
+  /**
+   * Serializations of flushed parts, they grow with the output till {@link #reset()}.
+   */
+  protected final StringBuilder flushed = new StringBuilder();
   protected String lang = Lang.TURTLE.getName();
   // protected String lang = Lang.RDFJSON.getName();
 
@@ -75,6 +88,7 @@ public class AFoxJenaNew {
    */
   public void initGraph() {
     graph = ModelFactory.createDefaultModel();
+    flushed.setLength(0);
     document = 0;
     lang = Lang.TURTLE.getName();
 
@@ -145,8 +159,31 @@ public class AFoxJenaNew {
   }
 
   public String print() {
+    if ((flushed.length() > 0) && graph.isEmpty()) {
+      return flushed.toString();
+    }
     final StringWriter sw = new StringWriter();
     RDFDataMgr.write(sw, graph, RDFLanguages.nameToLang(lang));
-    return sw.toString();
+    return flushed.length() > 0 ? flushed.toString().concat(sw.toString()) : sw.toString();
+  }
+
+  /**
+   * Serializes the model and removes its statements, prefixes and properties are kept. Software
+   * agents are added again with the next part.
+   *
+   * @return false in case the output format can not be concatenated, e.g. JSON-LD
+   */
+  public boolean flush() {
+    final Lang l = RDFLanguages.nameToLang(lang);
+    if (!flushable.contains(l)) {
+      return false;
+    }
+    if (!graph.isEmpty()) {
+      final StringWriter sw = new StringWriter();
+      RDFDataMgr.write(sw, graph, l);
+      flushed.append(sw.toString());
+      graph.removeAll();
+    }
+    return true;
   }
 }
@@ -2,6 +2,7 @@ package org.aksw.fox.output;
 
 import java.util.Set;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.Relation;
 
@@ -16,6 +17,10 @@ public interface IFoxJena {
 
   public void addInput(String input, String name);
 
+  public default void addInput(final AnalyzedDocument document, final String name) {
+    addInput(document.getInput(), name);
+  }
+
   public void addEntities(Set<Entity> entities, String start, String end);
 
   public void addRelations(Set<Relation> relations, String start, String end);
@@ -24,4 +29,15 @@ public interface IFoxJena {
   public void setLang(final String lang);
 
   public String print();
+
+  /**
+   * Serializes the current annotations and removes them from the model, to keep the model of one
+   * part of a long document only. The serialization of the flushed parts stays in memory till
+   * {@link #print()} returns it followed by the current model.
+   *
+   * @return false in case the output format can not be flushed in parts and the model is kept
+   */
+  public default boolean flush() {
+    return false;
+  }
 }
@@ -0,0 +1,165 @@
+package org.aksw.fox.tools;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.aksw.fox.utils.CancelToken;
+
+/**
+ * The state of one call of a tool, so the tool object itself keeps no state between calls and one
+ * instance can serve many requests at once.
+ *
+ * @author rspeck
+ *
+ */
+public class Context {
+
+  /**
+   * A context without a way to cancel the call.
+   */
+  public static final Context NONE = new Context(CancelToken.NONE);
+
+  /**
+   * Max time in ms. between two checks of the token while a call waits for a tool.
+   */
+  protected static final long LOCK_CHECK_MS = 100;
+
+  /**
+   * Locks of the tools that are not reentrant, a call holds the lock of the tool while it runs.
+   */
+  protected static final Map<Object, ReentrantLock> locks = new WeakHashMap<>();
+
+  protected final CancelToken cancelToken;
+
+  /*
+   * System.nanoTime() the call has to be done at, Long.MAX_VALUE without a deadline.
+   */
+  protected final long deadline;
+
+  /*
+   * True in case the call neither uses nor fills caches shared with other calls.
+   */
+  protected final boolean bypassCache;
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param cancelToken token of the call or null
+   */
+  public Context(final CancelToken cancelToken) {
+    this(cancelToken, false);
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param cancelToken token of the call or null
+   * @param bypassCache true for a call that neither uses nor fills shared caches
+   */
+  public Context(final CancelToken cancelToken, final boolean bypassCache) {
+    this(cancelToken, Long.MAX_VALUE, bypassCache);
+  }
+
+  protected Context(final CancelToken cancelToken, final long deadline,
+      final boolean bypassCache) {
+    this.cancelToken = cancelToken == null ? CancelToken.NONE : cancelToken;
+    this.deadline = deadline;
+    this.bypassCache = bypassCache;
+  }
+
+  /**
+   * Creates a context for a part of this call, e.g. one tool of a request, that can be cancelled on
+   * its own.
+   *
+   * @return child context
+   */
+  public Context child() {
+    return new Context(cancelToken.child(), deadline, bypassCache);
+  }
+
+  /**
+   * Creates a context for a part of this call that has to be done within the given time, or by the
+   * deadline of this call if that is earlier.
+   *
+   * @param timeout
+   * @param unit of the timeout
+   * @return child context
+   */
+  public Context child(final long timeout, final TimeUnit unit) {
+    final long d = System.nanoTime() + unit.toNanos(timeout);
+    return new Context(cancelToken.child(), d - deadline < 0 ? d : deadline, bypassCache);
+  }
+
+  /**
+   * Gets the time left till the deadline.
+   *
+   * @param unit
+   * @return time left, Long.MAX_VALUE without a deadline
+   */
+  public long getRemaining(final TimeUnit unit) {
+    if (deadline == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return unit.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+  }
+
+  public CancelToken getCancelToken() {
+    return cancelToken;
+  }
+
+  public boolean isBypassCache() {
+    return bypassCache;
+  }
+
+  /**
+   * Cancels this call.
+   */
+  public void cancel() {
+    cancelToken.cancel();
+  }
+
+  /**
+   * Stops the work of the tool in case the call was cancelled.
+   *
+   * @throws java.util.concurrent.CancellationException if the call was cancelled
+   */
+  public void check() {
+    cancelToken.check();
+  }
+
+  /**
+   * Waits for the lock of the tool, so calls of a tool that is not reentrant run one after the
+   * other. The wait stops as soon as this call is cancelled, interrupted or at its deadline.
+   * Release the lock with {@link ReentrantLock#unlock()}.
+   *
+   * @param tool
+   * @return the held lock of the tool
+   * @throws CancellationException if the call was cancelled or the lock was not free in time
+   */
+  public ReentrantLock lock(final Object tool) {
+    final ReentrantLock lock;
+    synchronized (locks) {
+      lock = locks.computeIfAbsent(tool, t -> new ReentrantLock());
+    }
+    try {
+      while (true) {
+        check();
+        final long remaining = getRemaining(TimeUnit.MILLISECONDS);
+        if (remaining <= 0) {
+          throw new CancellationException("Tool not free before the deadline.");
+        }
+        if (lock.tryLock(Math.min(remaining, LOCK_CHECK_MS), TimeUnit.MILLISECONDS)) {
+          return lock;
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while waiting for the tool.");
+    }
+  }
+}
@@ -2,6 +2,8 @@ package org.aksw.fox.tools;
 
 import java.util.concurrent.CountDownLatch;
 
+import org.aksw.fox.utils.CancelToken;
+
 public interface ITool extends Runnable {
 
   /**
@@ -17,4 +19,31 @@ public interface ITool extends Runnable {
    * @param cdl
    */
   public void setCountDownLatch(CountDownLatch cdl);
+
+  /**
+   * Sets the token of the current call, the tool stops its work as soon as it is cancelled.
+   *
+   * @param token
+   */
+  public default void setCancelToken(final CancelToken token) {}
+
+  /**
+   * Checks if the tool calls a web service, such tools run on
+   * {@link org.aksw.fox.utils.FoxExecutors#remote()}.
+   *
+   * @return true in case of a web service
+   */
+  public default boolean isRemote() {
+    return false;
+  }
+
+  /**
+   * Checks if the per call methods that take a {@link Context} can be called concurrently on this
+   * object. Calls of tools that are not reentrant are serialized.
+   *
+   * @return true in case the tool keeps no state between calls
+   */
+  public default boolean isReentrant() {
+    return false;
+  }
 }
@@ -0,0 +1,288 @@
+package org.aksw.fox.tools;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.fox.data.exception.LoadingNotPossibleException;
+import org.aksw.fox.utils.FoxCfg;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Process-wide registry of tools with models, each tool is loaded at most once and shared by all
+ * consumers (FOX instances of all requests).
+ *
+ * Consumers {@link #acquire(String)} a {@link Model} and {@link Model#release()} it when they are
+ * closed. A tool is loaded on the first {@link Model#get()}, or when it is acquired in case of
+ * {@link #CFG_KEY_EAGER}, and unloaded as soon as the last consumer released it.
+ *
+ * Tools that are {@link AutoCloseable}, e.g. with opened indexes, are closed when they are
+ * unloaded, at the latest when the process shuts down.
+ *
+ * In case of {@link #CFG_KEY_MEASURE_HEAP}, the bytes the loading thread allocates are reported as
+ * <code>allocatedDuringLoad</code>. This is not the retained heap of the tool, it includes the
+ * garbage of the load, but it needs no gc, so tools still load concurrently. On JVMs without
+ * allocation counters the used heap before and after loading is measured instead, and tools are
+ * loaded one after the other in this case.
+ *
+ * @author rspeck
+ *
+ */
+public class ModelRegistry {
+
+  public static final Logger LOG = LogManager.getLogger(ModelRegistry.class);
+
+  public static final String CFG_KEY_EAGER = ModelRegistry.class.getName().concat(".eager");
+  public static final String CFG_KEY_MEASURE_HEAP =
+      ModelRegistry.class.getName().concat(".measureHeap");
+
+  protected static final boolean eager = Boolean.parseBoolean(FoxCfg.get(CFG_KEY_EAGER, "false"));
+  protected static final boolean measureHeap =
+      Boolean.parseBoolean(FoxCfg.get(CFG_KEY_MEASURE_HEAP, "true"));
+
+  /**
+   * Class name to entry.
+   */
+  protected static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * Loads with a measurement of the used heap run one after the other, so the heap difference
+   * belongs to one tool.
+   */
+  protected static final Object measureLock = new Object();
+
+  static {
+    Runtime.getRuntime().addShutdownHook(new Thread(ModelRegistry::closeAll, "fox-model-close"));
+  }
+
+  private ModelRegistry() {}
+
+  /**
+   * Adds a consumer of the tool, the tool is loaded now in case of {@link #CFG_KEY_EAGER}.
+   *
+   * @param className of the tool
+   * @return handle of the consumer
+   * @throws LoadingNotPossibleException in case of eager loading
+   */
+  public static <T> Model<T> acquire(final String className) throws LoadingNotPossibleException {
+    final Entry entry = entries.computeIfAbsent(className.trim(), Entry::new);
+    entry.refs.incrementAndGet();
+    final Model<T> model = new Model<>(entry);
+    if (eager) {
+      try {
+        model.get();
+      } catch (final LoadingNotPossibleException | RuntimeException e) {
+        // the caller gets no handle to release
+        model.release();
+        throw e;
+      }
+    }
+    return model;
+  }
+
+  /**
+   * Gets the state of all tools.
+   *
+   * @return one object per tool with class name, consumers, loaded, bytes allocated during the load
+   *         and load time in ms
+   */
+  public static JSONArray getStats() {
+    final JSONArray stats = new JSONArray();
+    long allocated = 0;
+    for (final Entry entry : new ArrayList<>(entries.values())) {
+      final boolean loaded = entry.instance != null;
+      final JSONObject o = new JSONObject();
+      o.put("model", entry.className);
+      o.put("consumers", entry.refs.get());
+      o.put("loaded", loaded);
+      o.put("allocatedDuringLoad", entry.allocatedDuringLoad);
+      o.put("loadTime", entry.loadTime);
+      stats.put(o);
+      if (loaded) {
+        allocated += entry.allocatedDuringLoad;
+      }
+    }
+    final JSONObject total = new JSONObject();
+    total.put("model", "total");
+    total.put("allocatedDuringLoad", allocated);
+    total.put("maxHeap", Runtime.getRuntime().maxMemory());
+    stats.put(total);
+    return stats;
+  }
+
+  /**
+   * Logs the state of all tools, e.g. after the start of the server.
+   */
+  public static void logStats() {
+    final JSONArray stats = getStats();
+    for (int i = 0; i < stats.length(); i++) {
+      LOG.info(stats.get(i));
+    }
+  }
+
+  /**
+   * Gets the loaded tools.
+   *
+   * @return class names
+   */
+  public static List<String> getLoaded() {
+    final List<String> loaded = new ArrayList<>();
+    for (final Entry entry : entries.values()) {
+      if (entry.instance != null) {
+        loaded.add(entry.className);
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Unloads all tools regardless of their consumers, e.g. at shutdown.
+   */
+  public static void closeAll() {
+    for (final Entry entry : entries.values()) {
+      entry.unload();
+    }
+  }
+
+  /**
+   * Gets the bytes allocated by the current thread so far.
+   *
+   * @return bytes or -1 in case the JVM has no allocation counters
+   */
+  protected static long allocatedBytes() {
+    final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+      if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+        return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+
+  protected static long usedHeap() {
+    final Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * A tool with its consumers. The lock of an entry is held while its tool is loaded, so other tools
+   * can be loaded at the same time, the stats are read without the lock.
+   */
+  protected static class Entry {
+    protected final String className;
+    protected final AtomicInteger refs = new AtomicInteger();
+    protected volatile Object instance = null;
+    protected volatile long allocatedDuringLoad = 0;
+    protected volatile long loadTime = 0;
+
+    protected Entry(final String className) {
+      this.className = className;
+    }
+
+    /**
+     * Loads the tool in case it is not loaded.
+     */
+    protected Object get() throws LoadingNotPossibleException {
+      final Object loaded = instance;
+      return loaded != null ? loaded : load();
+    }
+
+    private synchronized Object load() throws LoadingNotPossibleException {
+      if (instance == null) {
+        final long start = System.currentTimeMillis();
+        final long allocated = measureHeap ? allocatedBytes() : -1;
+        if (allocated >= 0) {
+          instance = FoxCfg.getClass(className);
+          allocatedDuringLoad = Math.max(0, allocatedBytes() - allocated);
+        } else if (measureHeap) {
+          synchronized (measureLock) {
+            final long before = usedHeap();
+            instance = FoxCfg.getClass(className);
+            allocatedDuringLoad = Math.max(0, usedHeap() - before);
+          }
+        } else {
+          instance = FoxCfg.getClass(className);
+        }
+        loadTime = System.currentTimeMillis() - start;
+        LOG.info("Loaded " + className + " in " + loadTime + "ms"
+            + (measureHeap ? ", allocated: " + (allocatedDuringLoad >> 20) + "MB" : "") + ".");
+      }
+      return instance;
+    }
+
+    protected void release() {
+      if (refs.decrementAndGet() <= 0) {
+        synchronized (this) {
+          if (refs.get() <= 0) {
+            unload();
+          }
+        }
+      }
+    }
+
+    protected synchronized void unload() {
+      final Object loaded = instance;
+      if (loaded != null) {
+        instance = null;
+        if (loaded instanceof AutoCloseable) {
+          try {
+            ((AutoCloseable) loaded).close();
+          } catch (final Exception e) {
+            LOG.error(e.getLocalizedMessage(), e);
+          }
+        }
+        LOG.info("Unloaded " + className + ".");
+      }
+    }
+  }
+
+  /**
+   * Handle of one consumer of a tool.
+   *
+   * @param <T> type of the tool
+   */
+  public static class Model<T> {
+    protected final Entry entry;
+    protected volatile boolean released = false;
+
+    protected Model(final Entry entry) {
+      this.entry = entry;
+    }
+
+    public String getClassName() {
+      return entry.className;
+    }
+
+    /**
+     * Gets the shared tool, loads it on the first call.
+     *
+     * @return tool
+     * @throws LoadingNotPossibleException
+     */
+    @SuppressWarnings("unchecked")
+    public T get() throws LoadingNotPossibleException {
+      if (released) {
+        throw new IllegalStateException("Model released: " + entry.className);
+      }
+      return (T) entry.get();
+    }
+
+    /**
+     * Removes this consumer, the tool is unloaded without consumers.
+     */
+    public synchronized void release() {
+      if (!released) {
+        released = true;
+        entry.release();
+      }
+    }
+  }
+}
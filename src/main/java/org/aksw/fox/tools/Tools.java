@@ -3,24 +3,39 @@ package org.aksw.fox.tools;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.EntitySet;
 import org.aksw.fox.data.TokenManager;
 import org.aksw.fox.data.exception.LoadingNotPossibleException;
 import org.aksw.fox.nerlearner.FoxClassifier;
 import org.aksw.fox.nerlearner.IPostProcessing;
 import org.aksw.fox.nerlearner.PostProcessing;
+import org.aksw.fox.tools.ner.CachedNER;
 import org.aksw.fox.tools.ner.INER;
+import org.aksw.fox.utils.CancelToken;
 import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxExecutors;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
-import org.jetlang.fibers.Fiber;
-import org.jetlang.fibers.ThreadFiber;
+
+import weka.classifiers.Classifier;
 
 /**
  * Runs tools and uses this results as input for the {@link FoxClassifier}.
@@ -32,15 +47,29 @@ public class Tools {
 
   public static final Logger LOG = LogManager.getLogger(Tools.class);
   public final static String CFG_KEY_LIFETIME = Tools.class.getName().concat(".lifeTime");
+  public final static String CFG_KEY_DEADLINE = Tools.class.getName().concat(".deadline");
+  public final static String CFG_KEY_BATCH_SENTENCES =
+      Tools.class.getName().concat(".batchSentences");
 
   /*
-   * Contains all tools to be used to retrieve entities.
+   * Runs sentence batches of long documents, shared by all requests.
+   */
+  protected static final ForkJoinPool BATCH_POOL =
+      new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+  /*
+   * Contains all tools to be used to retrieve entities, shared with all requests by the
+   * ModelRegistry and loaded on first use.
+   */
+  protected List<ModelRegistry.Model<INER>> tools = new ArrayList<>();
+  /*
+   * Contains the entities of each tool as spans with offsets in resultInput.
    */
-  protected List<INER> tools = new ArrayList<>();
+  protected Map<String, EntitySet> toolResults = new HashMap<>();
   /*
-   * Contains all entities.
+   * Token input of the last document.
    */
-  protected Map<String, Set<Entity>> toolResults = new HashMap<>();
+  protected String resultInput = "";
 
   /*
    * ML model.
@@ -50,8 +79,28 @@ public class Tools {
   private boolean doTraining = false;
   private final String lang;
 
+  /*
+   * Sentences per batch, 0 to run the tools on the whole document.
+   */
+  protected int batchSentences = 0;
+
+  /*
+   * Tools without results in the last call of getEntities.
+   */
+  protected Set<String> skippedTools = new LinkedHashSet<>();
+
+  /*
+   * Token of the current request.
+   */
+  protected CancelToken cancelToken = CancelToken.NONE;
+
+  /*
+   * True in case the current request does not use the sentence cache.
+   */
+  protected boolean bypassCache = false;
+
   /**
-   * Initializes {@link #tools} and fills {@link #toolResults} with the tool names.
+   * Acquires {@link #tools} and fills {@link #toolResults} with the tool names.
    * 
    * @throws LoadingNotPossibleException
    */
@@ -63,12 +112,21 @@ public class Tools {
     // init tools
     if ((toolsList != null) && !toolsList.isEmpty()) {
       for (final String cl : toolsList) {
-        tools.add((INER) FoxCfg.getClass(cl));
+        tools.add(ModelRegistry.acquire(cl));
       }
     }
 
-    // init toolResults
-    tools.forEach(tool -> toolResults.put(tool.getToolName(), null));
+    // init toolResults, the name of a tool is its simple class name
+    tools.forEach(tool -> toolResults.put(getToolName(tool), null));
+
+    final String batch = FoxCfg.get(CFG_KEY_BATCH_SENTENCES);
+    if (batch != null) {
+      try {
+        batchSentences = Integer.parseInt(batch);
+      } catch (final NumberFormatException e) {
+        LOG.error("Not a number: " + CFG_KEY_BATCH_SENTENCES + ": " + batch);
+      }
+    }
 
     LOG.info(Tools.class.getName().concat(" done."));
   }
@@ -79,91 +137,529 @@ public class Tools {
    * @return entities
    */
   public Set<Entity> getEntities(final String input) {
+    return getEntities(new AnalyzedDocument(input, lang));
+  }
+
+  /**
+   * 
+   * @param document
+   * @return entities
+   */
+  public Set<Entity> getEntities(final AnalyzedDocument document) {
+    skippedTools.clear();
+    if (!doTraining && (batchSentences > 0) && (document.getSentenceCount() > batchSentences)) {
+      return getEntitiesInBatches(document);
+    }
     LOG.info("get entities ...");
 
     Set<Entity> results = null;
+    final Map<String, Set<Entity>> entities = new HashMap<>();
 
     // use all tools to retrieve entities
-    // start all threads
-    final List<Fiber> fibers = new ArrayList<>();
-    final CountDownLatch latch = new CountDownLatch(tools.size());
-    for (final INER nerTool : tools) {
+    // start all tasks, each with its own context
+    final Context context = new Context(cancelToken, bypassCache);
+    final Map<INER, Future<List<Entity>>> futures = new LinkedHashMap<>();
+    final Map<INER, Context> contexts = new HashMap<>();
+    for (final ModelRegistry.Model<INER> tool : tools) {
+      final INER nerTool = getNerTool(tool);
+      if (nerTool == null) {
+        skippedTools.add(getToolName(tool));
+        entities.put(getToolName(tool), new HashSet<Entity>());
+        continue;
+      }
+      // the wait for a tool that is not reentrant ends at the deadline, too
+      final Context toolContext =
+          context.child(getDeadline(nerTool.getToolName()), TimeUnit.NANOSECONDS);
+      contexts.put(nerTool, toolContext);
+      futures.put(nerTool, FoxExecutors.submit(nerTool.getToolName(), nerTool.isRemote(),
+          () -> nerTool.getResults(document, toolContext)));
+    }
+
+    // wait for each tool till its deadline, tools without results are skipped
+    final long start = System.nanoTime();
+    for (final Map.Entry<INER, Future<List<Entity>>> entry : futures.entrySet()) {
+      final INER nerTool = entry.getKey();
+      final long deadline = getDeadline(nerTool.getToolName());
+      List<Entity> found = null;
+      try {
+        found =
+            entry.getValue().get(deadline - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+      } catch (final TimeoutException e) {
+        LOG.warn(nerTool.getToolName() + " not done after "
+            + TimeUnit.NANOSECONDS.toMillis(deadline) + "ms.");
+      } catch (final ExecutionException e) {
+        if (!(e.getCause() instanceof CancellationException)) {
+          LOG.error(nerTool.getToolName() + " failed.", e.getCause());
+        }
+      } catch (final CancellationException e) {
+        LOG.info(nerTool.getToolName() + " cancelled.");
+      } catch (final InterruptedException e) {
+        LOG.error("Interrupted while waiting for " + nerTool.getToolName() + ".");
+        Thread.currentThread().interrupt();
+      }
+
+      // TODO: relevance list
+      if (found == null) {
+        contexts.get(nerTool).cancel();
+        entry.getValue().cancel(true);
+        skippedTools.add(nerTool.getToolName());
+        entities.put(nerTool.getToolName(), new HashSet<Entity>());
+      } else {
+        entities.put(nerTool.getToolName(), new HashSet<Entity>(found));
+      }
+    }
+
+    cancelToken.check();
+    if (!skippedTools.isEmpty()) {
+      LOG.warn("Skipped tools: " + skippedTools + ", input:\n" + document.getInput());
+    }
+    if (LOG.isTraceEnabled()) {
+      LOG.trace(entities);
+    }
+
+    // the located tool results, equal to the cleaned ones of the post processing
+    final TokenManager tokenManager = document.getTokenManager();
+    entities.forEach((name, found) -> toolResults.put(name, tokenManager.toEntitySet(name, found)));
+    resultInput = tokenManager.getTokenInput();
 
-      nerTool.setCountDownLatch(latch);
-      nerTool.setInput(input);
+    if (!doTraining) {
+      foxClassifier.useCachedClassifier(lang);
+      // post
+      final IPostProcessing pp = new PostProcessing(tokenManager, entities);
+
+      results = foxClassifier.classify(pp);
+
+      // try {
+      // foxClassifier.eva();
+      // } catch (Exception e) {
+      // logger.error("\n", e);
+      // }
+    }
+    LOG.info("get entities done.");
+    return results;
+  }
+
+  /**
+   * Gets the time a tool has for one document, given by
+   * <code>{@link #CFG_KEY_DEADLINE}.&lt;tool name&gt;</code> or {@link #CFG_KEY_DEADLINE} in ms.
+   * Without a positive value the time is {@link #CFG_KEY_LIFETIME} in min.
+   *
+   * @param toolName
+   * @return nanoseconds
+   */
+  protected long getDeadline(final String toolName) {
+    final String value = FoxCfg.get(CFG_KEY_DEADLINE.concat(".").concat(toolName),
+        FoxCfg.get(CFG_KEY_DEADLINE, "0"));
+    try {
+      final long ms = Long.parseLong(value);
+      if (ms > 0) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+      }
+    } catch (final NumberFormatException e) {
+      LOG.error("Not a number: " + CFG_KEY_DEADLINE + " (" + toolName + "): " + value);
+    }
+    return TimeUnit.MINUTES.toNanos(Integer.parseInt(FoxCfg.get(CFG_KEY_LIFETIME)));
+  }
+
+  /**
+   * Sets the token of the current request, the tools stop as soon as it is cancelled.
+   *
+   * @param token
+   */
+  public void setCancelToken(final CancelToken token) {
+    cancelToken = token == null ? CancelToken.NONE : token;
+  }
 
-      final Fiber fiber = new ThreadFiber();
-      fiber.start();
-      fiber.execute(nerTool);
-      fibers.add(fiber);
+  /**
+   * Sets if the current request neither uses nor fills the sentence cache of the tools, see
+   * {@link CachedNER}.
+   *
+   * @param bypassCache
+   */
+  public void setBypassCache(final boolean bypassCache) {
+    this.bypassCache = bypassCache;
+  }
+
+  /**
+   * Gets the tools without results in the last call of {@link #getEntities(AnalyzedDocument)},
+   * because they were not done before their deadline or failed. Their entities are empty, so each
+   * token has the null category for these tools.
+   *
+   * @return tool names
+   */
+  public Set<String> getSkippedTools() {
+    synchronized (skippedTools) {
+      return new LinkedHashSet<>(skippedTools);
     }
+  }
+
+  /**
+   * Splits the document into batches of {@link #batchSentences} sentences and runs all tools and
+   * the classifier on each batch in {@link #BATCH_POOL}. The results of the batches are merged
+   * with offsets in the whole document.
+   *
+   * @param document
+   * @return entities
+   */
+  protected Set<Entity> getEntitiesInBatches(final AnalyzedDocument document) {
+    LOG.info("get entities in batches of " + batchSentences + " sentences ...");
+
+    foxClassifier.useCachedClassifier(lang);
+
+    final Queue<Classifier> classifiers = new ConcurrentLinkedQueue<>();
+    final Context batchContext = new Context(cancelToken, bypassCache).child();
+    final ForkJoinTask<BatchResult> task = BATCH_POOL.submit(
+        new BatchTask(document, 0, document.getSentenceCount(), classifiers, batchContext));
 
-    // wait till finished
     final int min = Integer.parseInt(FoxCfg.get(CFG_KEY_LIFETIME));
+    BatchResult result = null;
     try {
-      latch.await(min, TimeUnit.MINUTES);
-    } catch (final InterruptedException e) {
-      LOG.error("Timeout after " + min + "min.");
+      result = task.get(min, TimeUnit.MINUTES);
+    } catch (final Exception e) {
+      batchContext.cancel();
+      task.cancel(true);
+      LOG.error("Batches not done after " + min + "min.");
       LOG.error("\n", e);
-      LOG.error("input:\n" + input);
     }
 
-    // shutdown threads
-    for (final Fiber fiber : fibers) {
-      fiber.dispose();
+    if (result == null) {
+      return new HashSet<>();
+    }
+    toolResults.putAll(result.toolResults);
+    resultInput = document.getTokenManager().getTokenInput();
+    LOG.info("get entities done.");
+    return result.entities;
+  }
+
+  /**
+   * Runs all tools and the classifier on one batch, tools that are not reentrant are used by one
+   * batch at a time. All tools are submitted before the batch waits for any of them, within the
+   * batch limits of {@link FoxExecutors#submitBatch(String, boolean, java.util.concurrent.Callable)}.
+   * Each tool has its deadline per batch from the start of its task, tools that are not done in
+   * time or fail are skipped in this batch. The wait does not block a worker of
+   * {@link #BATCH_POOL}, see {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)}.
+   *
+   * @param batch
+   * @param offset start of the batch in the whole document
+   * @param classifiers copies of the classifier not in use
+   * @param context of the batches
+   * @return results with offsets in the whole document
+   */
+  protected BatchResult runBatch(final AnalyzedDocument batch, final int offset,
+      final Queue<Classifier> classifiers, final Context context) {
+
+    final Map<String, BatchCall> calls = new LinkedHashMap<>();
+    for (final ModelRegistry.Model<INER> tool : tools) {
+      final INER nerTool = getNerTool(tool);
+      calls.put(getToolName(tool), nerTool == null ? null : new BatchCall(nerTool, batch, context));
     }
 
-    // get results
-    if (latch.getCount() == 0) {
-      // TODO: relevance list
-      for (final INER nerTool : tools) {
-        toolResults.put(nerTool.getToolName(), new HashSet<Entity>(nerTool.getResults()));
+    try {
+      ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+        @Override
+        public boolean block() throws InterruptedException {
+          for (final BatchCall call : calls.values()) {
+            if (call != null) {
+              call.await(context);
+            }
+          }
+          return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+          return calls.values().stream().allMatch(call -> (call == null) || call.future.isDone());
+        }
+      });
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      context.cancel();
+    } finally {
+      calls.values().forEach(call -> {
+        if ((call != null) && (call.result == null)) {
+          call.context.cancel();
+          call.future.cancel(true);
+        }
+      });
+    }
+    // only the batches stop, a tool that is not done in time is skipped
+    context.check();
+
+    final Map<String, Set<Entity>> results = new HashMap<>();
+    for (final Map.Entry<String, BatchCall> entry : calls.entrySet()) {
+      final List<Entity> list = entry.getValue() == null ? null : entry.getValue().result;
+      if (list == null) {
+        synchronized (skippedTools) {
+          skippedTools.add(entry.getKey());
+        }
       }
+      results.put(entry.getKey(), list == null ? new HashSet<>() : new HashSet<>(list));
+    }
 
-      if (LOG.isTraceEnabled()) {
-        LOG.trace(toolResults);
+    final IPostProcessing pp = new PostProcessing(batch.getTokenManager(), results);
+
+    Classifier classifier = classifiers.poll();
+    if (classifier == null) {
+      classifier = foxClassifier.copyClassifier();
+    }
+    final Set<Entity> entities = new HashSet<>();
+    if (classifier != null) {
+      try {
+        entities.addAll(foxClassifier.classify(pp, classifier));
+      } finally {
+        classifiers.offer(classifier);
       }
+    }
+    return new BatchResult(entities, pp.getToolResults(), offset);
+  }
+
+  /**
+   * The task of one tool for one batch, its deadline starts when the task starts running.
+   */
+  protected class BatchCall {
+    protected final String name;
+    protected final long deadline;
+    protected final Context context;
+    protected final Future<List<Entity>> future;
+    /*
+     * System.nanoTime() the task started at, null while it is queued.
+     */
+    protected volatile Long started = null;
+    protected List<Entity> result = null;
 
-    } else {
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("timeout after " + min + "min.");
+    /**
+     * Submits the task.
+     *
+     * @param nerTool
+     * @param batch
+     * @param parent context of the batches
+     */
+    protected BatchCall(final INER nerTool, final AnalyzedDocument batch, final Context parent) {
+      name = nerTool.getToolName();
+      deadline = getDeadline(name);
+      context = parent.child();
+      future = FoxExecutors.submitBatch(name, nerTool.isRemote(), () -> {
+        started = System.nanoTime();
+        return nerTool.getResults(batch, context.child(deadline, TimeUnit.NANOSECONDS));
+      });
+    }
+
+    /**
+     * Waits for the task till it is done or its deadline passed, checks the batches while the task
+     * is queued.
+     *
+     * @param batches context of the batches
+     * @throws InterruptedException
+     * @throws CancellationException if the batches were cancelled
+     */
+    protected void await(final Context batches) throws InterruptedException {
+      while (true) {
+        batches.check();
+        final Long begun = started;
+        final long wait = begun == null ? TimeUnit.MILLISECONDS.toNanos(Context.LOCK_CHECK_MS)
+            : deadline - (System.nanoTime() - begun);
+        try {
+          result = future.get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+          return;
+        } catch (final TimeoutException e) {
+          if (begun != null) {
+            LOG.warn(name + " not done after " + TimeUnit.NANOSECONDS.toMillis(deadline)
+                + "ms in a batch.");
+            return;
+          }
+        } catch (final ExecutionException e) {
+          if (!(e.getCause() instanceof CancellationException)) {
+            LOG.error(name + " failed.", e.getCause());
+          }
+          return;
+        } catch (final CancellationException e) {
+          LOG.info(name + " cancelled.");
+          return;
+        }
       }
+    }
+  }
+
+  /**
+   * Splits a range of sentences in halves of whole batches until one batch is left.
+   */
+  protected class BatchTask extends RecursiveTask<BatchResult> {
+    private static final long serialVersionUID = 1L;
+
+    private final AnalyzedDocument document;
+    private final int from;
+    private final int to;
+    private final Queue<Classifier> classifiers;
+    private final Context context;
 
-      // TODO: handle timeout
+    public BatchTask(final AnalyzedDocument document, final int from, final int to,
+        final Queue<Classifier> classifiers, final Context context) {
+      this.document = document;
+      this.from = from;
+      this.to = to;
+      this.classifiers = classifiers;
+      this.context = context;
     }
 
-    if (!doTraining) {
-      foxClassifier.readClassifier(lang);
-      // post
-      final IPostProcessing pp = new PostProcessing(new TokenManager(input), toolResults);
-      // cleaned tool results
-      toolResults = pp.getToolResults();
+    @Override
+    protected BatchResult compute() {
+      context.check();
+      final int batches = ((to - from) + batchSentences - 1) / batchSentences;
+      if (batches <= 1) {
+        return runBatch(document.subDocument(from, to), document.getSentenceStart(from),
+            classifiers, context);
+      }
+      final int mid = from + ((batches / 2) * batchSentences);
+      final BatchTask left = new BatchTask(document, from, mid, classifiers, context);
+      left.fork();
+      final BatchResult right = new BatchTask(document, mid, to, classifiers, context).compute();
+      return left.join().merge(right);
+    }
+  }
 
-      results = foxClassifier.classify(pp);
+  /**
+   * Entities and tool results of one or more batches.
+   */
+  protected static class BatchResult {
+    protected final Set<Entity> entities = new HashSet<>();
+    protected final Map<String, EntitySet> toolResults = new HashMap<>();
 
-      // try {
-      // foxClassifier.eva();
-      // } catch (Exception e) {
-      // logger.error("\n", e);
-      // }
+    protected BatchResult() {}
+
+    /**
+     * Results of one batch, the indices are shifted by the offset of the batch.
+     *
+     * @param entities with indices in the batch
+     * @param toolResults with indices in the batch, null for none
+     * @param offset start of the batch in the whole document
+     */
+    protected BatchResult(final Set<Entity> entities, final Map<String, Set<Entity>> toolResults,
+        final int offset) {
+      entities.forEach(entity -> entity.shiftIndices(offset));
+      this.entities.addAll(entities);
+      for (final Map.Entry<String, Set<Entity>> entry : toolResults.entrySet()) {
+        final EntitySet spans = new EntitySet(entry.getKey());
+        if (entry.getValue() != null) {
+          spans.addAll(EntitySet.fromEntities(entry.getKey(), entry.getValue()), offset);
+        }
+        this.toolResults.put(entry.getKey(), spans);
+      }
+    }
+
+    /**
+     * Adds the results of the other batch, indices of equal entities are merged.
+     */
+    protected BatchResult merge(final BatchResult other) {
+      merge(entities, other.entities);
+      for (final Map.Entry<String, EntitySet> entry : other.toolResults.entrySet()) {
+        final EntitySet known = toolResults.get(entry.getKey());
+        if (known == null) {
+          toolResults.put(entry.getKey(), entry.getValue());
+        } else {
+          known.addAll(entry.getValue(), 0);
+        }
+      }
+      return this;
+    }
+
+    private static void merge(final Set<Entity> into, final Set<Entity> from) {
+      final Map<Entity, Entity> known = new HashMap<>();
+      into.forEach(entity -> known.put(entity, entity));
+      for (final Entity entity : from) {
+        final Entity k = known.get(entity);
+        if (k == null) {
+          into.add(entity);
+        } else if (entity.getIndices() != null) {
+          k.addAllIndicies(entity.getIndices());
+        }
+      }
     }
-    LOG.info("get entities done.");
-    return results;
   }
 
   /**
-   * 
+   * Gets the tools, loads tools not in use so far. Tools that could not be loaded are missing.
+   *
    * @return tools
    */
   public List<INER> getNerTools() {
-    return tools;
+    final List<INER> list = new ArrayList<>(tools.size());
+    for (final ModelRegistry.Model<INER> tool : tools) {
+      final INER nerTool = getNerTool(tool);
+      if (nerTool != null) {
+        list.add(nerTool);
+      }
+    }
+    return list;
   }
 
   /**
-   * 
+   * Gets one of the tools by class name, loads it if not in use so far.
+   *
+   * @param className
+   * @return tool or null
+   */
+  public INER getNerTool(final String className) {
+    for (final ModelRegistry.Model<INER> tool : tools) {
+      if (tool.getClassName().equals(className)) {
+        return getNerTool(tool);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Gets the tool with its sentence cache, see {@link CachedNER}, loads it if not in use so far.
+   *
+   * @param tool
+   * @return tool or null if it could not be loaded
+   */
+  protected INER getNerTool(final ModelRegistry.Model<INER> tool) {
+    try {
+      return CachedNER.wrap(tool.get());
+    } catch (final LoadingNotPossibleException e) {
+      LOG.error(e.getLocalizedMessage(), e);
+      return null;
+    }
+  }
+
+  /**
+   * Gets the name of a tool without loading it, the simple class name like
+   * {@link INER#getToolName()}.
+   *
+   * @param tool
+   * @return tool name
+   */
+  protected static String getToolName(final ModelRegistry.Model<?> tool) {
+    return tool.getClassName().substring(tool.getClassName().lastIndexOf('.') + 1);
+  }
+
+  /**
+   * Releases the tools, tools without other consumers are unloaded.
+   */
+  public void close() {
+    tools.forEach(ModelRegistry.Model::release);
+  }
+
+  /**
+   * Gets the entities of each tool in the last document, located in its token input. Tools
+   * without a result have a null value.
+   *
    * @return results
    */
   public Map<String, Set<Entity>> getToolResult() {
+    final Map<String, Set<Entity>> results = new HashMap<>();
+    toolResults.forEach((tool, spans) -> results.put(tool,
+        spans == null ? null : spans.toEntities(resultInput)));
+    return results;
+  }
+
+  /**
+   * Gets the spans of each tool in the last document with offsets in its token input. Tools
+   * without a result have a null value.
+   *
+   * @return spans
+   */
+  public Map<String, EntitySet> getToolSpans() {
     return toolResults;
   }
 
@@ -12,7 +12,6 @@ import org.aksw.fox.data.exception.LoadingNotPossibleException;
 import org.aksw.fox.data.exception.UnsupportedLangException;
 import org.aksw.fox.tools.ner.linking.ILinking;
 import org.aksw.fox.utils.CfgManager;
-import org.aksw.fox.utils.FoxCfg;
 import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
@@ -95,17 +94,29 @@ public class ToolsGenerator implements IToolsGenerator {
   }
 
   /**
+   * Checks if the class is one of the configured disambiguation tools.
+   *
+   * @param className
+   * @return true in case the class is in {@link #disambiguationTools}
+   */
+  public static boolean isDisambiguationTool(final String className) {
+    return disambiguationTools.containsValue(className);
+  }
+
+  /**
+   * Acquires the disambiguation tool of the language from the {@link ModelRegistry}, so all
+   * consumers share one tool. Release the model when it is not used anymore.
    *
    * @param lang
-   * @return
+   * @return model of the tool
    * @throws UnsupportedLangException
    * @throws LoadingNotPossibleException
    */
-  public ILinking getDisambiguationTool(final String lang)
+  public ModelRegistry.Model<ILinking> getDisambiguationTool(final String lang)
       throws UnsupportedLangException, LoadingNotPossibleException {
     if (usedLang.contains(lang)) {
       if (disambiguationTools.get(lang) != null) {
-        return (ILinking) FoxCfg.getClass(disambiguationTools.get(lang));
+        return ModelRegistry.acquire(disambiguationTools.get(lang));
       } else {
         throw new UnsupportedLangException(
             "Disambiguation tool for language " + lang + " is not supported");
@@ -3,16 +3,22 @@ package org.aksw.fox.tools.ner;
 import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
-import org.aksw.fox.utils.FoxTextUtil;
+import org.aksw.fox.data.exception.ToolFailedException;
+import org.aksw.fox.tools.Context;
+import org.aksw.fox.utils.CancelToken;
+import org.aksw.fox.utils.FoxTokenizer;
+import org.aksw.fox.utils.TokenSpans;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -20,8 +26,14 @@ public abstract class AbstractNER implements INER {
 
   public static final Logger LOG = LogManager.getLogger(AbstractNER.class);
 
+  /*
+   * State of the setInput, run and getResults calls. The per call methods with a Context do not
+   * use these fields.
+   */
   protected CountDownLatch cdl = null;
+  protected CancelToken cancelToken = CancelToken.NONE;
   protected String input = null;
+  protected AnalyzedDocument document = null;
 
   protected List<Entity> entityList = null;
   protected Map<String, String> entityClasses = new HashMap<>();
@@ -30,13 +42,40 @@ public abstract class AbstractNER implements INER {
   abstract public List<Entity> retrieve(String input);
 
   public List<Entity> _retrieve(final String input) {
-    final List<Entity> list = new ArrayList<>();
-    final Set<Entity> set = new HashSet<>(retrieve(input));
-    list.addAll(set);
-    entityList = clean(list);
+    entityList = _clean(retrieve(input));
+    return entityList;
+  }
+
+  public List<Entity> _retrieve(final AnalyzedDocument document) {
+    entityList = getResults(document, new Context(cancelToken));
     return entityList;
   }
 
+  @Override
+  public List<Entity> getResults(final AnalyzedDocument document, final Context context) {
+    if (isReentrant()) {
+      return _clean(retrieve(document, context));
+    }
+    final ReentrantLock lock = context.lock(this);
+    try {
+      return _clean(retrieve(document, context));
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private List<Entity> _clean(final List<Entity> entities) {
+    // removes duplicates, keeps the offsets of all occurrences
+    final Map<Entity, Entity> set = new LinkedHashMap<>();
+    for (final Entity entity : entities) {
+      final Entity known = set.putIfAbsent(entity, entity);
+      if ((known != null) && (known != entity) && (entity.getIndices() != null)) {
+        known.addAllIndicies(entity.getIndices());
+      }
+    }
+    return clean(new ArrayList<>(set.keySet()));
+  }
+
   @Override
   public String getToolName() {
     return getClass().getSimpleName();
@@ -44,19 +83,31 @@ public abstract class AbstractNER implements INER {
 
   @Override
   public void run() {
-    if (input != null) {
-      _retrieve(input);
-    } else {
-      LOG.error("Input not set!");
+    try {
+      if (document != null) {
+        _retrieve(document);
+      } else if (input != null) {
+        _retrieve(input);
+      } else {
+        LOG.error("Input not set!");
+      }
+    } catch (final CancellationException e) {
+      entityList = null;
+      LOG.info(getToolName() + " cancelled.");
+    } catch (final ToolFailedException e) {
+      entityList = null;
+      LOG.error(e.getLocalizedMessage(), e);
+    } finally {
+      if (cdl != null) {
+        cdl.countDown();
+      } else {
+        LOG.warn("CountDownLatch not set!");
+      }
     }
 
-    if (cdl != null) {
-      cdl.countDown();
-    } else {
-      LOG.warn("CountDownLatch not set!");
+    if (entityList != null) {
+      logMsg();
     }
-
-    logMsg();
   }
 
   @Override
@@ -69,9 +120,21 @@ public abstract class AbstractNER implements INER {
     this.cdl = cdl;
   }
 
+  @Override
+  public void setCancelToken(final CancelToken token) {
+    cancelToken = token == null ? CancelToken.NONE : token;
+  }
+
   @Override
   public void setInput(final String input) {
     this.input = input;
+    document = null;
+  }
+
+  @Override
+  public void setInput(final AnalyzedDocument document) {
+    input = document.getInput();
+    this.document = document;
   }
 
   /**
@@ -88,6 +151,25 @@ public abstract class AbstractNER implements INER {
     return new Entity(text, type, relevance, tool);
   }
 
+  /**
+   * Creates a new Entity object with the begin offset of the entity in the input.
+   *
+   * @param text
+   * @param type
+   * @param relevance
+   * @param tool
+   * @param begin character offset in the input
+   * @return
+   */
+  protected Entity getEntity(final String text, final String type, final float relevance,
+      final String tool, final int begin) {
+    final Entity entity = getEntity(text, type, relevance, tool);
+    if (begin > -1) {
+      entity.addIndicies(begin);
+    }
+    return entity;
+  }
+
   /**
    * Cleans the entities, uses a tokenizer to tokenize all entities with the same algorithm.
    *
@@ -97,20 +179,23 @@ public abstract class AbstractNER implements INER {
   protected List<Entity> clean(List<Entity> list) {
     LOG.info("clean entities ...");
 
-    // clean token with the tokenizer
+    // clean token with the tokenizer, same token as FoxTextUtil.getSentenceToken(text + ".")
+    final TokenSpans spans = new TokenSpans();
+    final StringBuilder cleanText = new StringBuilder();
+    final List<Entity> cleaned = new ArrayList<>(list.size());
     for (final Entity entity : list) {
-      final StringBuilder cleanText = new StringBuilder();
-      final String[] tokens = FoxTextUtil.getSentenceToken(entity.getText() + ".");
-      // String[] tokens = FoxTextUtil.getToken(entity.getText());
-      for (final String token : tokens) {
+      cleanText.setLength(0);
+      FoxTokenizer.tokenize(entity.getText(), spans);
+      for (int i = 0; i < spans.size(); i++) {
+        final String token = spans.token(i);
         if (!token.trim().isEmpty()) {
           cleanText.append(token);
           cleanText.append(" ");
         }
       }
-      entity.setText(cleanText.toString().trim());
+      cleaned.add(entity.withText(cleanText.toString().trim()));
     }
-    list = new ArrayList<Entity>(list);
+    list = cleaned;
 
     LOG.info("clean entities done.");
     return list;
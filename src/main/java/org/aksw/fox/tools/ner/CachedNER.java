@@ -0,0 +1,356 @@
+package org.aksw.fox.tools.ner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aksw.fox.data.AnalyzedDocument;
+import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.data.EntitySet;
+import org.aksw.fox.data.TokenManager;
+import org.aksw.fox.tools.Context;
+import org.aksw.fox.utils.CancelToken;
+import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxStringUtil;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * Wraps a ner tool with a cache of its entities per sentence, keyed by a hash of the tool name,
+ * the language and the sentence. Entities are kept as {@link EntitySet} spans with offsets relative
+ * to the sentence start, cached entities get the default relevance.
+ *
+ * {@link #getResults(AnalyzedDocument, Context)} sends only the sentences without cached entities
+ * to the tool, in one call, and adds the cached entities of the other sentences with their offsets
+ * in the document. Sentences recur across documents (bylines, disclaimers, quoted wire copy), so
+ * remote tools and tools with heavy models are called less often.
+ *
+ * Entities are cached with their occurrences in the token input, see
+ * {@link TokenManager#locateEntities(java.util.Collection)}. Entities that do not occur in the
+ * token input or span two sentences are returned uncached, and the sentences of such a call are
+ * not cached, so no entity is lost.
+ *
+ * The cache holds {@link #CFG_KEY_MAX_ENTRIES} sentences of all tools, least recently used ones are
+ * evicted first, and entries expire after {@link #CFG_KEY_TTL} s.
+ *
+ * @author rspeck
+ *
+ */
+public class CachedNER implements INER {
+
+  public static final Logger LOG = LogManager.getLogger(CachedNER.class);
+
+  public static final String CFG_KEY_MAX_ENTRIES =
+      CachedNER.class.getName().concat(".maxEntries");
+  public static final String CFG_KEY_TTL = CachedNER.class.getName().concat(".ttl");
+
+  protected static final int maxEntries =
+      Integer.parseInt(FoxCfg.get(CFG_KEY_MAX_ENTRIES, "100000"));
+  protected static final long ttl =
+      TimeUnit.SECONDS.toMillis(Long.parseLong(FoxCfg.get(CFG_KEY_TTL, "86400")));
+
+  /**
+   * Key to entities of a sentence of all tools in access order, guarded by itself.
+   */
+  protected static final Map<String, Sentence> cache =
+      new LinkedHashMap<String, Sentence>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Sentence> eldest) {
+          if (size() > maxEntries) {
+            evictions.incrementAndGet();
+            return true;
+          }
+          return false;
+        }
+      };
+
+  protected static final AtomicLong hits = new AtomicLong();
+  protected static final AtomicLong misses = new AtomicLong();
+  protected static final AtomicLong evictions = new AtomicLong();
+
+  protected final INER ner;
+
+  /**
+   * Wraps the tool in case the cache is enabled.
+   *
+   * @param ner
+   * @return wrapped tool, the tool itself without cache or null in case of null
+   */
+  public static INER wrap(final INER ner) {
+    if ((ner == null) || (maxEntries < 1) || (ner instanceof CachedNER)) {
+      return ner;
+    }
+    return new CachedNER(ner);
+  }
+
+  protected CachedNER(final INER ner) {
+    this.ner = ner;
+  }
+
+  /**
+   * Gets the wrapped tool.
+   *
+   * @return tool
+   */
+  public INER getTool() {
+    return ner;
+  }
+
+  @Override
+  public List<Entity> getResults(final AnalyzedDocument document, final Context context) {
+    final int n = document.getSentenceCount();
+    if ((n == 0) || context.isBypassCache()) {
+      return ner.getResults(document, context);
+    }
+
+    final String toolName = getToolName();
+    final String[] keys = new String[n];
+    final Sentence[] sentences = new Sentence[n];
+    final List<Integer> missing = new ArrayList<>();
+    for (int i = 0; i < n; i++) {
+      keys[i] = FoxStringUtil.sha256(toolName, document.getLang(), document.getSentence(i));
+      sentences[i] = get(keys[i]);
+      if (sentences[i] == null) {
+        missing.add(i);
+      }
+    }
+    hits.addAndGet(n - missing.size());
+    misses.addAndGet(missing.size());
+
+    final List<Entity> uncached = new ArrayList<>();
+    if (!missing.isEmpty()) {
+      final List<Sentence> found = retrieve(document, missing, context, uncached);
+      if (found == null) {
+        return null;
+      }
+      for (int j = 0; j < missing.size(); j++) {
+        final int i = missing.get(j);
+        sentences[i] = found.get(j);
+        if (uncached.isEmpty()) {
+          put(keys[i], sentences[i]);
+        }
+      }
+    }
+
+    // stitches the sentences together, keeps the offsets of all occurrences
+    final String tokenInput = document.getTokenManager().getTokenInput();
+    final Map<Entity, Entity> entities = new LinkedHashMap<>();
+    for (int i = 0; i < n; i++) {
+      for (final Entity entity : sentences[i].spans.toEntities(tokenInput,
+          document.getSentenceStart(i))) {
+        final Entity known = entities.putIfAbsent(entity, entity);
+        if (known != null) {
+          known.addAllIndicies(entity.getIndices());
+        }
+      }
+    }
+    for (final Entity entity : uncached) {
+      final Entity known = entities.putIfAbsent(entity, entity);
+      if ((known != null) && (entity.getIndices() != null)) {
+        known.addAllIndicies(entity.getIndices());
+      }
+    }
+    LOG.debug(toolName + ": " + (n - missing.size()) + "/" + n + " sentences cached.");
+    return new ArrayList<>(entities.keySet());
+  }
+
+  /**
+   * Runs the tool on the given sentences of the document.
+   *
+   * @param uncached gets the entities that are in no sentence, with offsets in the document in
+   *        case the tool got the whole document, otherwise without offsets
+   * @return entities per given sentence with offsets relative to the sentence or null
+   */
+  protected List<Sentence> retrieve(final AnalyzedDocument document, final List<Integer> missing,
+      final Context context, final List<Entity> uncached) {
+
+    // the document itself in case no sentence is cached, so the tool gets the whole context
+    final AnalyzedDocument part;
+    if (missing.size() == document.getSentenceCount()) {
+      part = document;
+    } else {
+      final String[] s = new String[missing.size()];
+      for (int j = 0; j < s.length; j++) {
+        s[j] = document.getSentence(missing.get(j));
+      }
+      part = new AnalyzedDocument(String.join(" ", s), s, document.getLang());
+    }
+
+    final List<Entity> found = ner.getResults(part, context);
+    if (found == null) {
+      return null;
+    }
+
+    final int[] starts = new int[part.getSentenceCount()];
+    final List<EntitySet> spans = new ArrayList<>(starts.length);
+    for (int j = 0; j < starts.length; j++) {
+      starts[j] = part.getSentenceStart(j);
+      spans.add(new EntitySet(getToolName()));
+    }
+
+    // texts of the tool, e.g. cleaned ones, are located in the token input of the part
+    final boolean whole = part == document;
+    final Map<Entity, Entity> located = part.getTokenManager().locateEntities(found);
+    for (final Entity entity : found) {
+      final Entity l = located.get(entity);
+      if (l == null) {
+        uncached.add(whole ? entity : copy(entity, null));
+        continue;
+      }
+      for (final int index : l.getIndices()) {
+        int j = Arrays.binarySearch(starts, index);
+        j = j < 0 ? Math.max(0, -j - 2) : j;
+        if ((index + l.getText().length()) > (starts[j] + part.getSentence(j).length())) {
+          // spans two sentences
+          uncached.add(copy(l, whole ? index : null));
+        } else {
+          spans.get(j).add(index - starts[j], (index - starts[j]) + l.getText().length(),
+              EntityClassMap.toCode(l.getType()));
+        }
+      }
+    }
+
+    final List<Sentence> sentences = new ArrayList<>(starts.length);
+    for (final EntitySet set : spans) {
+      set.trimToSize();
+      sentences.add(new Sentence(set));
+    }
+    return sentences;
+  }
+
+  /**
+   * Copies the entity with the given start index only.
+   *
+   * @param index start index or null for none
+   */
+  protected static Entity copy(final Entity entity, final Integer index) {
+    final Entity copy = new Entity(entity.getText(), entity.getType(), entity.getRelevance(),
+        entity.getToolName());
+    copy.uri = entity.uri;
+    if (index != null) {
+      copy.addIndicies(index);
+    }
+    return copy;
+  }
+
+  protected static Sentence get(final String key) {
+    synchronized (cache) {
+      final Sentence sentence = cache.get(key);
+      if ((sentence != null) && ((System.currentTimeMillis() - sentence.created) > ttl)) {
+        cache.remove(key);
+        return null;
+      }
+      return sentence;
+    }
+  }
+
+  protected static void put(final String key, final Sentence sentence) {
+    synchronized (cache) {
+      cache.put(key, sentence);
+    }
+  }
+
+  /**
+   * Removes all cached sentences.
+   */
+  public static void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * Gets the counters of the cache.
+   *
+   * @return entries, hits and misses of sentences and evictions
+   */
+  public static JSONObject getStats() {
+    final JSONObject o = new JSONObject();
+    synchronized (cache) {
+      o.put("entries", cache.size());
+    }
+    o.put("maxEntries", maxEntries);
+    o.put("ttl", ttl);
+    o.put("hits", hits.get());
+    o.put("misses", misses.get());
+    o.put("evictions", evictions.get());
+    return o;
+  }
+
+  @Override
+  public List<Entity> retrieve(final String input) {
+    return ner.retrieve(input);
+  }
+
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    return ner.retrieve(document, context);
+  }
+
+  @Override
+  public void setInput(final String input) {
+    ner.setInput(input);
+  }
+
+  @Override
+  public void setInput(final AnalyzedDocument document) {
+    ner.setInput(document);
+  }
+
+  @Override
+  public List<Entity> getResults() {
+    return ner.getResults();
+  }
+
+  @Override
+  public String getToolName() {
+    return ner.getToolName();
+  }
+
+  @Override
+  public void setCountDownLatch(final CountDownLatch cdl) {
+    ner.setCountDownLatch(cdl);
+  }
+
+  @Override
+  public void setCancelToken(final CancelToken token) {
+    ner.setCancelToken(token);
+  }
+
+  @Override
+  public boolean isRemote() {
+    return ner.isRemote();
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return ner.isReentrant();
+  }
+
+  @Override
+  public void run() {
+    ner.run();
+  }
+
+  /**
+   * Entities of one sentence as spans with offsets relative to the sentence start, never changed
+   * after it is cached. The texts are taken from the token input of the document at hand.
+   */
+  protected static class Sentence {
+    protected final EntitySet spans;
+    protected final long created = System.currentTimeMillis();
+
+    protected Sentence(final EntitySet spans) {
+      this.spans = spans;
+    }
+  }
+}
@@ -1,8 +1,11 @@
 package org.aksw.fox.tools.ner;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ITool;
 
 /**
@@ -11,6 +14,10 @@ import org.aksw.fox.tools.ITool;
  * The method {@link #retrieve(String input)} can be used to get the result list of {@link Entity}
  * objects.
  *
+ * Tools that know where an entity occurs add the begin character offset of each occurrence in the
+ * input to the entity ({@link Entity#addIndicies(int)}), the end offset is the begin offset plus
+ * the length of the entity text. Entities without offsets are searched in the input.
+ *
  * @author rspeck
  *
  */
@@ -24,6 +31,52 @@ public interface INER extends ITool {
    */
   public List<Entity> retrieve(String input);
 
+  /**
+   * Retrieves Entity objects from the given document. Tools that work on sentences or token
+   * override {@link #retrieve(AnalyzedDocument, Context)} to use the segmentation of the document.
+   *
+   * @param document analyzed input
+   * @return list entities
+   */
+  public default List<Entity> retrieve(final AnalyzedDocument document) {
+    return retrieve(document, Context.NONE);
+  }
+
+  /**
+   * Retrieves Entity objects from the given document for one call, the state of the call is kept in
+   * the given context. Can be called concurrently in case the tool {@link #isReentrant()}.
+   *
+   * @param document analyzed input
+   * @param context of the call
+   * @return list entities
+   */
+  public default List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    context.check();
+    return retrieve(document.getInput());
+  }
+
+  /**
+   * Returns the cleaned results of {@link #retrieve(AnalyzedDocument, Context)} without changing the
+   * input and results of this object. Calls of tools that are not reentrant are serialized with
+   * {@link Context#lock(Object)}, so one instance can be shared by all requests.
+   *
+   * @param document analyzed input
+   * @param context of the call
+   * @return list entities
+   */
+  public default List<Entity> getResults(final AnalyzedDocument document,
+      final Context context) {
+    if (isReentrant()) {
+      return retrieve(document, context);
+    }
+    final ReentrantLock lock = context.lock(this);
+    try {
+      return retrieve(document, context);
+    } finally {
+      lock.unlock();
+    }
+  }
+
   /**
    * Sets the input with sentences as plain text.
    *
@@ -31,6 +84,15 @@ public interface INER extends ITool {
    */
   public void setInput(String input);
 
+  /**
+   * Sets the input as analyzed document.
+   *
+   * @param document
+   */
+  public default void setInput(final AnalyzedDocument document) {
+    setInput(document.getInput());
+  }
+
   /**
    * Returns results. Uses the {@link #retrieve(String input)} method to get the result list.
    *
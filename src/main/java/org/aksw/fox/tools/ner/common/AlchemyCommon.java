@@ -11,8 +11,11 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.data.exception.ToolFailedException;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.AbstractNER;
 import org.aksw.fox.utils.CfgManager;
 import org.apache.commons.configuration.XMLConfiguration;
@@ -24,6 +27,9 @@ import org.json.JSONObject;
 
 import de.renespeck.swissknife.http.Requests;
 
+/**
+ * Thread-safety: reentrant, each call sends its own requests to the Alchemy service.
+ */
 public abstract class AlchemyCommon extends AbstractNER {
   /**
    *
@@ -49,12 +55,27 @@ public abstract class AlchemyCommon extends AbstractNER {
     setTypes();
   }
 
+  @Override
+  public boolean isRemote() {
+    return true;
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
+  }
+
   @Override
   public List<Entity> retrieve(final String input) {
-    return retrieveSentences(getSentences(Locale.ENGLISH, input));
+    return retrieveSentences(getSentences(Locale.ENGLISH, input), new Context(cancelToken));
   }
 
-  protected List<Entity> retrieveSentences(final List<String> sentences) {
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    return retrieveSentences(getSentences(Locale.ENGLISH, document.getInput()), context);
+  }
+
+  protected List<Entity> retrieveSentences(final List<String> sentences, final Context context) {
 
     // _sentences with string of 15k bytes max.
     final List<String> _sentences = new ArrayList<>();
@@ -85,6 +106,7 @@ public abstract class AlchemyCommon extends AbstractNER {
 
     final Set<Entity> set = new HashSet<>();
     for (final String sen : _sentences) {
+      context.check();
       JSONObject o = null;
       try {
         final String response = Requests.postForm(url,
@@ -98,11 +120,9 @@ public abstract class AlchemyCommon extends AbstractNER {
             ContentType.APPLICATION_JSON);
         o = new JSONObject(response);
       } catch (JSONException | IOException e) {
-        LOG.error(e.getLocalizedMessage(), e);
-      }
-      if (o != null) {
-        set.addAll(alchemyNERResponseParser(o));
+        throw new ToolFailedException(getToolName() + ": " + e.getLocalizedMessage(), e);
       }
+      set.addAll(alchemyNERResponseParser(o));
     }
     return new ArrayList<>(set);
   }
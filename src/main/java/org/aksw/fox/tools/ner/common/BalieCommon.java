@@ -17,6 +17,9 @@ import ca.uottawa.balie.Token;
 import ca.uottawa.balie.TokenList;
 import ca.uottawa.balie.Tokenizer;
 
+/**
+ * Thread-safety: not reentrant, calls are serialized.
+ */
 public abstract class BalieCommon extends AbstractNER {
   // http://github.com/smtlaissezfaire/balie
 
@@ -100,7 +103,8 @@ public abstract class BalieCommon extends AbstractNER {
       if ((type != null) && (mapTypeToSupportedType(type) != EntityClassMap.getNullCategory())
           && type.equals(lastType) && (list.size() > 0)) {
 
-        list.get(list.size() - 1).addText(token.Raw());
+        final Entity last = list.get(list.size() - 1);
+        list.set(list.size() - 1, last.withText(last.getText() + " " + token.Raw()));
 
       } else {
         if (mapTypeToSupportedType(type) != EntityClassMap.getNullCategory()) {
@@ -6,8 +6,10 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.AbstractNER;
 import org.aksw.fox.utils.FoxTextUtil;
 
@@ -15,6 +17,10 @@ import opennlp.tools.namefind.NameFinderME;
 import opennlp.tools.namefind.TokenNameFinderModel;
 import opennlp.tools.util.Span;
 
+/**
+ * Thread-safety: reentrant, the models are read-only and each call creates its own
+ * {@link NameFinderME}.
+ */
 public abstract class OpenNLPCommon extends AbstractNER {
 
   protected String[] modelPath;
@@ -52,21 +58,66 @@ public abstract class OpenNLPCommon extends AbstractNER {
     }
   }
 
-  // TODO: do parallel for each model
+  @Override
+  public boolean isReentrant() {
+    return true;
+  }
+
   @Override
   public List<Entity> retrieve(final String input) {
+    final String[] sentences = FoxTextUtil.getSentences(input);
+    final String[][] sentenceToken = new String[sentences.length][];
+    final int[] sentenceStarts = new int[sentences.length];
+    int pointer = 0;
+    for (int i = 0; i < sentences.length; i++) {
+      sentenceToken[i] = FoxTextUtil.getSentenceToken(sentences[i]);
+      final int start = input.indexOf(sentences[i], pointer);
+      sentenceStarts[i] = start < 0 ? -1 : start;
+      pointer = start < 0 ? pointer : start + sentences[i].length();
+    }
+    return retrieve(sentenceToken, sentenceStarts, new Context(cancelToken));
+  }
+
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    final String[][] sentenceToken = new String[document.getSentenceCount()][];
+    final int[] sentenceStarts = new int[sentenceToken.length];
+    for (int i = 0; i < sentenceToken.length; i++) {
+      sentenceToken[i] = document.getSentenceToken(i);
+      sentenceStarts[i] = document.getSentenceStart(i);
+    }
+    return retrieve(sentenceToken, sentenceStarts, context);
+  }
+
+  /**
+   *
+   * @param sentenceToken token of each sentence, see {@link FoxTextUtil#getSentenceToken(String)}
+   * @param sentenceStarts start offset of each sentence in the input or -1 if unknown
+   * @param context of the call
+   * @return entities
+   */
+  // TODO: do parallel for each model
+  protected List<Entity> retrieve(final String[][] sentenceToken, final int[] sentenceStarts,
+      final Context context) {
     LOG.info("retrieve ...");
 
     final List<Entity> list = new ArrayList<>();
-    final String[] sentences = FoxTextUtil.getSentences(input);
-    LOG.debug("sentences: " + sentences.length);
+    LOG.debug("sentences: " + sentenceToken.length);
 
     for (int i = 0; i < tokenNameFinderModels.length; i++) {
       if (tokenNameFinderModels[i] != null) {
         final NameFinderME nameFinder = new NameFinderME(tokenNameFinderModels[i]);
-        for (final String sentence : sentences) {
-          final String[] tokens = FoxTextUtil.getSentenceToken(sentence);
+        for (int s = 0; s < sentenceToken.length; s++) {
+          context.check();
+          final String[] tokens = sentenceToken[s].clone();
           LOG.debug("tokens: " + tokens.length);
+
+          // token offsets, token are separated by one character
+          final int[] tokenStarts = new int[tokens.length];
+          for (int t = 1; t < tokens.length; t++) {
+            tokenStarts[t] = tokenStarts[t - 1] + tokens[t - 1].length() + 1;
+          }
+
           if ((tokens.length > 0) && tokens[tokens.length - 1].trim().isEmpty()) {
             tokens[tokens.length - 1] = ".";
           }
@@ -89,7 +140,9 @@ public abstract class OpenNLPCommon extends AbstractNER {
             // }
             final String cl = mapTypeToSupportedType(span.getType());
             if (cl != EntityClassMap.getNullCategory()) {
-              list.add(getEntity(word, cl, p, getToolName()));
+              final int begin = sentenceStarts[s] < 0 ? -1
+                  : sentenceStarts[s] + tokenStarts[span.getStart()];
+              list.add(getEntity(word, cl, p, getToolName(), begin));
             }
           }
         }
@@ -1,11 +1,15 @@
 package org.aksw.fox.tools.ner.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.data.exception.ToolFailedException;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.AbstractNER;
 import org.aksw.fox.utils.CfgManager;
 import org.aksw.fox.utils.FoxConst;
@@ -20,6 +24,9 @@ import org.json.JSONObject;
 
 import de.renespeck.swissknife.http.Requests;
 
+/**
+ * Thread-safety: reentrant, each call sends its own requests to the Spotlight service.
+ */
 public abstract class SpotlightCommon extends AbstractNER {
 
   public static Logger LOG = LogManager.getLogger(SpotlightCommon.class);
@@ -46,16 +53,53 @@ public abstract class SpotlightCommon extends AbstractNER {
   }
 
   @Override
-  public List<Entity> retrieve(String input) {
+  public boolean isRemote() {
+    return true;
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
+  }
+
+  @Override
+  public List<Entity> retrieve(final String input) {
+    return retrieve(getSentences(lang, input), 0, new Context(cancelToken));
+  }
 
-    final List<String> sentences = getSentences(lang, input);
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    final String[] sentences = new String[document.getSentenceCount()];
+    for (int i = 0; i < sentences.length; i++) {
+      sentences[i] = document.getSentenceText(i);
+    }
+    return retrieve(Arrays.asList(sentences),
+        sentences.length > 0 ? document.getSentenceStart(0) : 0, context);
+  }
+
+  /**
+   * Sends the sentences in chunks of ten to the service.
+   *
+   * @param sentences consecutive sentences with the whitespace that follows them
+   * @param offset start offset of the first sentence in the input
+   * @param context of the call
+   * @return entities
+   */
+  protected List<Entity> retrieve(final List<String> sentences, final int offset,
+      final Context context) {
     LOG.info("sentences: " + sentences.size());
 
     final int concatSentences = 10;
     int counter = 1;
-    input = "";
-    entityList = new ArrayList<>();
+    int pointer = offset;
+    int chunkStart = offset;
+    String input = "";
+    final List<Entity> entityList = new ArrayList<>();
     for (final String sentence : sentences) {
+      if (input.isEmpty()) {
+        chunkStart = pointer;
+      }
+      pointer += sentence.length();
       input += sentence;
       if ((counter % concatSentences) != 0) {
         counter++;
@@ -68,6 +112,7 @@ public abstract class SpotlightCommon extends AbstractNER {
       if (input.trim().isEmpty()) {
         LOG.info("Empty input!");
       } else {
+        context.check();
         try {
 
           spotlightResponse = Requests.postForm(//
@@ -82,7 +127,7 @@ public abstract class SpotlightCommon extends AbstractNER {
               ContentType.APPLICATION_JSON);
           LOG.debug("spotlightResponse: " + spotlightResponse);
         } catch (final Exception e) {
-          LOG.error(e.getLocalizedMessage(), e);
+          throw new ToolFailedException(getToolName() + ": " + e.getLocalizedMessage(), e);
         }
       }
       JSONObject resultJSON = null;
@@ -96,7 +141,8 @@ public abstract class SpotlightCommon extends AbstractNER {
             LOG.debug("No Resources found in spotlight response.");
           }
         } catch (final JSONException e) {
-          LOG.error("JSON exception, spotlight response.", e);
+          throw new ToolFailedException(getToolName() + ": JSON exception, spotlight response.",
+              e);
         }
       }
 
@@ -107,8 +153,10 @@ public abstract class SpotlightCommon extends AbstractNER {
             LOG.debug(entity.toString(2));
             final String type = spotlight(entity.getString("@types"));
             if (!type.equals(EntityClassMap.getNullCategory())) {
+              final int begin =
+                  entity.has("@offset") ? chunkStart + entity.getInt("@offset") : -1;
               entityList.add(getEntity(entity.getString("@surfaceForm"), type,
-                  Entity.DEFAULT_RELEVANCE, getToolName()));
+                  Entity.DEFAULT_RELEVANCE, getToolName(), begin));
             }
           } catch (final JSONException e) {
             LOG.error("\nJSON exception ", e);
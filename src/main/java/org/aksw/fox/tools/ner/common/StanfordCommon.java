@@ -4,9 +4,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.AbstractNER;
+import org.aksw.fox.utils.FoxCfg;
 
 import edu.stanford.nlp.ling.CoreAnnotations.NamedEntityTagAnnotation;
 import edu.stanford.nlp.ling.CoreAnnotations.SentencesAnnotation;
@@ -16,22 +19,93 @@ import edu.stanford.nlp.pipeline.Annotation;
 import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.util.CoreMap;
 
+/**
+ * Thread-safety: reentrant, {@link StanfordCoreNLP#annotate(Annotation)} can be called
+ * concurrently and each call annotates its own {@link Annotation}.
+ */
 public abstract class StanfordCommon extends AbstractNER {
 
+  public static final String CFG_KEY_CHUNK_SENTENCES =
+      StanfordCommon.class.getName().concat(".chunkSentences");
+
   protected StanfordCoreNLP pipeline = null;
 
+  /*
+   * Sentences annotated in one pipeline call.
+   */
+  protected int chunkSentences = 32;
+
   public StanfordCommon(final Properties props) {
     pipeline = new StanfordCoreNLP(props);
+
+    final String chunk = FoxCfg.get(CFG_KEY_CHUNK_SENTENCES);
+    if (chunk != null) {
+      try {
+        chunkSentences = Math.max(1, Integer.parseInt(chunk));
+      } catch (final NumberFormatException e) {
+        LOG.error("Not a number: " + CFG_KEY_CHUNK_SENTENCES + ": " + chunk);
+      }
+    }
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
   }
 
   @Override
   public List<Entity> retrieve(final String text) {
     LOG.info("retrieve ...");
 
-    final Annotation ann = new Annotation(text);
-    pipeline.annotate(ann);
+    final List<Entity> list = new ArrayList<>();
+    cancelToken.check();
+    annotate(text, 0, list);
+
+    // TRACE
+    if (LOG.isTraceEnabled()) {
+      LOG.trace(list);
+    } // TRACE
+    LOG.info("retrieve done.");
+    return list;
+  }
+
+  /**
+   * Annotates the document in chunks of {@link #chunkSentences} sentences, so a cancelled call
+   * stops after the current chunk.
+   */
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    LOG.info("retrieve ...");
 
     final List<Entity> list = new ArrayList<>();
+    final String input = document.getInput();
+    final int sentences = document.getSentenceCount();
+    for (int i = 0; i < sentences; i += chunkSentences) {
+      context.check();
+      final int start = document.getSentenceStart(i);
+      final int end = i + chunkSentences < sentences ? document.getSentenceStart(i + chunkSentences)
+          : input.length();
+      annotate(input.substring(start, end), start, list);
+    }
+
+    // TRACE
+    if (LOG.isTraceEnabled()) {
+      LOG.trace(list);
+    } // TRACE
+    LOG.info("retrieve done.");
+    return list;
+  }
+
+  /**
+   * Annotates the text and adds the found entities to the list.
+   *
+   * @param text
+   * @param offset start of the text in the input
+   * @param list
+   */
+  protected void annotate(final String text, final int offset, final List<Entity> list) {
+    final Annotation ann = new Annotation(text);
+    pipeline.annotate(ann);
 
     for (final CoreMap sentence : ann.get(SentencesAnnotation.class)) {
       String tokensentence = "";
@@ -49,20 +123,15 @@ public abstract class StanfordCommon extends AbstractNER {
           equalTypes = type.equals(lastEntity.getType());
         }
         if (contains && equalTypes) {
-          lastEntity.addText(currentToken);
+          list.set(list.size() - 1, lastEntity.withText(lastEntity.getText() + " " + currentToken));
         } else {
           if (type != EntityClassMap.getNullCategory()) {
             final float p = Entity.DEFAULT_RELEVANCE;
-            list.add(getEntity(currentToken, type, p, getToolName()));
+            list.add(
+                getEntity(currentToken, type, p, getToolName(), offset + token.beginPosition()));
           }
         }
       }
     }
-    // TRACE
-    if (LOG.isTraceEnabled()) {
-      LOG.trace(list);
-    } // TRACE
-    LOG.info("retrieve done.");
-    return list;
   }
 }
@@ -10,6 +10,7 @@ import java.util.Set;
 import java.util.concurrent.Callable;
 
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.exception.ToolFailedException;
 import org.aksw.fox.utils.CfgManager;
 import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.http.client.fluent.Form;
@@ -17,6 +18,7 @@ import org.apache.http.entity.ContentType;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import de.renespeck.swissknife.http.Requests;
@@ -90,6 +92,8 @@ class TagMeCall implements Callable<List<Entity>> {
 
   /**
    * TagMe request.
+   *
+   * @throws ToolFailedException in case the service did not answer with a JSON object
    */
   public JSONObject send() {
     String response = "";
@@ -105,9 +109,8 @@ class TagMeCall implements Callable<List<Entity>> {
               .add("include_categories", include_categories),
           ContentType.APPLICATION_JSON);
       return new JSONObject(response);
-    } catch (final IOException e) {
-      LOG.error(e.getLocalizedMessage(), e);
+    } catch (final IOException | JSONException e) {
+      throw new ToolFailedException("TagMe: " + e.getLocalizedMessage(), e);
     }
-    return new JSONObject();
   }
 }
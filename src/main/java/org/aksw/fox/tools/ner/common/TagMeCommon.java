@@ -9,18 +9,25 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.exception.ToolFailedException;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.AbstractNER;
 import org.aksw.fox.utils.CfgManager;
+import org.aksw.fox.utils.FoxExecutors;
 import org.apache.commons.configuration.XMLConfiguration;
 
+/**
+ * Thread-safety: reentrant, each call collects the entities of its own {@link TagMeCall}s.
+ */
 public abstract class TagMeCommon extends AbstractNER {
 
   public static final XMLConfiguration CFG = CfgManager.getCfg(TagMeCommon.class);
@@ -65,17 +72,31 @@ public abstract class TagMeCommon extends AbstractNER {
     LOG.info("TagMeCommon ... ");
     LANG = lang;
 
-    entityList = new ArrayList<>();
     this.dbpediaGraph = dbpediaGraph;
     this.dbpediaURL = dbpediaURL;
   }
 
+  @Override
+  public boolean isRemote() {
+    return true;
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
+  }
+
   @Override
   public List<Entity> retrieve(final String input) {
-    return retrieveSentences(getSentences(LANG, input));
+    return retrieveSentences(getSentences(LANG, input), new Context(cancelToken));
   }
 
-  protected List<Entity> retrieveSentences(final List<String> sentences) {
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    return retrieveSentences(getSentences(LANG, document.getInput()), context);
+  }
+
+  protected List<Entity> retrieveSentences(final List<String> sentences, final Context context) {
 
     // _sentences with string of 15k bytes max.
     final List<String> _sentences = new ArrayList<>();
@@ -104,20 +125,25 @@ public abstract class TagMeCommon extends AbstractNER {
       _sentences.add(sb.toString());
     }
 
-    final ExecutorService executorService = Executors.newFixedThreadPool(4);
-    final CompletionService<List<Entity>> completionService =
-        new ExecutorCompletionService<>(executorService);
+    // calls run on the pool for calls within the limit of TagMeCall, this task holds a thread of
+    // the remote pool while it waits for them
+    final CompletionService<List<Entity>> completionService = new ExecutorCompletionService<>(
+        FoxExecutors.getCallBulkhead(TagMeCall.class.getSimpleName()));
 
-    int n = 0;
+    final List<Future<List<Entity>>> futures = new ArrayList<>();
     for (int i = 0; i < _sentences.size(); i++) {
-      completionService.submit(new TagMeCall(_sentences.get(i), LANG, entityClasses));
-      ++n;
+      futures.add(
+          completionService.submit(new TagMeCall(_sentences.get(i), LANG, entityClasses)));
     }
-    executorService.shutdown();
     final Set<Entity> set = new HashSet<>();
-    for (int i = 0; i < n; ++i) {
+    for (int i = 0; i < futures.size(); ++i) {
       try {
-        final Future<List<Entity>> future = completionService.take();
+        // wait for the next call, stop all calls in case this request is cancelled
+        Future<List<Entity>> future = null;
+        while (future == null) {
+          context.check();
+          future = completionService.poll(100, TimeUnit.MILLISECONDS);
+        }
         final List<Entity> result = future.get();
 
         if ((result != null) && !result.isEmpty()) {
@@ -125,11 +151,20 @@ public abstract class TagMeCommon extends AbstractNER {
         } else {
           LOG.warn("No entities found.");
         }
-      } catch (InterruptedException | ExecutionException e) {
-        LOG.error(e.getLocalizedMessage(), e);
+      } catch (final ExecutionException e) {
+        // a partial result would be taken for the result of the whole input
+        FoxExecutors.cancel(futures);
+        throw new ToolFailedException(getToolName() + ": " + e.getCause().getLocalizedMessage(),
+            e.getCause());
+      } catch (final InterruptedException e) {
+        FoxExecutors.cancel(futures);
+        Thread.currentThread().interrupt();
+        throw new CancellationException("interrupted");
+      } catch (final CancellationException e) {
+        FoxExecutors.cancel(futures);
+        throw e;
       }
     }
-    entityList.addAll(set);
-    return entityList;
+    return new ArrayList<>(set);
   }
 }
@@ -4,8 +4,10 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.AbstractNER;
 import org.aksw.fox.utils.FoxConst;
 
@@ -21,6 +23,9 @@ import edu.illinois.cs.cogcomp.LbjNer.LbjTagger.ParametersForLbjCode;
 import edu.illinois.cs.cogcomp.LbjNer.ParsingProcessingData.PlainTextReader;
 import edu.illinois.cs.cogcomp.lbjava.parse.LinkedVector;
 
+/**
+ * Thread-safety: not reentrant, the taggers keep state while decoding, so calls are serialized.
+ */
 public class IllinoisExtendedEN extends AbstractNER {
 
   public static String file = "config/conll.config";
@@ -47,6 +52,15 @@ public class IllinoisExtendedEN extends AbstractNER {
 
   @Override
   public List<Entity> retrieve(final String input) {
+    return retrieve(input, new Context(cancelToken));
+  }
+
+  @Override
+  public List<Entity> retrieve(final AnalyzedDocument document, final Context context) {
+    return retrieve(document.getInput(), context);
+  }
+
+  protected List<Entity> retrieve(final String input, final Context context) {
     LOG.info("retrieve ...");
 
     // parse input
@@ -55,6 +69,7 @@ public class IllinoisExtendedEN extends AbstractNER {
     final Data data = new Data(doc);
 
     // set input
+    context.check();
     try {
       ExpressiveFeaturesAnnotator.annotate(data);
     } catch (final Exception e) {
@@ -62,6 +77,7 @@ public class IllinoisExtendedEN extends AbstractNER {
     }
 
     // annotate input
+    context.check();
     List<Entity> list = null;
     try {
       Decoder.annotateDataBIO(data, tagger1, tagger2);
@@ -25,7 +25,9 @@ import fr.eurecom.nerd.client.type.ExtractorType;
 
 
  */
-
+/**
+ * Thread-safety: reentrant, each call uses its own NERD client.
+ */
 public class NerdMLEN extends AbstractNER {
 
     public static final String CFG_KEY_API_KEY       = NerdMLEN.class.getName().concat(".apiKey");
@@ -41,6 +43,16 @@ public class NerdMLEN extends AbstractNER {
         */
     }
 
+    @Override
+    public boolean isRemote() {
+        return true;
+    }
+
+    @Override
+    public boolean isReentrant() {
+        return true;
+    }
+
     @Override
     public List<org.aksw.fox.data.Entity> retrieve(String input) {
         List<org.aksw.fox.data.Entity> foxlist = new ArrayList<>();
@@ -29,6 +29,7 @@ import edu.stanford.nlp.util.Pair;
 import edu.stanford.nlp.util.Triple;
 
 /**
+ * Thread-safety: not reentrant, calls are serialized.
  *
  * @author rspeck
  *
@@ -120,7 +121,8 @@ public class StanfordENOldVersion extends AbstractNER {
             equalTypes = type.equals(lastEntity.getType());
           }
           if (contains && equalTypes) {
-            lastEntity.addText(currentToken);
+            list.set(list.size() - 1,
+                lastEntity.withText(lastEntity.getText() + " " + currentToken));
             // TODO: relevance update
           } else {
             if (type != EntityClassMap.getNullCategory()) {
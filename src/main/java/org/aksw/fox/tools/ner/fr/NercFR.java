@@ -19,6 +19,8 @@ import opennlp.tools.util.Span;
 
 /**
  * NER tool using nerc-fr extention of Apache OpenNLP.
+ *
+ * Thread-safety: reentrant, see {@link OpenNLPCommon}.
  */
 public class NercFR extends OpenNLPCommon {
   protected TokenNameFinderModel[] tokenNameFinderModels;
@@ -20,7 +20,9 @@ import fr.eurecom.nerd.client.type.ExtractorType;
  * 
  * 
  */
-
+/**
+ * Thread-safety: reentrant, each call uses its own NERD client.
+ */
 public class NerdMLFR extends AbstractNER {
 
   public static final String CFG_KEY_API_KEY = NerdMLFR.class.getName().concat(".apiKey");
@@ -39,6 +41,16 @@ public class NerdMLFR extends AbstractNER {
     }
   }
 
+  @Override
+  public boolean isRemote() {
+    return true;
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
+  }
+
   @Override
   public List<org.aksw.fox.data.Entity> retrieve(final String input) {
     final List<org.aksw.fox.data.Entity> foxlist = new ArrayList<>();
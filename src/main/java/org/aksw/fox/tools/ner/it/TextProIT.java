@@ -24,6 +24,10 @@ import org.aksw.fox.utils.CfgManager;
 import org.aksw.fox.utils.FoxConst;
 import org.apache.commons.configuration.XMLConfiguration;
 
+/**
+ * Thread-safety: not reentrant, uses temporary files and the result list of this object, so calls
+ * are serialized.
+ */
 public class TextProIT extends AbstractNER {
 
   public static final XMLConfiguration CFG = CfgManager.getCfg(TextProIT.class);
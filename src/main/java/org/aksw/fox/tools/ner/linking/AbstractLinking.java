@@ -1,21 +1,29 @@
 package org.aksw.fox.tools.ner.linking;
 
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.utils.CancelToken;
 
 public abstract class AbstractLinking implements ILinking {
 
-    protected Set<Entity>    entities = null;
-    protected CountDownLatch cdl      = null;
-    protected String         input    = null;
+    protected Set<Entity>    entities    = null;
+    protected CountDownLatch cdl         = null;
+    protected CancelToken    cancelToken = CancelToken.NONE;
+    protected String         input       = null;
 
     @Override
     public void run() {
-        setUris(entities, input);
-        if (cdl != null)
-            cdl.countDown();
+        try {
+            setUris(entities, input);
+        } catch (CancellationException e) {
+            // entities keep the uris set so far
+        } finally {
+            if (cdl != null)
+                cdl.countDown();
+        }
     }
 
     @Override
@@ -24,6 +32,11 @@ public abstract class AbstractLinking implements ILinking {
 
     }
 
+    @Override
+    public void setCancelToken(CancelToken token) {
+        cancelToken = token == null ? CancelToken.NONE : token;
+    }
+
     @Override
     public void setInput(Set<Entity> entities, String input) {
         this.input = input;
@@ -10,7 +10,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Set;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.tools.Context;
 import org.apache.jena.query.QueryExecutionFactory;
 import org.apache.jena.query.QueryFactory;
 import org.apache.jena.query.ResultSet;
@@ -19,6 +21,8 @@ import org.apache.log4j.Logger;
 import uk.ac.shef.wit.simmetrics.similaritymetrics.QGramsDistance;
 
 /**
+ *
+ * Thread-safety: reentrant, each lookup sends its own requests.
  *
  * @author ngonga, rspeck
  *
@@ -39,10 +43,27 @@ public class DirectLinking extends AbstractLinking {
 
   @Override
   public void setUris(final Set<Entity> entities, final String input) {
+    link(entities, new Context(cancelToken));
+    this.entities = entities;
+  }
+
+  @Override
+  public Set<Entity> link(final Set<Entity> entities, final AnalyzedDocument document,
+      final Context context) {
+    return link(entities, context);
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
+  }
+
+  protected Set<Entity> link(final Set<Entity> entities, final Context context) {
     for (final Entity e : entities) {
+      context.check();
       e.uri = lookup(e.getText(), e.getType(), "");
     }
-    this.entities = entities;
+    return entities;
   }
 
   /**
@@ -2,10 +2,14 @@ package org.aksw.fox.tools.ner.linking;
 
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.tools.Context;
+import org.aksw.fox.utils.CancelToken;
 
-public interface ILinking extends Runnable {
+public interface ILinking extends Runnable, AutoCloseable {
   /**
    * Sets a CountDownLatch object.
    *
@@ -13,6 +17,13 @@ public interface ILinking extends Runnable {
    */
   public void setCountDownLatch(CountDownLatch cdl);
 
+  /**
+   * Sets the token of the current call, the tool stops its work as soon as it is cancelled.
+   *
+   * @param token
+   */
+  public default void setCancelToken(final CancelToken token) {}
+
   /**
    * Sets the input.
    *
@@ -20,6 +31,16 @@ public interface ILinking extends Runnable {
    */
   public void setInput(Set<Entity> entities, String input);
 
+  /**
+   * Sets the input as analyzed document.
+   *
+   * @param entities
+   * @param document
+   */
+  public default void setInput(final Set<Entity> entities, final AnalyzedDocument document) {
+    setInput(entities, document.getInput());
+  }
+
   /**
    * Returns results.
    *
@@ -28,4 +49,44 @@ public interface ILinking extends Runnable {
   public Set<Entity> getResults();
 
   public void setUris(Set<Entity> entities, String input);
+
+  /**
+   * Sets the uris of the entities for one call, the state of the call is kept in the given context.
+   * The default uses {@link #setUris(Set, String)} with the token of the context, so calls are
+   * serialized unless the tool {@link #isReentrant()} and overrides this method.
+   *
+   * @param entities
+   * @param document
+   * @param context of the call
+   * @return entities with uris
+   */
+  public default Set<Entity> link(final Set<Entity> entities, final AnalyzedDocument document,
+      final Context context) {
+    final ReentrantLock lock = context.lock(this);
+    try {
+      setCancelToken(context.getCancelToken());
+      setUris(entities, document.getInput());
+      return entities;
+    } finally {
+      setCancelToken(null);
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Checks if {@link #link(Set, AnalyzedDocument, Context)} can be called concurrently on this
+   * object.
+   *
+   * @return true in case the tool keeps no state between calls
+   */
+  public default boolean isReentrant() {
+    return false;
+  }
+
+  /**
+   * Releases the resources of the tool, e.g. opened indexes. Called once the tool is not used
+   * anymore, see {@link org.aksw.fox.tools.ModelRegistry}.
+   */
+  @Override
+  public default void close() {}
 }
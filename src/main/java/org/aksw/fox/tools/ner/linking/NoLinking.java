@@ -4,12 +4,24 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Set;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
+import org.aksw.fox.tools.Context;
 
+/**
+ * Thread-safety: reentrant.
+ */
 public class NoLinking extends AbstractLinking {
 
   @Override
   public void setUris(final Set<Entity> entities, final String input) {
+    link(entities, null, Context.NONE);
+    this.entities = entities;
+  }
+
+  @Override
+  public Set<Entity> link(final Set<Entity> entities, final AnalyzedDocument document,
+      final Context context) {
     // TODO: update me
     for (final Entity entity : entities) {
       URI uri;
@@ -20,7 +32,12 @@ public class NoLinking extends AbstractLinking {
 
       }
     }
-    this.entities = entities;
+    return entities;
+  }
+
+  @Override
+  public boolean isReentrant() {
+    return true;
   }
 
 }
@@ -1,5 +1,6 @@
 package org.aksw.fox.tools.ner.linking.common;
 
+import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URI;
@@ -11,14 +12,18 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.aksw.agdistis.algorithm.NEDAlgo_HITS;
 import org.aksw.agdistis.datatypes.Document;
 import org.aksw.agdistis.datatypes.DocumentText;
 import org.aksw.agdistis.datatypes.NamedEntitiesInText;
 import org.aksw.agdistis.datatypes.NamedEntityInText;
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.output.AFoxJenaNew;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ner.linking.AbstractLinking;
 import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.commons.io.IOUtils;
@@ -28,15 +33,22 @@ import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
 
+/**
+ * Thread-safety: reentrant with the web service, the direct versions with the lib are not
+ * reentrant and their calls are serialized.
+ */
 public class Agdistis extends AbstractLinking {
 
   public static final Logger LOG = LogManager.getLogger(Agdistis.class);
   public static final String CFG_KEY_AGDISTIS_ENDPOINT = "agdistis.endpoint";
 
-  // maps AGDISTIS index to real index
-  protected Map<Integer, Entity> indexMap = new HashMap<>();
   protected String endpoint;
 
+  /**
+   * The lib of the direct versions, null for the web service or once closed.
+   */
+  protected NEDAlgo_HITS agdistis = null;
+
   public Agdistis() {}
 
   public Agdistis(final XMLConfiguration cfg) {
@@ -45,9 +57,71 @@ public class Agdistis extends AbstractLinking {
 
   @Override
   public void setUris(final Set<Entity> entities, final String input) {
+    link(entities, input, new Context(cancelToken));
+    this.entities = entities;
+  }
+
+  @Override
+  public Set<Entity> link(final Set<Entity> entities, final AnalyzedDocument document,
+      final Context context) {
+    if (isReentrant()) {
+      return link(entities, document.getInput(), context);
+    }
+    final ReentrantLock lock = context.lock(this);
+    try {
+      return link(entities, document.getInput(), context);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * The web service is reentrant, the lib of the direct versions is used by one call at a time.
+   */
+  @Override
+  public boolean isReentrant() {
+    return endpoint != null;
+  }
+
+  /**
+   * Closes the lib of the direct versions, see {@link #closeLib()}. Holds the lock of the calls,
+   * so a running call is done before.
+   */
+  @Override
+  public void close() {
+    if (isReentrant()) {
+      return;
+    }
+    final ReentrantLock lock = Context.NONE.lock(this);
+    try {
+      closeLib();
+    } catch (final IOException e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Closes the indexes of the lib, called by {@link #close()} while no call runs.
+   *
+   * @throws IOException
+   */
+  protected void closeLib() throws IOException {
+    if (agdistis != null) {
+      final NEDAlgo_HITS lib = agdistis;
+      agdistis = null;
+      lib.close();
+    }
+  }
+
+  protected Set<Entity> link(final Set<Entity> entities, final String input,
+      final Context context) {
     LOG.info("AGDISTISLookup ...");
 
-    String agdistis_input = makeInput(entities, input);
+    // maps AGDISTIS index to real index
+    final Map<Integer, Entity> indexMap = new HashMap<>();
+    String agdistis_input = makeInput(entities, input, indexMap);
 
     if (LOG.isDebugEnabled()) {
       LOG.debug(indexMap);
@@ -58,12 +132,16 @@ public class Agdistis extends AbstractLinking {
     }
     LOG.info("AGDISTISLookup sending...");
     String agdistis_output = "";
+    context.check();
     try {
       agdistis_output = send(agdistis_input);
       agdistis_input = null;
+    } catch (final CancellationException e) {
+      throw e;
     } catch (final Exception e) {
       LOG.error("\n", e);
     }
+    context.check();
     LOG.info("AGDISTISLookup sending done.");
     if (LOG.isDebugEnabled()) {
       LOG.debug(agdistis_output);
@@ -73,19 +151,18 @@ public class Agdistis extends AbstractLinking {
       LOG.debug("addURItoEntities ...");
     }
 
-    addURItoEntities(agdistis_output, entities);
+    addURItoEntities(agdistis_output, indexMap);
 
     if (LOG.isDebugEnabled()) {
       LOG.debug("done.");
     }
 
     LOG.info("AGDISTISLookup done..");
-    indexMap.clear();
-
-    this.entities = entities;
+    return entities;
   }
 
-  private String makeInput(final Set<Entity> entities, final String input) {
+  private String makeInput(final Set<Entity> entities, final String input,
+      final Map<Integer, Entity> indexMap) {
 
     final Map<Integer, Entity> indexEntityMap = new HashMap<>();
     for (final Entity entity : entities) {
@@ -146,7 +223,7 @@ public class Agdistis extends AbstractLinking {
     return IOUtils.toString(http.getInputStream(), "UTF-8");
   }
 
-  protected void addURItoEntities(final String json, final Set<Entity> entities) {
+  protected void addURItoEntities(final String json, final Map<Integer, Entity> indexMap) {
     if (LOG.isDebugEnabled()) {
       LOG.debug("addURItoEntities ...");
     }
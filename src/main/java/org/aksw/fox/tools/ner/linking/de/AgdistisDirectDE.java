@@ -8,7 +8,6 @@ import org.aksw.fox.tools.ner.linking.common.Agdistis;
 public class AgdistisDirectDE extends Agdistis {
 
   final String file = "agdistisDE.properties";
-  NEDAlgo_HITS agdistis = null;
 
   public AgdistisDirectDE() {
     try {
@@ -14,7 +14,6 @@ import org.aksw.fox.tools.ner.linking.common.Agdistis;
 public class AgdistisDirectEN extends Agdistis {
 
   final String file = "agdistisEN.properties";
-  NEDAlgo_HITS agdistis = null;
 
   public AgdistisDirectEN() {
     try {
@@ -14,7 +14,6 @@ import org.aksw.fox.tools.ner.linking.common.Agdistis;
 public class AgdistisDirectES extends Agdistis {
 
   final String file = "agdistisES.properties";
-  NEDAlgo_HITS agdistis = null;
 
   public AgdistisDirectES() {
     try {
@@ -16,7 +16,6 @@ import org.aksw.fox.utils.FoxCfg;
 public class AgdistisDirectFR extends Agdistis {
 
   final String file = "agdistisFR.properties";
-  NEDAlgo_HITS agdistis = null;
 
   public AgdistisDirectFR() {
     try {
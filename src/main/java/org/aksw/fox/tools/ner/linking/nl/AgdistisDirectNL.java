@@ -14,7 +14,6 @@ import org.aksw.fox.tools.ner.linking.common.Agdistis;
 public class AgdistisDirectNL extends Agdistis {
 
   final String file = "agdistisNL.properties";
-  NEDAlgo_HITS agdistis = null;
 
   public AgdistisDirectNL() {
     try {
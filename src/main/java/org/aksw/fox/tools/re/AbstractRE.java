@@ -2,10 +2,13 @@ package org.aksw.fox.tools.re;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.Relation;
+import org.aksw.fox.utils.CancelToken;
 import org.apache.log4j.Logger;
 
 public abstract class AbstractRE implements IRE {
@@ -14,15 +17,23 @@ public abstract class AbstractRE implements IRE {
 
   protected Set<Relation> relations = new HashSet<>();
   protected CountDownLatch cdl = null;
+  protected CancelToken cancelToken = CancelToken.NONE;
   protected String input = null;
+  protected AnalyzedDocument document = null;
   protected Set<Entity> entities = null;
 
   @Override
   public void run() {
     relations.clear();
-    extract();
-    if (cdl != null) {
-      cdl.countDown();
+    try {
+      extract();
+    } catch (final CancellationException e) {
+      relations.clear();
+      LOG.info(getToolName() + " cancelled.");
+    } finally {
+      if (cdl != null) {
+        cdl.countDown();
+      }
     }
   }
 
@@ -31,10 +42,23 @@ public abstract class AbstractRE implements IRE {
     this.cdl = cdl;
   }
 
+  @Override
+  public void setCancelToken(final CancelToken token) {
+    cancelToken = token == null ? CancelToken.NONE : token;
+  }
+
   @Override
   public void setInput(final String input, final Set<Entity> entities) {
     this.input = input;
     this.entities = entities;
+    document = null;
+  }
+
+  @Override
+  public void setInput(final AnalyzedDocument document, final Set<Entity> entities) {
+    input = document.getInput();
+    this.entities = entities;
+    this.document = document;
   }
 
   @Override
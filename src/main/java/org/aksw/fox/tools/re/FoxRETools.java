@@ -1,30 +1,87 @@
 package org.aksw.fox.tools.re;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.aksw.fox.FoxParameter;
+import org.aksw.fox.data.exception.LoadingNotPossibleException;
+import org.aksw.fox.tools.ModelRegistry;
 import org.aksw.fox.tools.re.de.BoaDE;
 import org.aksw.fox.tools.re.en.BoaEN;
 import org.aksw.fox.tools.re.en.REStanford;
 import org.aksw.fox.tools.re.fr.BoaFR;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
 
+/**
+ * The relation extraction tools per language. The tools of a language are acquired from the
+ * {@link ModelRegistry} the first time the language is used, so only the models of used languages
+ * are loaded.
+ */
 public class FoxRETools {
 
-  protected Map<String, List<IRE>> relationTool = new HashMap<>();
-
-  public FoxRETools() {
+  public static final Logger LOG = LogManager.getLogger(FoxRETools.class);
 
+  /**
+   * Language to class names of the tools.
+   */
+  protected static final Map<String, List<String>> relationToolClasses = new HashMap<>();
+  static {
     // TODO: move RE to config
-    relationTool.put(FoxParameter.Langs.EN.name().toLowerCase(),
-        Arrays.asList(new REStanford(), new BoaEN()));
-    relationTool.put(FoxParameter.Langs.DE.name().toLowerCase(), Arrays.asList(new BoaDE()));
-    relationTool.put(FoxParameter.Langs.FR.name().toLowerCase(), Arrays.asList(new BoaFR()));
+    relationToolClasses.put(FoxParameter.Langs.EN.name().toLowerCase(),
+        Arrays.asList(REStanford.class.getName(), BoaEN.class.getName()));
+    relationToolClasses.put(FoxParameter.Langs.DE.name().toLowerCase(),
+        Arrays.asList(BoaDE.class.getName()));
+    relationToolClasses.put(FoxParameter.Langs.FR.name().toLowerCase(),
+        Arrays.asList(BoaFR.class.getName()));
+  }
+
+  protected Map<String, List<ModelRegistry.Model<IRE>>> relationTool = new HashMap<>();
+
+  /**
+   * Gets the tools of a language, loads tools not in use so far.
+   *
+   * @param lang
+   * @return tools or null if the language is not supported
+   */
+  public synchronized List<IRE> getRETool(final String lang) {
+    final List<String> classes = relationToolClasses.get(lang);
+    if (classes == null) {
+      return null;
+    }
+
+    List<ModelRegistry.Model<IRE>> models = relationTool.get(lang);
+    if (models == null) {
+      models = new ArrayList<>();
+      for (final String cl : classes) {
+        try {
+          models.add(ModelRegistry.acquire(cl));
+        } catch (final LoadingNotPossibleException e) {
+          LOG.error(e.getLocalizedMessage(), e);
+        }
+      }
+      relationTool.put(lang, models);
+    }
+
+    final List<IRE> tools = new ArrayList<>();
+    for (final ModelRegistry.Model<IRE> model : models) {
+      try {
+        tools.add(model.get());
+      } catch (final LoadingNotPossibleException e) {
+        LOG.error(e.getLocalizedMessage(), e);
+      }
+    }
+    return tools;
   }
 
-  public List<IRE> getRETool(final String lang) {
-    return relationTool.get(lang);
+  /**
+   * Releases the tools, tools without other consumers are unloaded.
+   */
+  public synchronized void close() {
+    relationTool.values().forEach(models -> models.forEach(ModelRegistry.Model::release));
+    relationTool.clear();
   }
 }
@@ -1,9 +1,13 @@
 package org.aksw.fox.tools.re;
 
+import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.aksw.fox.data.AnalyzedDocument;
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.Relation;
+import org.aksw.fox.tools.Context;
 import org.aksw.fox.tools.ITool;
 
 /**
@@ -20,6 +24,29 @@ public interface IRE extends ITool {
    */
   public Set<Relation> extract();
 
+  /**
+   * Extracts relations for one call, the state of the call is kept in the given context. The
+   * default sets the input of this object, so calls are serialized unless the tool
+   * {@link #isReentrant()} and overrides this method.
+   *
+   * @param document analyzed text
+   * @param entities entities in the text with types, labels and indices.
+   * @param context of the call
+   * @return relations
+   */
+  public default Set<Relation> extract(final AnalyzedDocument document, final Set<Entity> entities,
+      final Context context) {
+    final ReentrantLock lock = context.lock(this);
+    try {
+      setInput(document, entities);
+      setCancelToken(context.getCancelToken());
+      return new HashSet<>(extract());
+    } finally {
+      setCancelToken(null);
+      lock.unlock();
+    }
+  }
+
   /**
    * Sets the input.
    *
@@ -28,6 +55,16 @@ public interface IRE extends ITool {
    */
   public void setInput(String input, Set<Entity> entities);
 
+  /**
+   * Sets the input as analyzed document.
+   *
+   * @param document analyzed text
+   * @param entities entities in the text with types, labels and indices.
+   */
+  public default void setInput(final AnalyzedDocument document, final Set<Entity> entities) {
+    setInput(document.getInput(), entities);
+  }
+
   /**
    * Returns results.
    *
@@ -42,6 +42,8 @@ import org.apache.tools.ant.taskdefs.Untar.UntarCompressionMethod;
 import org.apache.tools.ant.types.EnumeratedAttribute;
 
 /**
+ * Thread-safety: not reentrant, the index searcher and the relations are fields of this object, so
+ * calls are serialized.
  *
  * We mapped leaderName, team, deathPlace, birthPlace, spouse, team, foundationPlace, subsidiary.
  *
@@ -274,6 +276,7 @@ abstract public class ABoaIndex extends AbstractRE {
   private Set<Relation> _extract(final String text, final List<Entity> entities) {
 
     for (int i = 0; (i + 1) < entities.size(); i++) {
+      cancelToken.check();
       final Entity subject = entities.get(i);
       final Entity object = entities.get(i + 1);
 
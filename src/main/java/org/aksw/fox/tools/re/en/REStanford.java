@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import org.aksw.fox.data.Entity;
 import org.aksw.fox.data.EntityClassMap;
@@ -30,6 +31,7 @@ import edu.stanford.nlp.util.CoreMap;
 
 // https://github.com/stanfordnlp/CoreNLP/blob/672d43a9677272fdef79ef15f3caa9ed7bc26164/src/edu/stanford/nlp/ie/machinereading/domains/roth/RothCONLL04Reader.java
 /**
+ * Thread-safety: not reentrant, calls are serialized.
  *
  * @author rspeck
  *
@@ -205,10 +207,12 @@ public class REStanford extends AbstractRE {
       final Annotation doc = new Annotation(input);
       LOG.debug("Annotate the doc...");
       stanfordNLP.annotate(doc);
+      cancelToken.check();
       LOG.debug("RelationExtractorAnnotator the doc...");
       relationExtractorAnnotator.annotate(doc);
       LOG.debug("For all relation ...");
       for (final CoreMap sentenceAnnotation : doc.get(CoreAnnotations.SentencesAnnotation.class)) {
+        cancelToken.check();
         final List<RelationMention> relationMentions =
             (sentenceAnnotation.get(RelationMentionsAnnotation.class));
         LOG.debug("relationMentions.size():" + relationMentions.size());
@@ -279,6 +283,8 @@ public class REStanford extends AbstractRE {
         }
       }
       LOG.info("Relations done.");
+    } catch (final CancellationException e) {
+      throw e;
     } catch (final Exception e) {
       LOG.error(e.getLocalizedMessage(), e);
     }
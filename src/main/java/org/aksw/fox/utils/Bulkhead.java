@@ -0,0 +1,140 @@
+package org.aksw.fox.utils;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of tasks of one tool that run at the same time on a shared executor.
+ *
+ * Tasks above the limit wait in a queue of this bulkhead and do not block a thread of the shared
+ * executor, so a slow tool can only delay its own tasks.
+ *
+ * @author rspeck
+ *
+ */
+public class Bulkhead implements Executor {
+
+  protected final String name;
+  protected final Executor executor;
+  protected final int limit;
+
+  protected final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  protected final AtomicInteger running = new AtomicInteger();
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param name of the tool
+   * @param executor shared executor
+   * @param limit max. running tasks
+   */
+  public Bulkhead(final String name, final Executor executor, final int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Limit has to be positive: " + limit);
+    }
+    this.name = name;
+    this.executor = executor;
+    this.limit = limit;
+  }
+
+  @Override
+  public void execute(final Runnable task) {
+    queue.add(task);
+    schedule();
+  }
+
+  /**
+   * Runs the task on the shared executor as soon as the limit allows it.
+   *
+   * @param task
+   * @return future to wait for or to cancel the task
+   */
+  public Future<?> submit(final Runnable task) {
+    final FutureTask<?> future = new FutureTask<>(task, null);
+    execute(future);
+    return future;
+  }
+
+  /**
+   * Runs the task on the shared executor as soon as the limit allows it.
+   *
+   * @param task
+   * @return future to wait for or to cancel the task
+   */
+  public <T> Future<T> submit(final Callable<T> task) {
+    final FutureTask<T> future = new FutureTask<>(task);
+    execute(future);
+    return future;
+  }
+
+  /**
+   * Hands queued tasks to the executor while less than {@link #limit} tasks are running.
+   */
+  protected void schedule() {
+    while (!queue.isEmpty()) {
+      final int n = running.get();
+      if (n >= limit) {
+        return;
+      }
+      if (running.compareAndSet(n, n + 1)) {
+        final Runnable task = queue.poll();
+        if (task == null) {
+          running.decrementAndGet();
+          continue;
+        }
+        try {
+          executor.execute(() -> {
+            try {
+              task.run();
+            } finally {
+              running.decrementAndGet();
+              schedule();
+            }
+          });
+        } catch (final RejectedExecutionException e) {
+          running.decrementAndGet();
+          throw e;
+        }
+      }
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Gets the number of running tasks.
+   *
+   * @return running tasks
+   */
+  public int getRunning() {
+    return running.get();
+  }
+
+  /**
+   * Gets the number of tasks waiting for the limit.
+   *
+   * @return waiting tasks
+   */
+  public int getWaiting() {
+    return queue.size();
+  }
+
+  @Override
+  public String toString() {
+    return "Bulkhead [name=" + name + ", limit=" + limit + ", running=" + running.get()
+        + ", waiting=" + queue.size() + "]";
+  }
+}
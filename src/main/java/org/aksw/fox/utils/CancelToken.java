@@ -0,0 +1,79 @@
+package org.aksw.fox.utils;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signals that the work of a request is no longer needed, e.g. after a timeout.
+ *
+ * Long running loops call {@link #check()} between steps (sentences, requests to web services) and
+ * stop with a {@link CancellationException}. A token is cancelled in case it, one of its parents
+ * or the current thread was interrupted.
+ *
+ * @author rspeck
+ *
+ */
+public class CancelToken {
+
+  /**
+   * A token that is only cancelled by interrupting the thread.
+   */
+  public static final CancelToken NONE = new CancelToken(null) {
+    @Override
+    public void cancel() {}
+  };
+
+  protected final CancelToken parent;
+  protected volatile boolean cancelled = false;
+
+  public CancelToken() {
+    this(null);
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param parent token which cancels this token too or null
+   */
+  protected CancelToken(final CancelToken parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Creates a token that can be cancelled on its own, but is cancelled with this token too.
+   *
+   * @return child token
+   */
+  public CancelToken child() {
+    return new CancelToken(this);
+  }
+
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Checks if the work should stop.
+   *
+   * @return true in case this token or a parent was cancelled or the thread was interrupted
+   */
+  public boolean isCancelled() {
+    for (CancelToken token = this; token != null; token = token.parent) {
+      if (token.cancelled) {
+        return true;
+      }
+    }
+    return Thread.currentThread().isInterrupted();
+  }
+
+  /**
+   * Stops the work in case it was cancelled.
+   *
+   * @throws CancellationException if {@link #isCancelled()}
+   */
+  public void check() {
+    if (isCancelled()) {
+      throw new CancellationException("cancelled");
+    }
+  }
+}
@@ -80,13 +80,30 @@ public class FoxCfg {
   }
 
   /**
-   * Gets an object of the given class.
+   * Gets an optional property.
+   *
+   * @param key property key
+   * @param defaultValue value in case the key is not set
+   * @return property value
+   */
+  public static String get(final String key, final String defaultValue) {
+    if (foxProperties == null) {
+      loadFile(CFG_FILE);
+    }
+    final String value = foxProperties.getProperty(key);
+    return value == null ? defaultValue : value.trim();
+  }
+
+  /**
+   * Gets an object of the given class. Objects are created concurrently, e.g. the tools of all
+   * languages at startup, see {@link org.aksw.fox.tools.ModelRegistry} to create one object per
+   * class.
    *
    * @param classPath path to class
    * @return object of a class
    * @throws LoadingNotPossibleException
    */
-  public synchronized static Object getClass(final String classPath)
+  public static Object getClass(final String classPath)
       throws LoadingNotPossibleException {
     LOG.info("Loading class: " + classPath);
 
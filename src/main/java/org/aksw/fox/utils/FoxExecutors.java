@@ -0,0 +1,293 @@
+package org.aksw.fox.utils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.fox.tools.ToolsGenerator;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * The process-wide thread pools, instead of a new thread for each task.
+ *
+ * <ul>
+ * <li>{@link #local()}: as many threads as processors, for tools with local models.</li>
+ * <li>{@link #remote()}: for tools that wait for web services.</li>
+ * <li>{@link #calls()}: for the web service calls a tool task runs in parallel, so a task on the
+ * remote pool never waits for its own calls queued on the same pool.</li>
+ * <li>{@link #requests()}: runs FOX instances, which wait for tasks on the other pools.</li>
+ * </ul>
+ *
+ * Tasks of a tool are submitted through the {@link Bulkhead} of the tool, which limits the running
+ * tasks of the tool to {@link #CFG_KEY_TOOL_LIMIT}, by default to an equal share of the pool for
+ * each tool of one language. Tasks of the batches of long documents use bulkheads of their own with
+ * {@link #CFG_KEY_BATCH_LIMIT}, so they neither use up nor wait for the limit of other requests.
+ *
+ * @author rspeck
+ *
+ */
+public class FoxExecutors {
+
+  public static final Logger LOG = LogManager.getLogger(FoxExecutors.class);
+
+  public static final String CFG_KEY_LOCAL_THREADS =
+      FoxExecutors.class.getName().concat(".localThreads");
+  public static final String CFG_KEY_REMOTE_THREADS =
+      FoxExecutors.class.getName().concat(".remoteThreads");
+  public static final String CFG_KEY_REQUEST_THREADS =
+      FoxExecutors.class.getName().concat(".requestThreads");
+  public static final String CFG_KEY_CALL_THREADS =
+      FoxExecutors.class.getName().concat(".callThreads");
+  public static final String CFG_KEY_TOOL_LIMIT =
+      FoxExecutors.class.getName().concat(".toolLimit");
+  public static final String CFG_KEY_BATCH_LIMIT =
+      FoxExecutors.class.getName().concat(".batchLimit");
+
+  protected static final int localThreads =
+      getInt(CFG_KEY_LOCAL_THREADS, Runtime.getRuntime().availableProcessors());
+  protected static final int remoteThreads = getInt(CFG_KEY_REMOTE_THREADS, 64);
+  protected static final int requestThreads = getInt(CFG_KEY_REQUEST_THREADS, 64);
+  protected static final int callThreads = getInt(CFG_KEY_CALL_THREADS, 64);
+  protected static final int toolLimit = getInt(CFG_KEY_TOOL_LIMIT, 0);
+  protected static final int batchLimit =
+      getInt(CFG_KEY_BATCH_LIMIT, Runtime.getRuntime().availableProcessors());
+
+  protected static final ThreadPoolExecutor local = create("fox-local", localThreads);
+  protected static final ThreadPoolExecutor remote = create("fox-remote", remoteThreads);
+  protected static final ThreadPoolExecutor requests = create("fox-request", requestThreads);
+  protected static final ThreadPoolExecutor calls = create("fox-call", callThreads);
+
+  /**
+   * Tool name to bulkhead.
+   */
+  protected static final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  private FoxExecutors() {}
+
+  public static ExecutorService local() {
+    return local;
+  }
+
+  public static ExecutorService remote() {
+    return remote;
+  }
+
+  public static ExecutorService requests() {
+    return requests;
+  }
+
+  public static ExecutorService calls() {
+    return calls;
+  }
+
+  /**
+   * Gets the bulkhead of a tool.
+   *
+   * @param toolName
+   * @param isRemote true for the pool for web services
+   * @return bulkhead
+   */
+  public static Bulkhead getBulkhead(final String toolName, final boolean isRemote) {
+    return getBulkhead(isRemote ? "remote:" : "local:", toolName, isRemote ? remote : local);
+  }
+
+  /**
+   * Gets the bulkhead for the web service calls of a tool on {@link #calls()}.
+   *
+   * @param name of the calls
+   * @return bulkhead
+   */
+  public static Bulkhead getCallBulkhead(final String name) {
+    return getBulkhead("call:", name, calls);
+  }
+
+  /**
+   * Gets the bulkhead of a tool for the batches of long documents, limited to
+   * {@link #CFG_KEY_BATCH_LIMIT} running tasks.
+   *
+   * @param toolName
+   * @param isRemote true for the pool for web services
+   * @return bulkhead
+   */
+  public static Bulkhead getBatchBulkhead(final String toolName, final boolean isRemote) {
+    final String pool = isRemote ? "batch-remote:" : "batch-local:";
+    return bulkheads.computeIfAbsent(pool.concat(toolName),
+        k -> new Bulkhead(toolName, isRemote ? remote : local, batchLimit));
+  }
+
+  protected static Bulkhead getBulkhead(final String pool, final String name,
+      final ThreadPoolExecutor executor) {
+    return bulkheads.computeIfAbsent(pool.concat(name), k -> new Bulkhead(name, executor,
+        toolLimit > 0 ? toolLimit : getShare(executor.getMaximumPoolSize(), getToolCount())));
+  }
+
+  /**
+   * Gets an equal share of the threads for each tool, so all tools can run at the same time.
+   *
+   * @param threads of the pool
+   * @param tools number of tools
+   * @return threads per tool, at least one
+   */
+  protected static int getShare(final int threads, final int tools) {
+    final int n = Math.max(1, tools);
+    return Math.max(1, (threads + n - 1) / n);
+  }
+
+  /**
+   * Gets the number of configured ner and disambiguation tools of the language with the most tools,
+   * since a request runs the tools of its language at the same time.
+   *
+   * @return tools
+   */
+  protected static int getToolCount() {
+    int max = 0;
+    for (final Map.Entry<String, List<String>> entry : ToolsGenerator.nerTools.entrySet()) {
+      final Set<String> tools = new HashSet<>(entry.getValue());
+      final String linking = ToolsGenerator.disambiguationTools.get(entry.getKey());
+      if (linking != null) {
+        tools.add(linking);
+      }
+      max = Math.max(max, tools.size());
+    }
+    return max;
+  }
+
+  /**
+   * Runs a task of a tool within the limit of the tool.
+   *
+   * @param toolName
+   * @param isRemote true for the pool for web services
+   * @param task
+   * @return future to wait for or to cancel the task
+   */
+  public static Future<?> submit(final String toolName, final boolean isRemote,
+      final Runnable task) {
+    return getBulkhead(toolName, isRemote).submit(task);
+  }
+
+  /**
+   * Runs a task of a tool within the limit of the tool.
+   *
+   * @param toolName
+   * @param isRemote true for the pool for web services
+   * @param task
+   * @return future to wait for or to cancel the task
+   */
+  public static <T> Future<T> submit(final String toolName, final boolean isRemote,
+      final Callable<T> task) {
+    return getBulkhead(toolName, isRemote).submit(task);
+  }
+
+  /**
+   * Runs a task of a tool for a batch of a long document within the batch limit of the tool.
+   *
+   * @param toolName
+   * @param isRemote true for the pool for web services
+   * @param task
+   * @return future to wait for or to cancel the task
+   */
+  public static <T> Future<T> submitBatch(final String toolName, final boolean isRemote,
+      final Callable<T> task) {
+    return getBatchBulkhead(toolName, isRemote).submit(task);
+  }
+
+  /**
+   * Cancels the given tasks, running tasks are interrupted.
+   *
+   * @param futures
+   */
+  public static void cancel(final List<? extends Future<?>> futures) {
+    for (final Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Gets the state of the pools and bulkheads.
+   *
+   * @return one line each
+   */
+  public static List<String> getStats() {
+    final List<String> stats = new ArrayList<>();
+    stats.add(stats("local", local));
+    stats.add(stats("remote", remote));
+    stats.add(stats("requests", requests));
+    stats.add(stats("calls", calls));
+    bulkheads.values().forEach(bulkhead -> stats.add(bulkhead.toString()));
+    return stats;
+  }
+
+  /**
+   * Stops all pools, waits for running tasks at most the given time.
+   *
+   * @param timeout
+   * @param unit
+   */
+  public static void shutdown(final long timeout, final TimeUnit unit) {
+    LOG.info("shutdown ...");
+    for (final ThreadPoolExecutor executor : new ThreadPoolExecutor[] {requests, remote, calls, local}) {
+      executor.shutdown();
+    }
+    try {
+      for (final ThreadPoolExecutor executor : new ThreadPoolExecutor[] {requests, remote, calls,
+          local}) {
+        if (!executor.awaitTermination(timeout, unit)) {
+          executor.shutdownNow();
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    LOG.info("shutdown done.");
+  }
+
+  protected static String stats(final String name, final ThreadPoolExecutor executor) {
+    return name + " [threads=" + executor.getPoolSize() + "/" + executor.getMaximumPoolSize()
+        + ", active=" + executor.getActiveCount() + ", queued=" + executor.getQueue().size()
+        + ", completed=" + executor.getCompletedTaskCount() + "]";
+  }
+
+  /**
+   * Creates a pool with a fixed max. number of daemon threads, idle threads stop after a minute.
+   */
+  protected static ThreadPoolExecutor create(final String name, final int threads) {
+    final AtomicInteger count = new AtomicInteger();
+    final ThreadFactory factory = r -> {
+      final Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+    executor.allowCoreThreadTimeOut(true);
+    LOG.info(name + " threads: " + threads);
+    return executor;
+  }
+
+  protected static int getInt(final String key, final int defaultValue) {
+    final String value = FoxCfg.get(key);
+    if (value != null) {
+      try {
+        final int i = Integer.parseInt(value);
+        if (i > 0) {
+          return i;
+        }
+      } catch (final NumberFormatException e) {
+        LOG.error("Not a number: " + key + ": " + value);
+      }
+    }
+    return defaultValue;
+  }
+}
@@ -0,0 +1,126 @@
+package org.aksw.fox.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+import opennlp.tools.sentdetect.SentenceDetectorME;
+import opennlp.tools.sentdetect.SentenceModel;
+
+/**
+ * Sentence detection with OpenNLP models.
+ *
+ * Languages without a model in {@link #MODEL_FOLDER} use the model of {@link #DEFAULT_LANG}.
+ *
+ * Each language model is read once and shared, {@link SentenceModel} is thread-safe. A
+ * {@link SentenceDetectorME} is not, so each thread gets its own detector for each language.
+ *
+ * @author rspeck
+ *
+ */
+public class FoxSentenceDetector {
+
+  public static final Logger LOG = LogManager.getLogger(FoxSentenceDetector.class);
+
+  public static final String MODEL_FOLDER = "data/openNLP/";
+  public static final String MODEL_SUFFIX = "-sent.bin";
+  public static final String DEFAULT_LANG = "en";
+
+  /**
+   * Language to model.
+   */
+  protected static final Map<String, SentenceModel> models = new ConcurrentHashMap<>();
+
+  /**
+   * Language to thread-local detector.
+   */
+  protected static final Map<String, ThreadLocal<SentenceDetectorME>> detectors =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Languages without a model.
+   */
+  protected static final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+  private FoxSentenceDetector() {}
+
+  /**
+   * Gets sentences with the default language model.
+   *
+   * @param source plain text of sentences
+   * @return sentences or null in case the model could not be loaded
+   */
+  public static String[] sentDetect(final String source) {
+    return sentDetect(source, DEFAULT_LANG);
+  }
+
+  /**
+   * Gets sentences.
+   *
+   * @param source plain text of sentences
+   * @param lang language of the model to use, the default model in case there is none
+   * @return sentences or null in case the model could not be loaded
+   */
+  public static String[] sentDetect(final String source, final String lang) {
+    SentenceDetectorME sentenceDetector = lang == null ? null : getDetector(lang);
+    if ((sentenceDetector == null) && !DEFAULT_LANG.equals(lang)) {
+      sentenceDetector = getDetector(DEFAULT_LANG);
+    }
+    if (sentenceDetector == null) {
+      return null;
+    }
+    return sentenceDetector.sentDetect(source);
+  }
+
+  /**
+   * Gets the detector of the current thread for the given language.
+   *
+   * @param lang language
+   * @return detector or null in case the model could not be loaded
+   */
+  protected static SentenceDetectorME getDetector(final String lang) {
+    final SentenceModel model = getModel(lang);
+    if (model == null) {
+      return null;
+    }
+    return detectors
+        .computeIfAbsent(lang, l -> ThreadLocal.withInitial(() -> new SentenceDetectorME(model)))
+        .get();
+  }
+
+  /**
+   * Gets the model for the given language, reads it on first use.
+   *
+   * @param lang language
+   * @return model or null in case the model could not be loaded
+   */
+  protected static SentenceModel getModel(final String lang) {
+    if (missing.contains(lang)) {
+      return null;
+    }
+    final SentenceModel model = models.computeIfAbsent(lang, FoxSentenceDetector::readModel);
+    if (model == null) {
+      missing.add(lang);
+    }
+    return model;
+  }
+
+  protected static SentenceModel readModel(final String lang) {
+    final String file = MODEL_FOLDER + lang + MODEL_SUFFIX;
+    LOG.info("Loads sentence model: " + file);
+
+    SentenceModel model = null;
+    try (InputStream modelIn = new FileInputStream(file)) {
+      model = new SentenceModel(modelIn);
+    } catch (final IOException e) {
+      LOG.error("\n", e);
+    }
+    return model;
+  }
+}
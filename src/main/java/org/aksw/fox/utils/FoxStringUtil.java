@@ -1,6 +1,11 @@
 package org.aksw.fox.utils;
 
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.xml.bind.DatatypeConverter;
 
 import org.apache.log4j.Logger;
 
@@ -25,4 +30,26 @@ public class FoxStringUtil {
             return "";
         }
     }
+
+    /**
+     * Hashes the parts with SHA-256, each part with its length, so parts can not be shifted into
+     * each other.
+     *
+     * @param parts
+     * @return hash as lower case hex
+     */
+    public static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return DatatypeConverter.printHexBinary(digest.digest()).toLowerCase();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -1,9 +1,6 @@
 package org.aksw.fox.utils;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,8 +19,6 @@ import org.apache.log4j.Logger;
 import net.htmlparser.jericho.Segment;
 import net.htmlparser.jericho.Source;
 import net.htmlparser.jericho.TextExtractor;
-import opennlp.tools.sentdetect.SentenceDetectorME;
-import opennlp.tools.sentdetect.SentenceModel;
 
 /**
  * Static class to provide general 'text' functionality.
@@ -47,7 +42,7 @@ public class FoxTextUtil {
    * @param url
    * @return plain text
    */
-  public static synchronized String urlToText(final String url) {
+  public static String urlToText(final String url) {
     LOG.info("urlToText: " + url);
     String html = null;
     try {
@@ -62,7 +57,7 @@ public class FoxTextUtil {
   /**
    * Gets the content from html/text as plain text.
    */
-  public static synchronized String htmlToText(String html) {
+  public static String htmlToText(String html) {
     LOG.info("extractFromHTML ... ");
 
     // Adds line breaks to keep structure
@@ -81,7 +76,7 @@ public class FoxTextUtil {
    * @param input
    * @return
    */
-  public static synchronized String[] getSentencesToken(final String input) {
+  public static String[] getSentencesToken(final String input) {
 
     final List<String> result = new ArrayList<>();
     for (final String sentence : _getSentences(input)) {
@@ -91,7 +86,7 @@ public class FoxTextUtil {
     return result.toArray(new String[result.size()]);
   }
 
-  public static synchronized String[] getSentences(final String source) {
+  public static String[] getSentences(final String source) {
 
     final String[] sentences = _getSentences(source);
 
@@ -101,41 +96,25 @@ public class FoxTextUtil {
   }
 
   /**
-   * Gets sentences.
+   * Gets sentences with the sentence model of the language, see
+   * {@link FoxSentenceDetector#sentDetect(String, String)}.
    *
    * @param source plain text of sentences
+   * @param lang language of the text
    * @return sentences
    */
-  protected static synchronized String[] _getSentences(final String source) {
-
-    InputStream modelIn = null;
-    try {
-      modelIn = new FileInputStream("data/openNLP/en-sent.bin");
-    } catch (final FileNotFoundException e) {
-      LOG.error("\n", e);
-    }
-    if (modelIn == null) {
-      return null;
-    }
-
-    String[] sentences = null;
-    try {
-      final SentenceModel model = new SentenceModel(modelIn);
-      final SentenceDetectorME sentenceDetector = new SentenceDetectorME(model);
-      sentences = sentenceDetector.sentDetect(source);
-    } catch (final IOException e) {
-      LOG.error("\n", e);
-    } finally {
-      if (modelIn != null) {
-        try {
-          modelIn.close();
-        } catch (final IOException e) {
-          LOG.error("\n", e);
-        }
-      }
-    }
+  public static String[] getSentences(final String source, final String lang) {
+    return FoxSentenceDetector.sentDetect(source, lang);
+  }
 
-    return sentences;
+  /**
+   * Gets sentences.
+   *
+   * @param source plain text of sentences
+   * @return sentences
+   */
+  protected static String[] _getSentences(final String source) {
+    return FoxSentenceDetector.sentDetect(source);
   }
 
   /**
@@ -144,7 +123,7 @@ public class FoxTextUtil {
    * @param sentence (with punctuation mark)
    * @return token
    */
-  public static synchronized String[] getSentenceToken(String sentence) {
+  public static String[] getSentenceToken(String sentence) {
     // System.out.println(sentence);
     // Note: Points won't removed, so we remove punctuation marks to points
     // and handle them later
@@ -166,28 +145,14 @@ public class FoxTextUtil {
       }
 
       // add a token to keep original length
-      final int len = sentence.length();
-
-      final String cleanSentence = StringUtils.join(token, " ");
-
-      final int cleanSentenceLen = cleanSentence.length();
-
-      String closeLen = "";
-      while ((cleanSentenceLen + closeLen.length()) < len) {
-        closeLen += " ";
+      int cleanSentenceLen = token.length - 1;
+      for (final String t : token) {
+        cleanSentenceLen += t.length();
       }
-      // add this token
-      if (!closeLen.isEmpty()) {
-        token = ArrayUtils.add(token, token.length, closeLen);
+      final int closeLen = sentence.length() - cleanSentenceLen;
+      if (closeLen > 0) {
+        token = ArrayUtils.add(token, token.length, StringUtils.repeat(' ', closeLen));
       }
-
-      // logger.info("----");
-      // logger.info("<" + len + ">");
-      // logger.info("<" + cleanSentenceLen + ">");
-      // logger.info("<" + sentence + ">");
-      // logger.info("<" + cleanSentence + ">");
-      // logger.info("<" + StringUtils.join(token, " ") + ">");
-      // logger.info("<" + token[token.length - 1] + ">");
     } else {
       token = new String[0];
     }
@@ -200,12 +165,12 @@ public class FoxTextUtil {
    * @param in string to split
    * @return token
    */
-  public static synchronized String[] getToken(final String in) {
-    return in.split(tokenSpliter);
+  public static String[] getToken(final String in) {
+    return FoxTokenizer.tokenize(in).toArray();
   }
 
   // token needs to bound in spaces e.g.: " Leipzig "
-  public static synchronized Set<Integer> getIndices(String token, String tokenInput) {
+  public static Set<Integer> getIndices(String token, String tokenInput) {
 
     final Set<Integer> indices = new HashSet<>();
     if ((token != null) && (tokenInput != null) && (token.length() < tokenInput.length())) {
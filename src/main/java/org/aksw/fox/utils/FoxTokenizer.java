@@ -0,0 +1,84 @@
+package org.aksw.fox.utils;
+
+/**
+ * A scanner with the token definition of {@link FoxTextUtil#tokenSpliter}, without regular
+ * expressions.
+ *
+ * The results are equal to <code>String.split(FoxTextUtil.tokenSpliter)</code>, but are given as
+ * offsets into the text in a {@link TokenSpans} object.
+ *
+ * @author rspeck
+ *
+ */
+public class FoxTokenizer {
+
+  /**
+   * ASCII punctuation characters that split token, see {@link FoxTextUtil#tokenSpliter}.
+   */
+  protected static final String SPLIT_PUNCTUATION = "!\"#$%'()*,:;<=>?@[\\]^`{|}~";
+
+  private static final boolean[] SPLIT = new boolean[128];
+  static {
+    for (int i = 0; i < SPLIT_PUNCTUATION.length(); i++) {
+      SPLIT[SPLIT_PUNCTUATION.charAt(i)] = true;
+    }
+    SPLIT[' '] = true;
+    SPLIT['\t'] = true;
+    SPLIT['\n'] = true;
+  }
+
+  private FoxTokenizer() {}
+
+  /**
+   * Checks if the given character splits token.
+   *
+   * @param c character
+   * @return true in case c splits token
+   */
+  public static boolean isSplit(final char c) {
+    return (c < 128) && SPLIT[c];
+  }
+
+  /**
+   * Gets token.
+   *
+   * @param text string to split
+   * @return token spans
+   */
+  public static TokenSpans tokenize(final CharSequence text) {
+    final TokenSpans spans = new TokenSpans();
+    tokenize(text, spans);
+    return spans;
+  }
+
+  /**
+   * Gets token, resets the given spans object and fills it.
+   *
+   * @param text string to split
+   * @param spans to fill
+   */
+  public static void tokenize(final CharSequence text, final TokenSpans spans) {
+    spans.reset(text);
+    final int len = text.length();
+
+    boolean found = false;
+    int start = 0;
+    for (int i = 0; i < len; i++) {
+      if (isSplit(text.charAt(i))) {
+        spans.add(start, i);
+        start = i + 1;
+        found = true;
+      }
+    }
+    spans.add(start, len);
+
+    // as String.split: no match gives the input, otherwise trailing empty token are removed
+    if (found) {
+      int size = spans.size();
+      while ((size > 0) && (spans.length(size - 1) == 0)) {
+        size--;
+      }
+      spans.truncate(size);
+    }
+  }
+}
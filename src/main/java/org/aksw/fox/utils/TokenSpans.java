@@ -0,0 +1,120 @@
+package org.aksw.fox.utils;
+
+import java.util.Arrays;
+
+/**
+ * Token boundaries as start and end offsets into a text, filled by {@link FoxTokenizer}.
+ *
+ * Strings are only created on request ({@link #token(int)}, {@link #toArray()}). An instance can
+ * be reused with {@link #clear()}.
+ *
+ * @author rspeck
+ *
+ */
+public class TokenSpans {
+
+  protected CharSequence text = null;
+  protected int[] starts = null;
+  protected int[] ends = null;
+  protected int size = 0;
+
+  public TokenSpans() {
+    this(16);
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param capacity initial capacity
+   */
+  public TokenSpans(final int capacity) {
+    starts = new int[Math.max(capacity, 1)];
+    ends = new int[Math.max(capacity, 1)];
+  }
+
+  /**
+   * Removes all spans and sets the text the offsets refer to.
+   *
+   * @param text
+   */
+  public void reset(final CharSequence text) {
+    this.text = text;
+    size = 0;
+  }
+
+  /**
+   * Removes all spans.
+   */
+  public void clear() {
+    reset(null);
+  }
+
+  /**
+   * Adds a span.
+   *
+   * @param start inclusive
+   * @param end exclusive
+   */
+  public void add(final int start, final int end) {
+    if (size == starts.length) {
+      starts = Arrays.copyOf(starts, size << 1);
+      ends = Arrays.copyOf(ends, size << 1);
+    }
+    starts[size] = start;
+    ends[size] = end;
+    size++;
+  }
+
+  /**
+   * Sets the size to the given value, used to drop spans at the end.
+   *
+   * @param size
+   */
+  protected void truncate(final int size) {
+    this.size = size;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int start(final int i) {
+    return starts[i];
+  }
+
+  public int end(final int i) {
+    return ends[i];
+  }
+
+  public int length(final int i) {
+    return ends[i] - starts[i];
+  }
+
+  public CharSequence getText() {
+    return text;
+  }
+
+  /**
+   * Creates the string of the i-th token.
+   *
+   * @param i
+   * @return token
+   */
+  public String token(final int i) {
+    return text.subSequence(starts[i], ends[i]).toString();
+  }
+
+  /**
+   * Creates the strings of all tokens.
+   *
+   * @return token
+   */
+  public String[] toArray() {
+    final String[] tokens = new String[size];
+    for (int i = 0; i < size; i++) {
+      tokens[i] = token(i);
+    }
+    return tokens;
+  }
+}
@@ -5,19 +5,21 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.aksw.fox.FoxParameter;
 import org.aksw.fox.IFox;
+import org.aksw.fox.data.exception.PoolExhaustedException;
 import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.utils.FoxLanguageDetector;
 import org.aksw.fox.utils.FoxStringUtil;
 import org.aksw.fox.utils.FoxTextUtil;
 import org.aksw.fox.webservice.util.Pool;
 import org.glassfish.grizzly.http.server.Request;
 import org.glassfish.grizzly.http.server.Response;
-import org.jetlang.fibers.Fiber;
-import org.jetlang.fibers.ThreadFiber;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
@@ -66,18 +68,23 @@ public class FoxHttpHandler extends AbstractFoxHttpHandler {
       final Pool<IFox> pool = Server.pool.get(lang);
       IFox fox = null;
       if (pool != null) {
-        fox = pool.poll();
+        try {
+          fox = pool.acquire();
+        } catch (final PoolExhaustedException e) {
+          response.setHeader("Retry-After", String.valueOf(e.getRetryAfter()));
+          setResponse(response, new JSONObject().put("error", e.getLocalizedMessage()).toString(),
+              HttpURLConnection.HTTP_UNAVAILABLE, "application/json");
+          return;
+        }
       }
 
       if (fox != null) {
 
-        // init. thread
-        final Fiber fiber = new ThreadFiber();
-        fiber.start();
+        // run on the request pool
         final CountDownLatch latch = new CountDownLatch(1);
         fox.setCountDownLatch(latch);
         fox.setParameter(parameter);
-        fiber.execute(fox);
+        final Future<?> future = FoxExecutors.requests().submit(fox);
 
         // wait
         try {
@@ -88,30 +95,31 @@ public class FoxHttpHandler extends AbstractFoxHttpHandler {
           LOG.error("input: " + parameter.get(FoxParameter.Parameter.INPUT.toString()));
         }
 
-        // shutdown thread
-        fiber.dispose();
-
-        // get output
-        String output = "";
-        if (latch.getCount() == 0) {
-          output = fox.getResultsAndClean();
-          Server.pool.get(lang).push(fox);
-        } else {
-          fox = null;
-          Server.pool.get(lang).add();
+        // stop the task if still running
+        if (latch.getCount() != 0) {
+          fox.cancel();
         }
+        future.cancel(true);
 
+        // get output, read everything before the instance is back in the pool
         String in = null, out = null, log = null;
-        if (fox != null) {
+        final JSONArray skipped = new JSONArray();
+        if (latch.getCount() == 0) {
+          final String output = fox.getResultsAndClean();
+          fox.getSkippedTools().forEach(skipped::put);
           in = FoxStringUtil
               .encodeURLComponent(parameter.get(FoxParameter.Parameter.INPUT.toString()));
           out = FoxStringUtil.encodeURLComponent(output);
           log = FoxStringUtil.encodeURLComponent(fox.getLog());
+          Server.pool.get(lang).push(fox);
+        } else {
+          // a new instance replaces it, it gets back in case its run ends
+          Server.pool.get(lang).quarantine(fox, latch);
         }
         setResponse(response,
             new JSONObject().put("input", in == null ? "" : in)
                 .put("output", out == null ? "" : out).put("log", log == null ? "" : log)
-                .toString(),
+                .put("skipped", skipped).toString(),
             HttpURLConnection.HTTP_OK, "application/json");
         return;
       } else {
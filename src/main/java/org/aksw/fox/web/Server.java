@@ -6,6 +6,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import javax.json.stream.JsonGenerator;
 import javax.ws.rs.ext.RuntimeDelegate;
@@ -13,11 +15,14 @@ import javax.ws.rs.ext.RuntimeDelegate;
 import org.aksw.fox.Fox;
 import org.aksw.fox.IFox;
 import org.aksw.fox.data.exception.PortInUseException;
+import org.aksw.fox.tools.ModelRegistry;
 import org.aksw.fox.tools.ToolsGenerator;
 import org.aksw.fox.utils.CfgManager;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.utils.FoxServerUtil;
 import org.aksw.fox.web.api.ApiResource;
 import org.aksw.fox.web.feedback.FeedbackHttpHandler;
+import org.aksw.fox.webservice.util.FoxHealthCheck;
 import org.aksw.fox.webservice.util.Pool;
 import org.apache.commons.configuration.XMLConfiguration;
 import org.apache.log4j.LogManager;
@@ -81,6 +86,9 @@ public class Server {
     init();
   }
 
+  /**
+   * Creates the pools of all languages, the instances are created concurrently in the background.
+   */
   protected static void initPools() throws Exception {
     pool = new HashMap<>();
     for (final String lang : ToolsGenerator.usedLang) {
@@ -90,8 +98,13 @@ public class Server {
             "Could not find pool size for the given lang" + lang + ". We use a poolsize of 1.");
         poolsize = 1;
       }
-      pool.put(lang, new Pool<IFox>(Fox.class.getName(), lang, poolsize));
+      final Pool<IFox> p = new Pool<IFox>(Fox.class.getName(), lang, poolsize);
+      p.setHealthCheck(new FoxHealthCheck(lang));
+      pool.put(lang, p);
     }
+    // pools are created in the background, logs the models as soon as all are done
+    CompletableFuture.allOf(pool.values().stream().map(Pool::getStarted)
+        .toArray(CompletableFuture<?>[]::new)).thenRun(ModelRegistry::logStats);
   }
 
   protected void init() throws Exception {
@@ -192,6 +205,7 @@ public class Server {
         // TODO: check data then shut down server.
         LOG.info("Stopping server with shutdownHook.");
         server.shutdownNow();
+        FoxExecutors.shutdown(10, TimeUnit.SECONDS);
       }, "ServerShutdownHook"));
 
       try {
@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.json.JsonObject;
@@ -17,14 +18,18 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import org.aksw.fox.FoxParameter;
 import org.aksw.fox.IFox;
+import org.aksw.fox.data.exception.PoolExhaustedException;
 import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.utils.FoxTextUtil;
 import org.aksw.fox.web.FoxHttpHandler;
 import org.aksw.fox.web.Server;
@@ -35,8 +40,6 @@ import org.apache.jena.riot.Lang;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 import org.glassfish.grizzly.http.server.Request;
-import org.jetlang.fibers.Fiber;
-import org.jetlang.fibers.ThreadFiber;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -126,6 +129,8 @@ public class ApiResource {
         }
         nifDocument = apiUtil.writeNIF(annotetedDocs);
       }
+    } catch (final WebApplicationException e) {
+      throw e;
     } catch (final Exception e) {
       LOG.error(e.getStackTrace(), e);
     }
@@ -199,6 +204,8 @@ public class ApiResource {
 
         output = requestFox(parameter);
       }
+    } catch (final WebApplicationException e) {
+      throw e;
     } catch (final Exception e) {
       LOG.error(e.getLocalizedMessage(), e);
       LOG.info("parameter");
@@ -210,19 +217,22 @@ public class ApiResource {
   protected String requestFox(final Map<String, String> parameter) {
     String output = "";
     // get a fox instance
-    IFox fox = Server.pool.get(parameter.get(FoxParameter.Parameter.LANG.toString())).poll();
+    IFox fox;
+    try {
+      fox = Server.pool.get(parameter.get(FoxParameter.Parameter.LANG.toString())).acquire();
+    } catch (final PoolExhaustedException e) {
+      throw new WebApplicationException(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+          .header("Retry-After", e.getRetryAfter()).entity(e.getLocalizedMessage()).build());
+    }
 
-    // init. thread
-    final Fiber fiber = new ThreadFiber();
-    fiber.start();
     final CountDownLatch latch = new CountDownLatch(1);
 
     // set up fox
     fox.setCountDownLatch(latch);
     fox.setParameter(parameter);
 
-    // run fox
-    fiber.execute(fox);
+    // run fox on the request pool
+    final Future<?> future = FoxExecutors.requests().submit(fox);
 
     // wait 5min or till the fox instance is finished
     try {
@@ -234,15 +244,20 @@ public class ApiResource {
       LOG.error("input: " + parameter.get(FoxParameter.Parameter.INPUT.toString()));
     }
 
-    // shutdown thread
-    fiber.dispose();
+    // stop the task if still running
+    if (latch.getCount() != 0) {
+      fox.cancel();
+    }
+    future.cancel(true);
 
     if (latch.getCount() == 0) {
       output = fox.getResultsAndClean();
       Server.pool.get(parameter.get(FoxParameter.Parameter.LANG.toString())).push(fox);
     } else {
+      // a new instance replaces it, it gets back in case its run ends
+      Server.pool.get(parameter.get(FoxParameter.Parameter.LANG.toString())).quarantine(fox,
+          latch);
       fox = null;
-      Server.pool.get(parameter.get(FoxParameter.Parameter.LANG.toString())).add();
     }
     return output;
   }
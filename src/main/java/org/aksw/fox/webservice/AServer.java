@@ -1,7 +1,10 @@
 package org.aksw.fox.webservice;
 
+import java.util.concurrent.TimeUnit;
+
 import org.aksw.fox.data.exception.PortInUseException;
 import org.aksw.fox.utils.CfgManager;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.utils.FoxServerUtil;
 import org.aksw.fox.web.FoxHttpHandler;
 import org.aksw.fox.web.Server;
@@ -53,6 +56,7 @@ public abstract class AServer {
    */
   public void stop() {
     Spark.stop();
+    FoxExecutors.shutdown(10, TimeUnit.SECONDS);
   }
 
   /**
@@ -63,6 +67,9 @@ public abstract class AServer {
 
     Runtime.getRuntime().addShutdownHook(new Thread((Runnable) () -> stop(), "shutdown hook"));
 
+    // the warm-up runs in the background, languages reject requests till their warm-up is done
+    warmup();
+
     Spark.staticFileLocation("/public");
 
     Spark.before((req, res) -> {
@@ -83,6 +90,12 @@ public abstract class AServer {
     LOG.info("Server is ready to use.");
   }
 
+  /**
+   * Starts before the routes are mapped, e.g. the warm-up of the instances, and must not block, so
+   * routes like ready are served while it runs.
+   */
+  protected void warmup() {}
+
   /**
    *
    */
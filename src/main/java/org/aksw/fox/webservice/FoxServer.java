@@ -1,29 +1,45 @@
 package org.aksw.fox.webservice;
 
+import java.io.File;
+import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 import org.aksw.fox.Fox;
 import org.aksw.fox.FoxParameter;
 import org.aksw.fox.IFox;
+import org.aksw.fox.data.exception.PoolExhaustedException;
 import org.aksw.fox.data.exception.PortInUseException;
+import org.aksw.fox.nerlearner.ClassifierCache;
+import org.aksw.fox.nerlearner.FoxClassifier;
 import org.aksw.fox.output.FoxJenaNew;
+import org.aksw.fox.tools.ModelRegistry;
 import org.aksw.fox.tools.ToolsGenerator;
+import org.aksw.fox.tools.ner.CachedNER;
 import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxExecutors;
 import org.aksw.fox.web.api.ApiUtil;
+import org.aksw.fox.webservice.util.FoxHealthCheck;
 import org.aksw.fox.webservice.util.Pool;
+import org.aksw.fox.webservice.util.ResultCache;
 import org.aksw.fox.webservice.util.RouteConfig;
+import org.aksw.fox.webservice.util.SingleFlight;
+import org.aksw.fox.webservice.util.Warmup;
 import org.aksw.gerbil.transfer.nif.Document;
 import org.apache.jena.riot.Lang;
-import org.jetlang.fibers.Fiber;
-import org.jetlang.fibers.ThreadFiber;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -33,6 +49,12 @@ import spark.Spark;
 
 public class FoxServer extends AServer {
 
+  /**
+   * Response header of the fox route with the comma separated tools that were skipped, e.g. since
+   * they were not done in time or failed, empty in case all tools were used.
+   */
+  public static final String SKIPPED_HEADER = "X-Fox-Skipped";
+
   final String turtleContentType = "application/x-turtle";
   final String jsonContentType = "application/json";
 
@@ -48,6 +70,32 @@ public class FoxServer extends AServer {
     }
   }
 
+  /**
+   * Responses of the fox route, invalidated as soon as a classifier is reloaded.
+   */
+  public static final ResultCache cache = new ResultCache();
+  static {
+    ClassifierCache.addListener(model -> cache.invalidate());
+  }
+
+  /**
+   * Running requests of the fox route by the key of the response cache.
+   */
+  protected static final SingleFlight<Response> flights = new SingleFlight<>();
+
+  /**
+   * Response of the fox route with the tools that were skipped.
+   */
+  public static class Response {
+    public final String nif;
+    public final Set<String> skipped;
+
+    public Response(final String nif, final Set<String> skipped) {
+      this.nif = nif;
+      this.skipped = skipped;
+    }
+  }
+
   /**
    *
    * Constructor.
@@ -59,6 +107,9 @@ public class FoxServer extends AServer {
     Spark.staticFileLocation("/public/demo");
   }
 
+  /**
+   * Creates the pools of all languages, the instances are created concurrently in the background.
+   */
   protected static void initPools() throws Exception {
     pool = new HashMap<>();
     for (final String lang : ToolsGenerator.usedLang) {
@@ -68,8 +119,13 @@ public class FoxServer extends AServer {
             "Could not find pool size for the given lang" + lang + ". We use a poolsize of 1.");
         poolsize = 1;
       }
-      pool.put(lang, new Pool<IFox>(Fox.class.getName(), lang, poolsize));
+      final Pool<IFox> p = new Pool<IFox>(Fox.class.getName(), lang, poolsize);
+      p.setHealthCheck(new FoxHealthCheck(lang));
+      pool.put(lang, p);
     }
+    // pools are created in the background, logs the models as soon as all are done
+    CompletableFuture.allOf(pool.values().stream().map(Pool::getStarted)
+        .toArray(CompletableFuture<?>[]::new)).thenRun(ModelRegistry::logStats);
   }
 
   protected Set<String> allowedHeaderFields() {
@@ -90,6 +146,15 @@ public class FoxServer extends AServer {
     return parameter;
   }
 
+  /**
+   * Starts the warm-up of all languages, see {@link Warmup}. Each language serves requests as soon
+   * as its warm-up is done.
+   */
+  @Override
+  protected void warmup() {
+    new Warmup().start(pool.values());
+  }
+
   @Override
   public void mapRoutes() {
 
@@ -104,6 +169,126 @@ public class FoxServer extends AServer {
       res.type(jsonContentType.concat(";charset=utf-8"));
       return routeConfig.getConfig();
     });
+
+    /**
+     * path: models <br>
+     * method: GET <br>
+     * Loaded models with their consumers and the bytes allocated while loading.<br>
+     * <code>
+                    curl http://0.0.0.0:9090/models
+    </code>
+     */
+    Spark.get("/models", (req, res) -> {
+      res.type(jsonContentType.concat(";charset=utf-8"));
+      return ModelRegistry.getStats().toString(2);
+    });
+
+    /**
+     * path: ready <br>
+     * method: GET <br>
+     * State of each language: starting, warming, ready or failed. The status is 200 in case a
+     * language is ready, with the lang parameter in case the given language is ready, otherwise
+     * 503.<br>
+     * <code>
+                    curl http://0.0.0.0:9090/ready
+                    curl http://0.0.0.0:9090/ready?lang=en
+    </code>
+     */
+    Spark.get("/ready", (req, res) -> {
+      res.type(jsonContentType.concat(";charset=utf-8"));
+      final String lang = req.queryParams(FoxParameter.Parameter.LANG.toString());
+      final JSONObject o = new JSONObject();
+      boolean ready = false;
+      for (final Pool<IFox> p : pool.values()) {
+        if ((lang == null) || lang.equals(p.getLang())) {
+          final JSONObject stats = p.getStats();
+          final JSONObject state = new JSONObject();
+          state.put("state", stats.getString("state"));
+          state.put("instances", stats.getInt("instances"));
+          state.put("size", stats.getInt("size"));
+          state.put("readyTime", stats.getLong("readyTime"));
+          o.put(p.getLang(), state);
+          ready |= p.getState() == Pool.State.READY;
+        }
+      }
+      if (!ready) {
+        res.status(503);
+        res.header("Retry-After", String.valueOf(Pool.STARTING_RETRY_AFTER));
+      }
+      return o.toString(2);
+    });
+
+    /**
+     * path: pool <br>
+     * method: GET <br>
+     * Instances per language in use, waiting requests and wait times in ms.<br>
+     * <code>
+                    curl http://0.0.0.0:9090/pool
+    </code>
+     */
+    Spark.get("/pool", (req, res) -> {
+      res.type(jsonContentType.concat(";charset=utf-8"));
+      final JSONArray stats = new JSONArray();
+      pool.values().forEach(p -> stats.put(p.getStats()));
+      return stats.toString(2);
+    });
+
+    /**
+     * path: models/reload <br>
+     * method: POST <br>
+     * Reads the cached classifier files again, e.g. after a new training. Only local requests are
+     * allowed.<br>
+     * <code>
+                    curl -X POST http://127.0.0.1:9090/models/reload
+    </code>
+     */
+    Spark.post("/models/reload", (req, res) -> {
+      if (!InetAddress.getByName(req.ip()).isLoopbackAddress()) {
+        Spark.halt(403, "Only local requests are allowed.");
+      }
+      res.type(jsonContentType.concat(";charset=utf-8"));
+      final JSONObject o = new JSONObject();
+      o.put("reloaded", ClassifierCache.reloadAll());
+      o.put("classifiers", ClassifierCache.getStats());
+      return o.toString(2);
+    });
+
+    /**
+     * path: cache <br>
+     * method: GET <br>
+     * Entries, hits, misses and evictions of the response cache, the sentence cache and the
+     * near-duplicate index, as well as coalesced identical requests.<br>
+     * <code>
+                    curl http://0.0.0.0:9090/cache
+    </code>
+     */
+    Spark.get("/cache", (req, res) -> {
+      res.type(jsonContentType.concat(";charset=utf-8"));
+      return cache.getStats().put("sentences", CachedNER.getStats())
+          .put("nearDuplicates", Fox.nearDuplicates.getStats())
+          .put("singleFlight", flights.getStats()).toString(2);
+    });
+
+    /**
+     * path: cache <br>
+     * method: DELETE <br>
+     * Removes all cached responses, sentences and near-duplicates. Only local requests are
+     * allowed.<br>
+     * <code>
+                    curl -X DELETE http://127.0.0.1:9090/cache
+    </code>
+     */
+    Spark.delete("/cache", (req, res) -> {
+      if (!InetAddress.getByName(req.ip()).isLoopbackAddress()) {
+        Spark.halt(403, "Only local requests are allowed.");
+      }
+      cache.invalidate();
+      CachedNER.clear();
+      Fox.nearDuplicates.clear();
+      res.type(jsonContentType.concat(";charset=utf-8"));
+      return cache.getStats().toString(2);
+    });
+
     /**
      * path: fox <br>
      * method: POST <br>
@@ -220,11 +405,17 @@ public class FoxServer extends AServer {
         LOG.info(docs);
         LOG.info(parameter);
         // request
-        final String foxResponse = fox(docs, parameter);
-
-        // create server response
-        res.body(foxResponse);
-        res.type(turtleContentType.concat(";charset=utf-8"));
+        try {
+          final Response foxResponse = fox(docs, parameter);
+
+          // create server response
+          res.header(SKIPPED_HEADER, String.join(",", foxResponse.skipped));
+          res.body(foxResponse.nif);
+          res.type(turtleContentType.concat(";charset=utf-8"));
+        } catch (final PoolExhaustedException e) {
+          res.header("Retry-After", String.valueOf(e.getRetryAfter()));
+          Spark.halt(503, e.getLocalizedMessage());
+        }
       }
 
       return res.body();
@@ -232,25 +423,67 @@ public class FoxServer extends AServer {
 
   }
 
-  public String fox(final List<Document> docs, final Map<String, String> parameter) {
+  /**
+   * Annotates the documents. Gets the response from the cache or, in case an identical request is
+   * running, waits for its response, so duplicates neither use a fox instance nor run any tool.
+   *
+   * @param docs
+   * @param parameter
+   * @return response, cached responses do not have skipped tools
+   * @throws PoolExhaustedException
+   */
+  public Response fox(final List<Document> docs, final Map<String, String> parameter)
+      throws PoolExhaustedException {
 
     LOG.info("fox");
+    if (docs == null) {
+      return new Response("", new LinkedHashSet<>());
+    }
+
+    final String key = cacheKey(docs, parameter);
+    final String cached = cache.get(key);
+    if (cached != null) {
+      return new Response(cached, new LinkedHashSet<>());
+    }
+
+    // the running request has a fox instance for each doc at most
+    final long timeout = docs.size() * Long.parseLong(FoxCfg.get(CFG_KEY_FOX_LIFETIME));
+    try {
+      return flights.run(key, () -> annotate(docs, parameter, key), timeout, TimeUnit.MINUTES);
+    } catch (final PoolExhaustedException e) {
+      throw e;
+    } catch (final TimeoutException e) {
+      LOG.error("Identical request not done after " + timeout + "min.");
+    } catch (final InterruptedException e) {
+      LOG.error("Interrupted while waiting for an identical request.");
+      Thread.currentThread().interrupt();
+    } catch (final Exception e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    }
+    return new Response("", new LinkedHashSet<>());
+  }
+
+  protected Response annotate(final List<Document> docs, final Map<String, String> parameter,
+      final String key) throws PoolExhaustedException {
     String nif = "";
+    final Set<String> skipped = new LinkedHashSet<>();
     // annotate each doc
     if (docs != null) {
 
       final String lang = parameter.get(FoxParameter.Parameter.LANG.toString());
       LOG.info("lang: " + lang);
+
       // get a fox instance
       final Pool<IFox> pool = FoxServer.pool.get(lang);
       IFox fox = null;
       if (pool != null) {
-        fox = pool.poll();
+        fox = pool.acquire();
       } else {
         LOG.warn("Couldn't find a fox instance for the given language!!!!!!!");
       }
 
       boolean done = false;
+      CountDownLatch latch = null;
       for (final Document document : docs) {
         final String uri = document.getDocumentURI();
         final String text = document.getText();
@@ -259,32 +492,77 @@ public class FoxServer extends AServer {
         // TODO: add to parameter?
         parameter.put("docuri", uri);
 
-        done = callFox(fox, parameter);
+        latch = new CountDownLatch(1);
+        done = callFox(fox, parameter, latch);
+        if (!done) {
+          break;
+        }
+        skipped.addAll(fox.getSkippedTools());
       }
 
       if (done) {
         nif = fox.getResultsAndClean();
         FoxServer.pool.get(lang).push(fox);
+        // responses without all tools are not cached
+        if (skipped.isEmpty() && (nif != null) && !nif.isEmpty()) {
+          cache.put(key, nif);
+        }
       } else {
+        // a new instance replaces it, it gets back in case its run ends
+        if ((fox != null) && (latch != null)) {
+          FoxServer.pool.get(lang).quarantine(fox, latch);
+        } else if (fox != null) {
+          FoxServer.pool.get(lang).push(fox);
+        }
         fox = null;
-        FoxServer.pool.get(lang).add();
       }
     }
-    return nif;
+    return new Response(nif, skipped);
   }
 
-  protected boolean callFox(final IFox fox, final Map<String, String> parameter) {
+  /**
+   * Creates the key of a request for the response cache and to find identical running requests.
+   * The documents are hashed as they are, since the offsets in the response refer to the exact
+   * input.
+   *
+   * @param docs
+   * @param parameter
+   * @return key
+   */
+  protected String cacheKey(final List<Document> docs, final Map<String, String> parameter) {
+    final String lang = parameter.get(FoxParameter.Parameter.LANG.toString());
+
+    final List<String> parts = new ArrayList<>();
+    for (final Document document : docs) {
+      parts.add(document.getDocumentURI());
+      parts.add(document.getText());
+    }
+    parts.add(lang);
+    parts.add(parameter.get(FoxParameter.Parameter.TASK.toString()));
+    parts.add(parameter.get(FoxParameter.Parameter.OUTPUT.toString()));
+    parts.add(parameter.get(FoxParameter.Parameter.FOXLIGHT.toString()));
+    final String linking = parameter.get(FoxParameter.Parameter.LINKING.toString());
+    parts.add(linking != null ? linking : ToolsGenerator.disambiguationTools.get(lang));
+    parts.add(String.valueOf(ToolsGenerator.nerTools.get(lang)));
+
+    // model version, the last modified time identifies the model across restarts
+    final String file = FoxClassifier.getModelFile(lang);
+    final ClassifierCache.Model model = new File(file).exists() ? ClassifierCache.get(file) : null;
+    parts.add(model != null ? file + "@" + model.getLastModified() : "none");
+
+    return ResultCache.key(parts.toArray(new String[parts.size()]));
+  }
+
+  protected boolean callFox(final IFox fox, final Map<String, String> parameter,
+      final CountDownLatch latch) {
     boolean done = false;
 
     if (fox != null) {
       LOG.info("start");
-      // init. thread
-      final Fiber fiber = new ThreadFiber();
-      fiber.start();
-      final CountDownLatch latch = new CountDownLatch(1);
+      // run on the request pool
       fox.setCountDownLatch(latch);
       fox.setParameter(parameter);
-      fiber.execute(fox);
+      final Future<?> future = FoxExecutors.requests().submit(fox);
 
       // wait
       try {
@@ -295,8 +573,11 @@ public class FoxServer extends AServer {
         LOG.error("input: " + parameter.get(FoxParameter.Parameter.INPUT.toString()));
       }
 
-      // shutdown thread
-      fiber.dispose();
+      // stop the task if still running
+      if (latch.getCount() != 0) {
+        fox.cancel();
+      }
+      future.cancel(true);
 
       if (latch.getCount() == 0) {
         // LOG.debug("fox results:" + fox.getResults());
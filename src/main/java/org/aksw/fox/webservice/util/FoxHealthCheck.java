@@ -0,0 +1,97 @@
+package org.aksw.fox.webservice.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.aksw.fox.FoxParameter;
+import org.aksw.fox.IFox;
+import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxExecutors;
+import org.apache.jena.riot.Lang;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Runs a short canary document on a FOX instance, the instance is healthy in case it is done in
+ * time with an output. Linking is off, so the check does not depend on remote services.
+ *
+ * @author rspeck
+ *
+ */
+public class FoxHealthCheck implements Predicate<IFox> {
+
+  public static final Logger LOG = LogManager.getLogger(FoxHealthCheck.class);
+
+  public static final String CFG_KEY_TEXT = FoxHealthCheck.class.getName().concat(".text");
+  public static final String CFG_KEY_TIMEOUT = FoxHealthCheck.class.getName().concat(".timeout");
+
+  protected final String lang;
+  protected final String text;
+  protected final long timeout = Long.parseLong(FoxCfg.get(CFG_KEY_TIMEOUT, "60000"));
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param lang of the instances to check
+   */
+  public FoxHealthCheck(final String lang) {
+    this.lang = lang;
+    text = FoxCfg.get(CFG_KEY_TEXT.concat(".").concat(lang),
+        FoxCfg.get(CFG_KEY_TEXT, "Leipzig is a city in Germany."));
+  }
+
+  @Override
+  public boolean test(final IFox fox) {
+    // results of a cancelled run
+    fox.getResultsAndClean();
+
+    final Map<String, String> parameter = new HashMap<>();
+    parameter.put(FoxParameter.Parameter.INPUT.toString(), text);
+    parameter.put(FoxParameter.Parameter.TYPE.toString(), FoxParameter.Type.TEXT.toString());
+    parameter.put(FoxParameter.Parameter.LANG.toString(), lang);
+    parameter.put(FoxParameter.Parameter.TASK.toString(), FoxParameter.Task.NER.toString());
+    parameter.put(FoxParameter.Parameter.OUTPUT.toString(), Lang.TURTLE.getName());
+    parameter.put(FoxParameter.Parameter.LINKING.toString(), FoxParameter.Linking.OFF.toString());
+    // checks the tools, not the caches
+    parameter.put(FoxParameter.Parameter.CACHE.toString(), FoxParameter.Cache.OFF.toString());
+
+    final String output = run(fox, parameter, timeout);
+    if (output == null) {
+      LOG.warn("Health check (" + lang + ") not done after " + timeout + "ms.");
+    }
+    return (output != null) && !output.trim().isEmpty();
+  }
+
+  /**
+   * Runs a document on the instance, cancels the run in case it is not done in time.
+   *
+   * @param fox
+   * @param parameter of the run
+   * @param timeout in ms
+   * @return output or null in case the run was not done in time
+   */
+  public static String run(final IFox fox, final Map<String, String> parameter,
+      final long timeout) {
+    final CountDownLatch latch = new CountDownLatch(1);
+    fox.setCountDownLatch(latch);
+    fox.setParameter(parameter);
+    final Future<?> future = FoxExecutors.requests().submit(fox);
+    boolean done = false;
+    try {
+      done = latch.await(timeout, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (!done) {
+      fox.cancel();
+      future.cancel(true);
+      return null;
+    }
+    return fox.getResultsAndClean();
+  }
+}
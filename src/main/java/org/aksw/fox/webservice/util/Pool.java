@@ -1,16 +1,48 @@
 package org.aksw.fox.webservice.util;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 
+import org.aksw.fox.data.exception.PoolExhaustedException;
+import org.aksw.fox.utils.FoxCfg;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
+import org.json.JSONObject;
 
 /**
  *
  * Pool holds objects in a queue.
  *
+ * Requests {@link #acquire()} an instance and wait in FIFO order till one is free, at most
+ * {@link #CFG_KEY_ACQUIRE_TIMEOUT} ms. An acquired instance is returned with {@link #push(Object)}
+ * or, in case it can not be used anymore, replaced with {@link #discard(Object)} or
+ * {@link #quarantine(Object, CountDownLatch)}.
+ *
+ * The instances of all pools are created concurrently in the background, at most
+ * {@link #CFG_KEY_STARTUP_THREADS} at the same time. A pool serves requests as soon as it has an
+ * instance and is not warmed up, see {@link #getState()} and {@link #setWarming(boolean)}.
+ *
+ * Replacements are created in the background, so no request waits for a new instance to load. An
+ * instance in quarantine, e.g. after a timeout, gets back to the pool in case its run ends within
+ * {@link #CFG_KEY_QUARANTINE_TIME} ms and it passes the health check. With a health check, see
+ * {@link #setHealthCheck(Predicate)}, a free instance is checked every
+ * {@link #CFG_KEY_CANARY_INTERVAL} s and replaced in case it fails.
+ *
  * @author rspeck
  * @param <T>
  *
@@ -19,10 +51,67 @@ public class Pool<T> {
 
   protected static Logger LOG = LogManager.getLogger(Pool.class);
 
+  public static final String CFG_KEY_ACQUIRE_TIMEOUT =
+      Pool.class.getName().concat(".acquireTimeout");
+  public static final String CFG_KEY_QUARANTINE_TIME =
+      Pool.class.getName().concat(".quarantineTime");
+  public static final String CFG_KEY_CANARY_INTERVAL =
+      Pool.class.getName().concat(".canaryInterval");
+  public static final String CFG_KEY_STARTUP_THREADS =
+      Pool.class.getName().concat(".startupThreads");
+
+  /**
+   * Seconds a request should wait in case the pool has no instance so far.
+   */
+  public static final long STARTING_RETRY_AFTER = 30;
+
+  public enum State {
+    /**
+     * No instance so far, instances are created.
+     */
+    STARTING,
+    /**
+     * Has instances that are warmed up, serves no requests so far.
+     */
+    WARMING,
+    /**
+     * Serves requests.
+     */
+    READY,
+    /**
+     * No instance could be created.
+     */
+    FAILED
+  }
+
+  /**
+   * Creates the first instances of all pools.
+   */
+  protected static final ThreadPoolExecutor startup = createStartup();
+
+  /**
+   * Creates replacements and waits for instances in quarantine.
+   */
+  protected static final ExecutorService maintenance = Executors.newCachedThreadPool(r -> {
+    final Thread thread = new Thread(r, "fox-pool-maintenance");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  /**
+   * Schedules the health checks of free instances, the checks run on {@link #maintenance}.
+   */
+  protected static final ScheduledExecutorService canary =
+      Executors.newSingleThreadScheduledExecutor(r -> {
+        final Thread thread = new Thread(r, "fox-pool-canary");
+        thread.setDaemon(true);
+        return thread;
+      });
+
   /**
-   * Holds objects.
+   * Holds objects, waiting threads are served in FIFO order.
    */
-  protected final Queue<T> queue = new LinkedList<>();
+  protected final BlockingQueue<T> queue;
 
   /**
    * Max. count of objects in queue.
@@ -30,17 +119,76 @@ public class Pool<T> {
   protected int max = 0;
 
   /**
-   * 
+   * Max. time in ms to wait for an instance.
+   */
+  protected final long acquireTimeout =
+      Long.parseLong(FoxCfg.get(CFG_KEY_ACQUIRE_TIMEOUT, "30000"));
+
+  protected final long quarantineTime =
+      Long.parseLong(FoxCfg.get(CFG_KEY_QUARANTINE_TIME, "600000"));
+
+  protected final long canaryInterval =
+      Long.parseLong(FoxCfg.get(CFG_KEY_CANARY_INTERVAL, "300"));
+
+  /**
+   * Checks if an instance works, null to skip checks.
+   */
+  protected volatile Predicate<T> healthCheck = null;
+
+  /**
+   *
    */
   protected String className = "";
   protected String lang = "";
 
+  /**
+   * Acquired instances to the time they were acquired in ns.
+   */
+  protected final Map<T, Long> acquired = Collections.synchronizedMap(new IdentityHashMap<>());
+
+  /**
+   * Instances free or in use, without instances in quarantine.
+   */
+  protected final AtomicInteger size = new AtomicInteger();
+  /**
+   * Instances that are created.
+   */
+  protected final AtomicInteger pending = new AtomicInteger();
+  protected final AtomicInteger quarantined = new AtomicInteger();
+  protected final AtomicLong recovered = new AtomicLong();
+  protected final AtomicLong replaced = new AtomicLong();
+
+  protected final long created = System.currentTimeMillis();
+  protected volatile long readyTime = -1;
+  /**
+   * True in case the last instance could not be created.
+   */
+  protected volatile boolean failed = false;
+  /**
+   * True while the instances are warmed up, requests are rejected.
+   */
+  protected volatile boolean warming = false;
+  protected CompletableFuture<Void> started = null;
+
+  protected final AtomicInteger waiting = new AtomicInteger();
+
+  /**
+   * True while a health check of a free instance runs.
+   */
+  protected final AtomicBoolean checking = new AtomicBoolean();
+  protected final AtomicLong acquires = new AtomicLong();
+  protected final AtomicLong rejects = new AtomicLong();
+  protected final AtomicLong waitTime = new AtomicLong();
+  protected final AtomicLong maxWaitTime = new AtomicLong();
+  protected final AtomicLong releases = new AtomicLong();
+  protected final AtomicLong holdTime = new AtomicLong();
+
   public String getLang() {
     return lang;
   }
 
   /**
-   * 
+   *
    * @param className
    * @param count
    * @throws SecurityException
@@ -54,35 +202,113 @@ public class Pool<T> {
     this.className = className;
     this.lang = lang;
 
+    max = Math.max(count, 1);
+    queue = new ArrayBlockingQueue<>(max, true);
     if (count > 0) {
-      max = count;
-      while (queue.size() < max) {
-        LOG.info("Creates an instance " + (queue.size() + 1) + "/" + max + "...");
-        queue.add(getInstance());
+      pending.addAndGet(max);
+      final CompletableFuture<?>[] tasks = new CompletableFuture<?>[max];
+      for (int i = 0; i < max; i++) {
+        final int n = i + 1;
+        tasks[i] = CompletableFuture.runAsync(() -> {
+          LOG.info("Creates an instance " + n + "/" + max + " (" + lang + ") ...");
+          final T t = getInstance();
+          failed = t == null;
+          pending.decrementAndGet();
+          restore(t);
+        }, startup);
       }
+      started = CompletableFuture.allOf(tasks).thenRun(() -> {
+        LOG.info("Pool (" + lang + ") started with " + size.get() + "/" + max + " instances in "
+            + (System.currentTimeMillis() - created) + "ms.");
+        replenish();
+      });
+    } else {
+      started = CompletableFuture.completedFuture(null);
+    }
+  }
+
+  private static ThreadPoolExecutor createStartup() {
+    int threads = Integer.parseInt(FoxCfg.get(CFG_KEY_STARTUP_THREADS, "0"));
+    if (threads < 1) {
+      threads = Runtime.getRuntime().availableProcessors();
     }
+    final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(threads,
+        r -> {
+          final Thread thread = new Thread(r, "fox-pool-startup");
+          thread.setDaemon(true);
+          return thread;
+        });
+    // no threads left after the startup
+    executor.setKeepAliveTime(1, TimeUnit.MINUTES);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   /**
-   * @throws SecurityException
-   * @throws NoSuchMethodException
-   * @throws InvocationTargetException
-   * @throws IllegalArgumentException
-   * 
+   * Gets the state of the pool.
+   *
+   * @return {@link State#READY} in case the pool has an instance and is not warmed up,
+   *         {@link State#FAILED} in case the startup is done and the last instance could not be
+   *         created
+   */
+  public State getState() {
+    if (size.get() > 0) {
+      return warming ? State.WARMING : State.READY;
+    }
+    return failed && started.isDone() ? State.FAILED : State.STARTING;
+  }
+
+  /**
+   * Completes when the first instances are created, successfully or not.
+   *
+   * @return startup of the pool
+   */
+  public CompletableFuture<Void> getStarted() {
+    return started;
+  }
+
+  /**
+   * Sets if the instances are warmed up, the pool rejects requests till the warm-up is done. The
+   * warm-up gets the instances with {@link #poll(long, TimeUnit)}.
+   *
+   * @param warming
+   */
+  public void setWarming(final boolean warming) {
+    this.warming = warming;
+  }
+
+  /**
+   * Sets the health check of the instances and starts the periodic checks of free instances.
+   *
+   * @param healthCheck
    */
-  public synchronized void add() {
-    push(getInstance());
+  public void setHealthCheck(final Predicate<T> healthCheck) {
+    final boolean start = this.healthCheck == null;
+    this.healthCheck = healthCheck;
+    if (start && (healthCheck != null) && (canaryInterval > 0)) {
+      canary.scheduleWithFixedDelay(() -> {
+        if (checking.compareAndSet(false, true)) {
+          maintenance.submit(() -> {
+            try {
+              checkFree();
+            } finally {
+              checking.set(false);
+            }
+          });
+        }
+      }, canaryInterval, canaryInterval, TimeUnit.SECONDS);
+    }
   }
 
   /**
-   * 
+   * Returns an instance to the pool.
+   *
    * @param t
    */
-  public synchronized void push(final T t) {
+  public void push(final T t) {
     if (t != null) {
-      if (queue.size() < max) {
-        queue.add(t);
-      } else {
+      released(t);
+      if (!queue.offer(t)) {
         LOG.warn("pool queue is full.");
       }
     } else {
@@ -91,25 +317,273 @@ public class Pool<T> {
   }
 
   /**
-   * 
-   * @return
+   * Removes an acquired instance that can not be used anymore and closes it, a new instance is
+   * created in the background.
+   *
+   * @param t acquired instance or null
    */
-  public T poll() {
-    T t = null;
-    while ((t = queue.poll()) == null) {
+  public void discard(final T t) {
+    if (t != null) {
+      released(t);
+      size.decrementAndGet();
+      close(t);
+    }
+    replenish();
+  }
+
+  /**
+   * Removes an acquired instance that is still running, e.g. after a timeout, a new instance is
+   * created in the background. The instance gets back to the pool in case its run ends in time and
+   * it passes the health check, otherwise it is closed.
+   *
+   * @param t acquired instance
+   * @param done counted down as soon as the run of the instance ended
+   */
+  public void quarantine(final T t, final CountDownLatch done) {
+    if (t == null) {
+      replenish();
+      return;
+    }
+    released(t);
+    size.decrementAndGet();
+    quarantined.incrementAndGet();
+    replenish();
+
+    maintenance.submit(() -> {
+      boolean ended = false;
       try {
-        LOG.warn("pool queue empty, sleep 20s ...");
-        Thread.sleep(20000);
+        ended = done.await(quarantineTime, TimeUnit.MILLISECONDS);
       } catch (final InterruptedException e) {
-        LOG.error(e.getLocalizedMessage(), e);
+        Thread.currentThread().interrupt();
       }
+      quarantined.decrementAndGet();
+      if (ended && isHealthy(t)) {
+        LOG.info("Instance (" + lang + ") recovered from quarantine.");
+        recovered.incrementAndGet();
+        restore(t);
+      } else {
+        LOG.warn("Instance (" + lang + ") did not recover from quarantine, closes it.");
+        close(t);
+      }
+    });
+  }
+
+  /**
+   * Gets a free instance, waits in FIFO order till one is free.
+   *
+   * @return instance
+   * @throws PoolExhaustedException in case no instance was free in time
+   */
+  public T acquire() throws PoolExhaustedException {
+    return acquire(acquireTimeout, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Same as {@link #acquire()} with the given max. time to wait.
+   *
+   * @param timeout
+   * @param unit
+   * @return instance
+   * @throws PoolExhaustedException in case no instance was free in time
+   */
+  public T acquire(final long timeout, final TimeUnit unit) throws PoolExhaustedException {
+    if (warming) {
+      rejects.incrementAndGet();
+      throw new PoolExhaustedException("Warm-up of " + lang + " is running.",
+          STARTING_RETRY_AFTER);
+    }
+    return poll(timeout, unit);
+  }
+
+  /**
+   * Same as {@link #acquire(long, TimeUnit)}, also while the pool is warmed up.
+   *
+   * @param timeout
+   * @param unit
+   * @return instance
+   * @throws PoolExhaustedException in case no instance was free in time
+   */
+  protected T poll(final long timeout, final TimeUnit unit) throws PoolExhaustedException {
+    // no need to wait while the first instance is created or in case none can be created
+    if ((readyTime < 0) || (getState() == State.FAILED)) {
+      rejects.incrementAndGet();
+      throw new PoolExhaustedException("No instance for " + lang + " so far.",
+          STARTING_RETRY_AFTER);
     }
+    final long start = System.nanoTime();
+    waiting.incrementAndGet();
+    T t = null;
+    try {
+      t = queue.poll(timeout, unit);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      waiting.decrementAndGet();
+    }
+
+    final long now = System.nanoTime();
+    final long waited = now - start;
+    waitTime.addAndGet(waited);
+    maxWaitTime.accumulateAndGet(waited, Math::max);
+    if (t == null) {
+      rejects.incrementAndGet();
+      LOG.warn("No free instance in the pool (" + lang + ") after "
+          + TimeUnit.NANOSECONDS.toMillis(waited) + "ms.");
+      throw new PoolExhaustedException("No free instance for " + lang + ".", getRetryAfter());
+    }
+    acquires.incrementAndGet();
+    acquired.put(t, now);
     return t;
   }
 
+  /**
+   * Estimates the seconds till an instance is free with the average time an instance is in use.
+   *
+   * @return seconds, at least 1
+   */
+  public long getRetryAfter() {
+    final long n = releases.get();
+    final long avg = n > 0 ? holdTime.get() / n : 0;
+    return Math.max(1, (long) Math.ceil(avg / 1e9));
+  }
+
+  /**
+   * Gets the metrics of the pool.
+   *
+   * @return size, free and used instances, waiting requests, utilization, acquired and rejected
+   *         requests and wait/hold times in ms
+   */
+  public JSONObject getStats() {
+    final long n = acquires.get() + rejects.get();
+    final long released = releases.get();
+    final int inUse = acquired.size();
+    final JSONObject o = new JSONObject();
+    o.put("lang", lang);
+    o.put("state", getState().name().toLowerCase());
+    o.put("readyTime", readyTime);
+    o.put("instances", size.get());
+    o.put("size", max);
+    o.put("free", queue.size());
+    o.put("inUse", inUse);
+    o.put("quarantined", quarantined.get());
+    o.put("pending", pending.get());
+    o.put("recovered", recovered.get());
+    o.put("replaced", replaced.get());
+    o.put("waiting", waiting.get());
+    o.put("utilization", (double) inUse / max);
+    o.put("acquired", acquires.get());
+    o.put("rejected", rejects.get());
+    o.put("avgWaitTime", n > 0 ? TimeUnit.NANOSECONDS.toMillis(waitTime.get() / n) : 0);
+    o.put("maxWaitTime", TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get()));
+    o.put("avgHoldTime",
+        released > 0 ? TimeUnit.NANOSECONDS.toMillis(holdTime.get() / released) : 0);
+    return o;
+  }
+
+  /**
+   * Creates instances in the background till the pool has its size again.
+   */
+  protected void replenish() {
+    while (true) {
+      final int p = pending.get();
+      if ((size.get() + p) >= max) {
+        return;
+      }
+      if (pending.compareAndSet(p, p + 1)) {
+        maintenance.submit(() -> {
+          LOG.info("Creates a new instance (" + lang + ") in the background ...");
+          final T t = getInstance();
+          failed = t == null;
+          pending.decrementAndGet();
+          if (t != null) {
+            replaced.incrementAndGet();
+            restore(t);
+          } else {
+            // try again later
+            canary.schedule(this::replenish, 1, TimeUnit.MINUTES);
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Adds a new or recovered instance in case the pool is not full, otherwise closes it.
+   */
+  protected void restore(final T t) {
+    if (t == null) {
+      return;
+    }
+    boolean added = false;
+    synchronized (size) {
+      if (size.get() < max) {
+        size.incrementAndGet();
+        added = true;
+        if (readyTime < 0) {
+          readyTime = System.currentTimeMillis() - created;
+          LOG.info("Pool (" + lang + ") ready after " + readyTime + "ms.");
+        }
+      }
+    }
+    if (added) {
+      push(t);
+    } else {
+      close(t);
+    }
+  }
+
+  /**
+   * Runs the health check on the next free instance, replaces it in case it fails. Skipped while
+   * requests wait for an instance, so a check never holds an instance a request could use.
+   */
+  protected void checkFree() {
+    if (waiting.get() > 0) {
+      return;
+    }
+    final T t = queue.poll();
+    if (t != null) {
+      if (isHealthy(t)) {
+        push(t);
+      } else {
+        LOG.warn("Instance (" + lang + ") failed the health check, replaces it.");
+        size.decrementAndGet();
+        close(t);
+        replenish();
+      }
+    }
+  }
+
+  protected boolean isHealthy(final T t) {
+    final Predicate<T> check = healthCheck;
+    try {
+      return (check == null) || check.test(t);
+    } catch (final Exception e) {
+      LOG.error(e.getLocalizedMessage(), e);
+      return false;
+    }
+  }
+
+  protected void close(final T t) {
+    if (t instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) t).close();
+      } catch (final Exception e) {
+        LOG.error(e.getLocalizedMessage(), e);
+      }
+    }
+  }
+
+  protected void released(final T t) {
+    final Long start = acquired.remove(t);
+    if (start != null) {
+      releases.incrementAndGet();
+      holdTime.addAndGet(System.nanoTime() - start);
+    }
+  }
+
   /**
    * Creates a new instance of the given className.
-   * 
+   *
    * @param className
    * @return new instance
    * @throws SecurityException
@@ -118,7 +592,7 @@ public class Pool<T> {
    * @throws IllegalArgumentException
    */
   @SuppressWarnings("unchecked")
-  protected synchronized T getInstance() {
+  protected T getInstance() {
     try {
       return (T) Class.forName(className).getConstructor(String.class).newInstance(lang);
     } catch (final Exception e) {
@@ -0,0 +1,317 @@
+package org.aksw.fox.webservice.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxStringUtil;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * LRU cache of complete FOX responses, keyed by a hash of everything the response depends on, see
+ * {@link #key(String...)}.
+ *
+ * Entries are evicted when the cache has more than {@link #CFG_KEY_MAX_ENTRIES} entries or more
+ * than {@link #CFG_KEY_MAX_MB} MB, and expire after {@link #CFG_KEY_TTL} s. With
+ * {@link #CFG_KEY_DIR}, entries are also written to that folder, one file per entry, so they
+ * survive restarts.
+ *
+ * @author rspeck
+ *
+ */
+public class ResultCache {
+
+  public static final Logger LOG = LogManager.getLogger(ResultCache.class);
+
+  public static final String CFG_KEY_MAX_ENTRIES =
+      ResultCache.class.getName().concat(".maxEntries");
+  public static final String CFG_KEY_MAX_MB = ResultCache.class.getName().concat(".maxMB");
+  public static final String CFG_KEY_TTL = ResultCache.class.getName().concat(".ttl");
+  public static final String CFG_KEY_DIR = ResultCache.class.getName().concat(".dir");
+  public static final String CFG_KEY_DIR_MAX_ENTRIES =
+      ResultCache.class.getName().concat(".dirMaxEntries");
+
+  protected final int maxEntries;
+  protected final long maxBytes;
+  protected final long ttl;
+  protected final Path dir;
+  protected final int dirMaxEntries;
+
+  /**
+   * Key to entry in access order, guarded by itself.
+   */
+  protected final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  protected long bytes = 0;
+
+  protected final AtomicLong hits = new AtomicLong();
+  protected final AtomicLong diskHits = new AtomicLong();
+  protected final AtomicLong misses = new AtomicLong();
+  protected final AtomicLong puts = new AtomicLong();
+  protected final AtomicLong evictions = new AtomicLong();
+  protected final AtomicLong expirations = new AtomicLong();
+  protected final AtomicLong invalidations = new AtomicLong();
+  protected final AtomicLong diskWrites = new AtomicLong();
+
+  /**
+   * Creates the cache with the settings in the fox properties.
+   */
+  public ResultCache() {
+    this(Integer.parseInt(FoxCfg.get(CFG_KEY_MAX_ENTRIES, "1000")),
+        Long.parseLong(FoxCfg.get(CFG_KEY_MAX_MB, "64")) << 20,
+        TimeUnit.SECONDS.toMillis(Long.parseLong(FoxCfg.get(CFG_KEY_TTL, "3600"))),
+        FoxCfg.get(CFG_KEY_DIR, ""),
+        Integer.parseInt(FoxCfg.get(CFG_KEY_DIR_MAX_ENTRIES, "100000")));
+  }
+
+  /**
+   *
+   * Constructor.
+   *
+   * @param maxEntries 0 to disable the cache
+   * @param maxBytes
+   * @param ttl in ms
+   * @param dir folder of the disk tier, empty to disable it
+   * @param dirMaxEntries
+   */
+  public ResultCache(final int maxEntries, final long maxBytes, final long ttl, final String dir,
+      final int dirMaxEntries) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.ttl = ttl;
+    this.dirMaxEntries = dirMaxEntries;
+
+    Path path = null;
+    if ((dir != null) && !dir.trim().isEmpty()) {
+      path = Paths.get(dir.trim());
+      try {
+        Files.createDirectories(path);
+      } catch (final IOException e) {
+        LOG.error(e.getLocalizedMessage(), e);
+        path = null;
+      }
+    }
+    this.dir = path;
+  }
+
+  public boolean isEnabled() {
+    return maxEntries > 0;
+  }
+
+  /**
+   * Hashes the parts of a key.
+   *
+   * @param parts e.g. input, lang, task, output format, tools and model version
+   * @return key
+   */
+  public static String key(final String... parts) {
+    return FoxStringUtil.sha256(parts);
+  }
+
+  /**
+   * Gets the cached response.
+   *
+   * @param key
+   * @return response or null
+   */
+  public String get(final String key) {
+    if (!isEnabled()) {
+      return null;
+    }
+    final long now = System.currentTimeMillis();
+    synchronized (entries) {
+      final Entry entry = entries.get(key);
+      if (entry != null) {
+        if ((now - entry.created) <= ttl) {
+          hits.incrementAndGet();
+          return entry.value;
+        }
+        remove(key);
+        expirations.incrementAndGet();
+      }
+    }
+
+    // keeps the time the file was written, so the entry expires with the file
+    final Entry entry = readDisk(key, now);
+    if (entry != null) {
+      diskHits.incrementAndGet();
+      putMemory(key, entry.value, entry.created);
+      return entry.value;
+    }
+    misses.incrementAndGet();
+    return null;
+  }
+
+  /**
+   * Adds a response.
+   *
+   * @param key
+   * @param value
+   */
+  public void put(final String key, final String value) {
+    if (!isEnabled() || (value == null)) {
+      return;
+    }
+    final long now = System.currentTimeMillis();
+    puts.incrementAndGet();
+    putMemory(key, value, now);
+    writeDisk(key, value);
+  }
+
+  /**
+   * Removes all entries, e.g. after the model changed.
+   */
+  public void invalidate() {
+    synchronized (entries) {
+      entries.clear();
+      bytes = 0;
+    }
+    invalidations.incrementAndGet();
+    if (dir != null) {
+      for (final File file : listDisk()) {
+        file.delete();
+      }
+    }
+    LOG.info("Result cache invalidated.");
+  }
+
+  /**
+   * Gets the counters of the cache.
+   *
+   * @return entries, bytes, hits, disk hits, misses, puts, evictions, expirations and invalidations
+   */
+  public JSONObject getStats() {
+    final JSONObject o = new JSONObject();
+    synchronized (entries) {
+      o.put("entries", entries.size());
+      o.put("bytes", bytes);
+    }
+    o.put("maxEntries", maxEntries);
+    o.put("maxBytes", maxBytes);
+    o.put("ttl", ttl);
+    o.put("hits", hits.get());
+    o.put("diskHits", diskHits.get());
+    o.put("misses", misses.get());
+    o.put("puts", puts.get());
+    o.put("evictions", evictions.get());
+    o.put("expirations", expirations.get());
+    o.put("invalidations", invalidations.get());
+    o.put("disk", dir != null);
+    return o;
+  }
+
+  protected void putMemory(final String key, final String value, final long now) {
+    final long size = sizeOf(value);
+    if (size > maxBytes) {
+      return;
+    }
+    synchronized (entries) {
+      remove(key);
+      entries.put(key, new Entry(value, now));
+      bytes += size;
+
+      // least recently used first
+      final Iterator<Map.Entry<String, Entry>> iter = entries.entrySet().iterator();
+      while (((entries.size() > maxEntries) || (bytes > maxBytes)) && iter.hasNext()) {
+        final Map.Entry<String, Entry> eldest = iter.next();
+        bytes -= sizeOf(eldest.getValue().value);
+        iter.remove();
+        evictions.incrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Removes the key, call with the lock of {@link #entries}.
+   */
+  private void remove(final String key) {
+    final Entry entry = entries.remove(key);
+    if (entry != null) {
+      bytes -= sizeOf(entry.value);
+    }
+  }
+
+  protected static long sizeOf(final String value) {
+    return 2L * value.length();
+  }
+
+  /**
+   * Reads the entry of the disk tier.
+   *
+   * @return entry created at the last modified time of its file or null
+   */
+  protected Entry readDisk(final String key, final long now) {
+    if (dir == null) {
+      return null;
+    }
+    final Path file = dir.resolve(key);
+    try {
+      if (Files.exists(file)) {
+        final long created = Files.getLastModifiedTime(file).toMillis();
+        if ((now - created) <= ttl) {
+          return new Entry(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), created);
+        }
+        Files.deleteIfExists(file);
+        expirations.incrementAndGet();
+      }
+    } catch (final IOException e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    }
+    return null;
+  }
+
+  protected void writeDisk(final String key, final String value) {
+    if (dir == null) {
+      return;
+    }
+    try {
+      // readers never see a file in parts
+      final Path tmp = Files.createTempFile(dir, key, ".tmp");
+      Files.write(tmp, value.getBytes(StandardCharsets.UTF_8));
+      Files.move(tmp, dir.resolve(key), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException e) {
+      LOG.error(e.getLocalizedMessage(), e);
+    }
+
+    // removes the oldest files from time to time
+    if ((diskWrites.incrementAndGet() % 100) == 0) {
+      final File[] files = listDisk();
+      if (files.length > dirMaxEntries) {
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < (files.length - dirMaxEntries); i++) {
+          files[i].delete();
+          evictions.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  protected File[] listDisk() {
+    final File[] files = dir.toFile().listFiles();
+    return files == null ? new File[0] : files;
+  }
+
+  protected static class Entry {
+    protected final String value;
+    protected final long created;
+
+    protected Entry(final String value, final long created) {
+      this.value = value;
+      this.created = created;
+    }
+  }
+}
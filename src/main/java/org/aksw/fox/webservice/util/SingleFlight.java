@@ -0,0 +1,94 @@
+package org.aksw.fox.webservice.util;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.json.JSONObject;
+
+/**
+ * Coalesces identical concurrent calls: the first call of a key runs, calls of the same key that
+ * arrive while it runs wait for it and get its result or exception, without running anything
+ * themselves.
+ *
+ * @author rspeck
+ *
+ * @param <V> result
+ */
+public class SingleFlight<V> {
+
+  public static final Logger LOG = LogManager.getLogger(SingleFlight.class);
+
+  /**
+   * Key to the running call.
+   */
+  protected final Map<String, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+
+  protected final AtomicLong leaders = new AtomicLong();
+  protected final AtomicLong followers = new AtomicLong();
+  protected final AtomicLong timeouts = new AtomicLong();
+
+  /**
+   * Runs the call or waits for the running call of the key.
+   *
+   * @param key of identical calls
+   * @param call
+   * @param timeout max time to wait for a running call
+   * @param unit of the timeout
+   * @return result
+   * @throws TimeoutException in case the running call was not done in time
+   * @throws Exception of the call
+   */
+  public V run(final String key, final Callable<V> call, final long timeout, final TimeUnit unit)
+      throws Exception {
+    final CompletableFuture<V> flight = new CompletableFuture<>();
+    final CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+    if (running != null) {
+      followers.incrementAndGet();
+      try {
+        return running.get(timeout, unit);
+      } catch (final ExecutionException e) {
+        if (e.getCause() instanceof Exception) {
+          throw (Exception) e.getCause();
+        }
+        throw e;
+      } catch (final TimeoutException e) {
+        timeouts.incrementAndGet();
+        throw e;
+      }
+    }
+
+    leaders.incrementAndGet();
+    try {
+      final V value = call.call();
+      flight.complete(value);
+      return value;
+    } catch (final Exception | Error e) {
+      flight.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(key, flight);
+    }
+  }
+
+  /**
+   * Gets the counters.
+   *
+   * @return running calls, calls that ran, calls that waited for a running one and timeouts
+   */
+  public JSONObject getStats() {
+    final JSONObject o = new JSONObject();
+    o.put("running", flights.size());
+    o.put("leaders", leaders.get());
+    o.put("followers", followers.get());
+    o.put("timeouts", timeouts.get());
+    return o;
+  }
+}
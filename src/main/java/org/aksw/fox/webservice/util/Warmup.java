@@ -0,0 +1,196 @@
+package org.aksw.fox.webservice.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.aksw.fox.FoxParameter;
+import org.aksw.fox.IFox;
+import org.aksw.fox.data.exception.PoolExhaustedException;
+import org.aksw.fox.utils.FoxCfg;
+import org.aksw.fox.utils.FoxConst;
+import org.apache.jena.riot.Lang;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * Runs example documents through every instance of a pool before the pool accepts requests, so
+ * lazy model internals, class loading and JIT compilation do not slow down the first requests.
+ * Each language is warmed up on its own and serves requests as soon as its warm-up is done, see
+ * {@link Pool.State#WARMING}.
+ *
+ * The documents run with the relation extraction task, i.e. through all NER tools, the classifier,
+ * the RE tools and the linking tool of the language. The documents are the {@link FoxConst}
+ * examples of the language or the lines of the file given by
+ * <code>{@link #CFG_KEY_CORPUS}.&lt;lang&gt;</code> or {@link #CFG_KEY_CORPUS}. The latency of each
+ * round is logged, so the curve shows when the instances reached their steady state.
+ *
+ * @author rspeck
+ *
+ */
+public class Warmup {
+
+  public static final Logger LOG = LogManager.getLogger(Warmup.class);
+
+  public static final String CFG_KEY_ROUNDS = Warmup.class.getName().concat(".rounds");
+  public static final String CFG_KEY_CORPUS = Warmup.class.getName().concat(".corpus");
+  public static final String CFG_KEY_TIMEOUT = Warmup.class.getName().concat(".timeout");
+
+  protected static final Map<String, List<String>> examples = new HashMap<>();
+  static {
+    examples.put(FoxParameter.Langs.EN.name().toLowerCase(),
+        Arrays.asList(FoxConst.NER_EN_EXAMPLE_1, FoxConst.NER_EN_EXAMPLE_2,
+            FoxConst.NER_EN_EXAMPLE_3, FoxConst.RE_EN_EXAMPLE_1));
+    examples.put(FoxParameter.Langs.DE.name().toLowerCase(),
+        Arrays.asList(FoxConst.NER_GER_EXAMPLE_1));
+    examples.put(FoxParameter.Langs.ES.name().toLowerCase(),
+        Arrays.asList(FoxConst.NER_ES_EXAMPLE_1));
+    examples.put(FoxParameter.Langs.FR.name().toLowerCase(),
+        Arrays.asList(FoxConst.NER_FR_EXAMPLE_1, FoxConst.NER_FR_EXAMPLE_2));
+    examples.put(FoxParameter.Langs.NL.name().toLowerCase(),
+        Arrays.asList(FoxConst.NER_NL_EXAMPLE_1, FoxConst.NER_NL_EXAMPLE_2));
+    examples.put(FoxParameter.Langs.IT.name().toLowerCase(),
+        Arrays.asList(FoxConst.NER_IT_EXAMPLE_1));
+  }
+
+  protected final int rounds = Integer.parseInt(FoxCfg.get(CFG_KEY_ROUNDS, "3"));
+  protected final long timeout = Long.parseLong(FoxCfg.get(CFG_KEY_TIMEOUT, "300000"));
+
+  /**
+   * Starts the warm-up of the pools of all languages, each pool rejects requests till its own
+   * warm-up is done.
+   *
+   * @param pools
+   * @return completes when all warm-ups are done
+   */
+  public CompletableFuture<Void> start(final Iterable<Pool<IFox>> pools) {
+    if (rounds < 1) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final List<CompletableFuture<Void>> warmups = new ArrayList<>();
+    for (final Pool<IFox> pool : pools) {
+      pool.setWarming(true);
+      warmups.add(pool.getStarted().thenRunAsync(() -> {
+        try {
+          run(pool);
+        } finally {
+          pool.setWarming(false);
+        }
+      }));
+    }
+    return CompletableFuture.allOf(warmups.toArray(new CompletableFuture<?>[0]));
+  }
+
+  /**
+   * Runs the documents of the language through all instances of the pool.
+   *
+   * @param pool
+   */
+  public void run(final Pool<IFox> pool) {
+    final String lang = pool.getLang();
+    final List<String> docs = getDocuments(lang);
+    if (docs.isEmpty() || (pool.getStats().getInt("instances") == 0)) {
+      LOG.warn("No warm-up for " + lang + ".");
+      return;
+    }
+    LOG.info("Warm-up (" + lang + ") with " + docs.size() + " documents in " + rounds
+        + " rounds ...");
+
+    // all instances, each one runs the documents
+    final List<IFox> instances = new ArrayList<>();
+    final int n = pool.getStats().getInt("instances");
+    try {
+      for (int i = 0; i < n; i++) {
+        instances.add(pool.poll(timeout, TimeUnit.MILLISECONDS));
+      }
+    } catch (final PoolExhaustedException e) {
+      LOG.warn("Warm-up (" + lang + ") with " + instances.size() + "/" + n + " instances.");
+    }
+
+    // round to latencies in ms
+    final List<List<Long>> latencies = new ArrayList<>();
+    for (int r = 0; r < rounds; r++) {
+      latencies.add(Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    final List<CompletableFuture<Void>> runs = new ArrayList<>();
+    for (final IFox fox : instances) {
+      runs.add(CompletableFuture.runAsync(() -> {
+        boolean ok = true;
+        for (int r = 0; (r < rounds) && ok; r++) {
+          for (final String doc : docs) {
+            final long start = System.currentTimeMillis();
+            final String output = FoxHealthCheck.run(fox, getParameter(lang, doc), timeout);
+            if (output == null) {
+              LOG.warn("Warm-up (" + lang + ") document not done after " + timeout + "ms.");
+              ok = false;
+              break;
+            }
+            latencies.get(r).add(System.currentTimeMillis() - start);
+          }
+        }
+        if (ok) {
+          pool.push(fox);
+        } else {
+          pool.discard(fox);
+        }
+      }, Pool.startup));
+    }
+    CompletableFuture.allOf(runs.toArray(new CompletableFuture<?>[0])).join();
+
+    for (int r = 0; r < rounds; r++) {
+      final List<Long> ms = new ArrayList<>(latencies.get(r));
+      if (!ms.isEmpty()) {
+        Collections.sort(ms);
+        LOG.info("Warm-up (" + lang + ") round " + (r + 1) + "/" + rounds + ": avg "
+            + (ms.stream().mapToLong(Long::longValue).sum() / ms.size()) + "ms, median "
+            + ms.get(ms.size() / 2) + "ms, max " + ms.get(ms.size() - 1) + "ms.");
+      }
+    }
+    LOG.info("Warm-up (" + lang + ") done.");
+  }
+
+  /**
+   * Gets the documents of the corpus file of the language, the examples of the language without
+   * a corpus file.
+   *
+   * @param lang
+   * @return documents
+   */
+  protected List<String> getDocuments(final String lang) {
+    final String corpus =
+        FoxCfg.get(CFG_KEY_CORPUS.concat(".").concat(lang), FoxCfg.get(CFG_KEY_CORPUS, null));
+    if ((corpus != null) && !corpus.trim().isEmpty()) {
+      try {
+        return Files.readAllLines(Paths.get(corpus.trim()), StandardCharsets.UTF_8).stream()
+            .filter(line -> !line.trim().isEmpty()).collect(Collectors.toList());
+      } catch (final IOException e) {
+        LOG.error(e.getLocalizedMessage(), e);
+      }
+    }
+    final List<String> docs = examples.get(lang);
+    return docs == null ? new ArrayList<>() : docs;
+  }
+
+  protected Map<String, String> getParameter(final String lang, final String doc) {
+    final Map<String, String> parameter = new HashMap<>();
+    parameter.put(FoxParameter.Parameter.INPUT.toString(), doc);
+    parameter.put(FoxParameter.Parameter.TYPE.toString(), FoxParameter.Type.TEXT.toString());
+    parameter.put(FoxParameter.Parameter.LANG.toString(), lang);
+    parameter.put(FoxParameter.Parameter.TASK.toString(), FoxParameter.Task.RE.toString());
+    parameter.put(FoxParameter.Parameter.OUTPUT.toString(), Lang.TURTLE.getName());
+    // every round runs the tools
+    parameter.put(FoxParameter.Parameter.CACHE.toString(), FoxParameter.Cache.OFF.toString());
+    return parameter;
+  }
+}
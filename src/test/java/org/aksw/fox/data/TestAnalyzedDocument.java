@@ -0,0 +1,88 @@
+package org.aksw.fox.data;
+
+import org.aksw.fox.utils.FoxConst;
+import org.aksw.fox.utils.FoxSentenceDetector;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestAnalyzedDocument {
+
+    @Test
+    public void test() {
+        String text = FoxConst.NER_EN_EXAMPLE_1 + " " + FoxConst.NER_EN_EXAMPLE_2;
+
+        AnalyzedDocument document = new AnalyzedDocument(text, "en");
+        TokenManager tm = new TokenManager(text);
+
+        Assert.assertEquals("en", document.getLang());
+        Assert.assertEquals(tm.getInput(), document.getInput());
+        Assert.assertArrayEquals(tm.getTokenSplit(), document.getTokenManager().getTokenSplit());
+        Assert.assertEquals(tm.getTokenInput(), document.getTokenManager().getTokenInput());
+
+        Assert.assertTrue(document.getSentenceCount() > 1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < document.getSentenceCount(); i++) {
+            Assert.assertTrue(document.getInput().startsWith(document.getSentence(i), document.getSentenceStart(i)));
+            sb.append(document.getSentenceText(i));
+        }
+        Assert.assertEquals(document.getInput(), sb.toString());
+
+        // copies
+        document.getSentenceToken(0)[0] = null;
+        Assert.assertNotNull(document.getSentenceToken(0)[0]);
+    }
+
+    @Test
+    public void langTest() {
+        String text = FoxConst.NER_ES_EXAMPLE_1;
+        Assert.assertArrayEquals(FoxSentenceDetector.sentDetect(text, "de"),
+                new AnalyzedDocument(text, "de").getSentences());
+        // without a spanish model
+        Assert.assertArrayEquals(FoxSentenceDetector.sentDetect(text, "en"),
+                new AnalyzedDocument(text, "es").getSentences());
+    }
+
+    @Test
+    public void windowTest() {
+        AnalyzedDocument document = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+        Assert.assertTrue(document.getSentenceCount() > 2);
+
+        int start = document.getSentenceStart(1);
+        int end = document.getSentenceStart(2) + document.getSentence(2).length();
+        String[] sentences = {document.getSentence(1), document.getSentence(2)};
+        AnalyzedDocument window = new AnalyzedDocument(document.getInput().substring(start, end), sentences, "es");
+
+        Assert.assertEquals(2, window.getSentenceCount());
+        Assert.assertEquals(0, window.getSentenceStart(0));
+        Assert.assertEquals(document.getSentenceStart(2) - start, window.getSentenceStart(1));
+
+        // token offsets in the window plus the window start are offsets in the document
+        TokenManager tm = window.getTokenManager();
+        for (int i = 0; i < tm.getTokenCount(); i++)
+            Assert.assertEquals(tm.getToken(tm.getTokenStart(i)),
+                    document.getTokenManager().getToken(tm.getTokenStart(i) + start));
+    }
+
+    @Test
+    public void subDocumentTest() {
+        AnalyzedDocument document = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+        AnalyzedDocument sub = document.subDocument(1, 3);
+
+        Assert.assertEquals(2, sub.getSentenceCount());
+        Assert.assertEquals(document.getSentence(1), sub.getSentence(0));
+        Assert.assertTrue(document.getInput().startsWith(sub.getInput(), document.getSentenceStart(1)));
+
+        Entity entity = new Entity("x", EntityClassMap.L);
+        entity.addIndicies(sub.getSentenceStart(1));
+        entity.shiftIndices(document.getSentenceStart(1));
+        Assert.assertEquals(document.getSentenceStart(2), entity.getIndices().iterator().next().intValue());
+    }
+
+    @Test
+    public void emptyInputTest() {
+        AnalyzedDocument document = new AnalyzedDocument("", "en");
+        Assert.assertEquals("", document.getInput());
+        Assert.assertEquals(0, document.getSentenceCount());
+        Assert.assertEquals(0, document.getTokenManager().getTokenSplit().length);
+    }
+}
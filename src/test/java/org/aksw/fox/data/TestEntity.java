@@ -32,4 +32,20 @@ public class TestEntity {
         set.add(leipzig_d);
         Assert.assertTrue(set.size() == 3);
     }
+
+    @Test
+    public void withTextTest() {
+        Entity leipzig = new Entity("Leipzig", EntityClassMap.L, 0.5f, "tool");
+        leipzig.addIndicies(3);
+        Set<Entity> set = new HashSet<>();
+        set.add(leipzig);
+
+        Entity university = leipzig.withText("University of Leipzig");
+        Assert.assertEquals("Leipzig", leipzig.getText());
+        Assert.assertTrue(set.contains(leipzig));
+        Assert.assertEquals(EntityClassMap.L, university.getType());
+        Assert.assertEquals("tool", university.getToolName());
+        Assert.assertEquals(leipzig.getIndices(), university.getIndices());
+        Assert.assertNotSame(leipzig.getIndices(), university.getIndices());
+    }
 }
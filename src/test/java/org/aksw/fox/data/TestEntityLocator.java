@@ -0,0 +1,82 @@
+package org.aksw.fox.data;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.aksw.fox.utils.FoxTextUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestEntityLocator {
+
+    String text = "The University of Leipzig is in Leipzig , Leipzig is in Saxony .";
+
+    @Test
+    public void locateTest() {
+        EntityLocator locator = new EntityLocator(text,
+                Arrays.asList("Leipzig", "University of Leipzig", " Saxony ", "Leip", "is in", "Berlin"));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList(18, 32, 42)), locator.getIndices("Leipzig"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(4)), locator.getIndices("University of Leipzig"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(56)), locator.getIndices("Saxony"));
+        Assert.assertEquals(new HashSet<>(Arrays.asList(26, 50)), locator.getIndices("is in"));
+        Assert.assertFalse(locator.contains("Leip"));
+        Assert.assertFalse(locator.contains("Berlin"));
+        Assert.assertEquals(4, locator.getOccurrences().size());
+
+        // not in the automaton
+        Assert.assertEquals(new HashSet<>(Arrays.asList(56)), locator.getIndices("Saxony ."));
+    }
+
+    @Test
+    public void conformanceTest() {
+        // random token sequences, compared with single regex searches
+        Random random = new Random(1);
+        String[] words = {"a", "b", "ab", "ba", "a.", "(a)"};
+        for (int n = 0; n < 500; n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 30; i++)
+                sb.append(words[random.nextInt(words.length)]).append(' ');
+            String input = sb.toString().trim();
+
+            Set<String> patterns = new HashSet<>();
+            for (String w1 : words)
+                for (String w2 : words) {
+                    patterns.add(w1);
+                    patterns.add(w1 + " " + w2);
+                }
+
+            EntityLocator locator = new EntityLocator(input, patterns);
+            for (String pattern : patterns)
+                for (Integer index : FoxTextUtil.getIndices(pattern, input))
+                    Assert.assertTrue(pattern + " in " + input, locator.getIndices(pattern).contains(index));
+            for (String pattern : patterns)
+                for (Integer index : locator.getIndices(pattern))
+                    Assert.assertEquals(pattern, input.substring(index, index + pattern.length()));
+        }
+    }
+
+    @Test
+    public void repairTest() {
+        TokenManager tm = new TokenManager("He lives in Leipzig-Lindenau (Saxony), Germany.");
+
+        Entity a = new Entity("Leipzig - Lindenau", EntityClassMap.L);
+        Entity b = new Entity("( Saxony )", EntityClassMap.L);
+        Entity c = new Entity("Germany.", EntityClassMap.L);
+        Entity d = new Entity("Berlin", EntityClassMap.L);
+        Set<Entity> set = new HashSet<>(Arrays.asList(a, b, c, d));
+        tm.repairEntities(set);
+
+        // repaired entities are replaced
+        Assert.assertFalse(set.contains(a));
+        Assert.assertTrue(set.contains(new Entity("Leipzig-Lindenau", EntityClassMap.L)));
+        Assert.assertTrue(set.contains(new Entity("Germany", EntityClassMap.L)));
+        Assert.assertTrue(set.contains(new Entity("", EntityClassMap.L)));
+        // the token input has no brackets, b and d can not be repaired
+        Assert.assertFalse(set.contains(b));
+        Assert.assertFalse(set.contains(d));
+        Assert.assertEquals(3, set.size());
+    }
+}
@@ -0,0 +1,67 @@
+package org.aksw.fox.data;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestEntitySet {
+
+    String input = "The University of Leipzig is in Leipzig.";
+
+    @Test
+    public void addTest() {
+        EntitySet set = new EntitySet("TestTool");
+        Assert.assertTrue(set.add(32, 39, EntityClassMap.CODE_L));
+        Assert.assertTrue(set.add(4, 25, EntityClassMap.CODE_O));
+        Assert.assertTrue(set.add(18, 25, EntityClassMap.CODE_L));
+        Assert.assertFalse(set.add(18, 25, EntityClassMap.CODE_L));
+
+        Assert.assertEquals(3, set.size());
+        Assert.assertEquals(4, set.getStart(0));
+        Assert.assertEquals(18, set.getStart(1));
+        Assert.assertEquals(32, set.getStart(2));
+        Assert.assertTrue(set.contains(18, 25, EntityClassMap.CODE_L));
+        Assert.assertFalse(set.contains(18, 25, EntityClassMap.CODE_O));
+        Assert.assertEquals(2, set.firstAtOrAfter(19));
+
+        EntitySpan span = set.get(0);
+        Assert.assertEquals("University of Leipzig", span.getText(input));
+        Assert.assertEquals(EntityClassMap.O, span.getType());
+        Assert.assertEquals("TestTool", span.getToolName());
+        Assert.assertTrue(span.overlaps(set.get(1)));
+        Assert.assertFalse(span.overlaps(set.get(2)));
+
+        Iterator<EntitySpan> it = set.iterator();
+        Assert.assertEquals(span, it.next());
+    }
+
+    @Test
+    public void entitiesTest() {
+        Entity leipzig = new Entity("Leipzig", EntityClassMap.L, Entity.DEFAULT_RELEVANCE, "TestTool");
+        leipzig.addIndicies(32);
+        leipzig.addIndicies(18);
+        Entity university = new Entity("University of Leipzig", EntityClassMap.O, Entity.DEFAULT_RELEVANCE, "TestTool");
+        university.addIndicies(4);
+        Entity noIndex = new Entity("The", EntityClassMap.P, Entity.DEFAULT_RELEVANCE, "TestTool");
+
+        EntitySet set = EntitySet.fromEntities("TestTool", Arrays.asList(leipzig, university, noIndex));
+        Assert.assertEquals(3, set.size());
+
+        Set<Entity> entities = set.toEntities(input);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(leipzig, university)), entities);
+        for (Entity e : entities)
+            if (e.equals(leipzig))
+                Assert.assertEquals(leipzig.getIndices(), e.getIndices());
+    }
+
+    @Test
+    public void codeTest() {
+        for (String type : EntityClassMap.entityClasses)
+            Assert.assertEquals(type, EntityClassMap.fromCode(EntityClassMap.toCode(type)));
+        Assert.assertEquals(EntityClassMap.CODE_N, EntityClassMap.toCode("unknown"));
+    }
+}
@@ -0,0 +1,113 @@
+package org.aksw.fox.data;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.aksw.fox.utils.FoxConst;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestNearDuplicateIndex {
+
+  @Test
+  public void findTest() {
+    final NearDuplicateIndex index = new NearDuplicateIndex(10, 1 << 20, 0.5, 3);
+
+    final AnalyzedDocument story = new AnalyzedDocument(FoxConst.NER_EN_EXAMPLE_1, "en");
+    final AnalyzedDocument update =
+        new AnalyzedDocument("Breaking news. " + FoxConst.NER_EN_EXAMPLE_1, "en");
+    final AnalyzedDocument other = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+
+    final long[] signature = index.signature(story.getTokenManager().getTokenSplit());
+    index.add("en", signature, new NearDuplicateIndex.Record(story));
+
+    Assert.assertNotNull(
+        index.find("en", index.signature(update.getTokenManager().getTokenSplit())));
+    Assert.assertNull(index.find("en", index.signature(other.getTokenManager().getTokenSplit())));
+    // other scope
+    Assert.assertNull(index.find("de", signature));
+
+    index.clear();
+    Assert.assertNull(index.find("en", signature));
+  }
+
+  @Test
+  public void accessOrderTest() {
+    final NearDuplicateIndex index = new NearDuplicateIndex(3, 1 << 20, 0.5, 3);
+
+    final AnalyzedDocument story = new AnalyzedDocument(FoxConst.NER_EN_EXAMPLE_1, "en");
+    final AnalyzedDocument update =
+        new AnalyzedDocument("Breaking news. " + FoxConst.NER_EN_EXAMPLE_1, "en");
+    final AnalyzedDocument other = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+    final long[] signature = index.signature(story.getTokenManager().getTokenSplit());
+    final long[] updated = index.signature(update.getTokenManager().getTokenSplit());
+
+    final NearDuplicateIndex.Record a = new NearDuplicateIndex.Record(story);
+    index.add("en", signature, a);
+    index.add("en", updated, new NearDuplicateIndex.Record(update));
+    index.add("de", signature, new NearDuplicateIndex.Record(story));
+
+    // only the match is used, the other candidate is evicted next
+    Assert.assertSame(a, index.find("en", signature));
+    index.add("es", index.signature(other.getTokenManager().getTokenSplit()),
+        new NearDuplicateIndex.Record(other));
+    Assert.assertNotNull(index.find("de", signature));
+    Assert.assertSame(a, index.find("en", updated));
+  }
+
+  @Test
+  public void maxBytesTest() {
+    final AnalyzedDocument story = new AnalyzedDocument(FoxConst.NER_EN_EXAMPLE_1, "en");
+    final long[] signature = new NearDuplicateIndex(10, 1 << 20, 0.5, 3)
+        .signature(story.getTokenManager().getTokenSplit());
+    final long size = new NearDuplicateIndex.Record(story).sizeOf();
+
+    // too large to add
+    final NearDuplicateIndex small = new NearDuplicateIndex(10, size - 1, 0.5, 3);
+    small.add("en", signature, new NearDuplicateIndex.Record(story));
+    Assert.assertNull(small.find("en", signature));
+    Assert.assertEquals(1, small.getStats().getLong("oversized"));
+
+    // room for one document
+    final NearDuplicateIndex one = new NearDuplicateIndex(10, (2 * size) - 1, 0.5, 3);
+    one.add("en", signature, new NearDuplicateIndex.Record(story));
+    one.add("de", signature, new NearDuplicateIndex.Record(story));
+    Assert.assertNull(one.find("en", signature));
+    Assert.assertNotNull(one.find("de", signature));
+    Assert.assertEquals(size, one.getStats().getLong("bytes"));
+    Assert.assertEquals(1, one.getStats().getLong("evictions"));
+  }
+
+  @Test
+  public void reuseTest() {
+    final AnalyzedDocument story =
+        new AnalyzedDocument("Leipzig is a city in Saxony. Berlin is the capital.", "en");
+    final AnalyzedDocument update = new AnalyzedDocument(
+        "New headline. Berlin is the capital. Leipzig is a city in Saxony.", "en");
+
+    final Entity leipzig = new Entity("Leipzig", EntityClassMap.L);
+    leipzig.addIndicies(story.getInput().indexOf("Leipzig"));
+    leipzig.uri = "http://dbpedia.org/resource/Leipzig";
+    final Entity berlin = new Entity("Berlin", EntityClassMap.L);
+    berlin.addIndicies(story.getInput().indexOf("Berlin"));
+    final Set<Entity> entities = new HashSet<>();
+    entities.add(leipzig);
+    entities.add(berlin);
+
+    final NearDuplicateIndex.Record similar =
+        new NearDuplicateIndex.Record(story, entities, null);
+    final NearDuplicateIndex.Record result = new NearDuplicateIndex.Record(update);
+    final int[] alignment = similar.align(result);
+    Assert.assertArrayEquals(new int[] {2, 1}, alignment);
+    similar.copyTo(result, alignment);
+
+    for (final Entity entity : result.getEntities()) {
+      Assert.assertEquals(update.getInput().indexOf(entity.getText()),
+          (int) entity.getIndices().iterator().next());
+      if (entity.getText().equals("Leipzig")) {
+        Assert.assertEquals(leipzig.uri, entity.uri);
+      }
+    }
+    Assert.assertEquals(2, result.getEntities().size());
+  }
+}
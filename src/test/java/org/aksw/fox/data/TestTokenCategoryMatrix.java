@@ -0,0 +1,36 @@
+package org.aksw.fox.data;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.aksw.fox.utils.FoxTextUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTokenCategoryMatrix {
+
+  @Test
+  public void test() {
+    final Set<String> token = new LinkedHashSet<>(Arrays.asList("Leipzig", "is", "in", "Saxony"));
+    final Set<String> categories = new LinkedHashSet<>(EntityClassMap.entityClasses);
+    final Set<Entity> entities = new HashSet<>();
+    entities.add(new Entity("Leipzig", EntityClassMap.L));
+    entities.add(new Entity("Saxony", EntityClassMap.O));
+
+    final TokenCategoryMatrix tcm = new TokenCategoryMatrix(token, categories,
+        EntityClassMap.getNullCategory(), entities, FoxTextUtil.tokenSpliter);
+
+    Assert.assertTrue(tcm.getValue("Leipzig", EntityClassMap.L));
+    Assert.assertFalse(tcm.getValue("Leipzig", EntityClassMap.getNullCategory()));
+    Assert.assertTrue(tcm.getValue("is", EntityClassMap.getNullCategory()));
+    Assert.assertFalse(tcm.getValue("unknown", EntityClassMap.L));
+
+    // ids are the positions in the sets
+    Assert.assertEquals(3, tcm.getTokenId("Saxony"));
+    Assert.assertEquals(EntityClassMap.entityClasses.indexOf(EntityClassMap.O), tcm.getCategory(3));
+    Assert.assertEquals(EntityClassMap.entityClasses.indexOf(EntityClassMap.getNullCategory()),
+        tcm.getCategory(tcm.getTokenId("in")));
+  }
+}
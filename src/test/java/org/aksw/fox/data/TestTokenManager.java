@@ -26,5 +26,63 @@ public class TestTokenManager {
         Assert.assertEquals("1", tm.getToken(1));
         Assert.assertEquals("The", tm.getToken(4));
         Assert.assertEquals("1661-1666", tm.getToken(118));
+        Assert.assertNull(tm.getToken(2));
+
+        Assert.assertEquals("Leipzig" + TokenManager.SEP + 58, tm.getLabel(58));
+        Assert.assertEquals(58, tm.getLabelIndex(tm.getLabel(58)));
+        Assert.assertEquals(-1, tm.getLabelIndex("Leipzig" + TokenManager.SEP + 59));
+        Assert.assertEquals(tm.getTokenCount(), tm.getLabeledInput().size());
+
+        int pos = tm.getTokenPositionAt(61);
+        Assert.assertEquals(58, tm.getTokenStart(pos));
+        Assert.assertEquals("Leipzig".length(), tm.getTokenLength(pos));
+        Assert.assertEquals(-1, tm.getTokenPositionAt(57));
+    }
+
+    @Test
+    public void alignedIndicesTest() {
+        TokenManager tm = new TokenManager("The University of Leipzig is in Leipzig.");
+
+        Assert.assertTrue(tm.isTokenAligned("University of Leipzig", 4));
+        Assert.assertTrue(tm.isTokenAligned("Leipzig", 32));
+        Assert.assertFalse(tm.isTokenAligned("Leipzig", 31));
+        Assert.assertFalse(tm.isTokenAligned("Leip", 32));
+        Assert.assertFalse(tm.isTokenAligned("University", 5));
+
+        Entity entity = new Entity("Leipzig", EntityClassMap.L);
+        entity.addIndicies(18);
+        entity.addIndicies(20);
+        Assert.assertTrue(tm.retainAlignedIndices(entity));
+        Assert.assertEquals(1, entity.getIndices().size());
+        Assert.assertTrue(entity.getIndices().contains(18));
+    }
+
+    @Test
+    public void repeatedTokenTest() {
+        TokenManager tm = new TokenManager("Leipzig Leipzig is in Leipzig.");
+
+        Assert.assertEquals("Leipzig", tm.getToken(0));
+        Assert.assertEquals("Leipzig", tm.getToken(8));
+        Assert.assertEquals("Leipzig", tm.getToken(22));
+        Assert.assertEquals(5, tm.getLabeledInput().size());
+    }
+
+    @Test
+    public void largeInputTest() {
+        String sentence = "The philosopher Leibniz was born in Leipzig in 1646 and attended "
+                + "the University of Leipzig from 1661-1666. ";
+        int tokens = new TokenManager(sentence).getTokenSplit().length;
+
+        int n = 20000;
+        StringBuilder sb = new StringBuilder(n * sentence.length());
+        for (int i = 0; i < n; i++)
+            sb.append(sentence);
+        TokenManager tm = new TokenManager(sb.toString());
+
+        Assert.assertEquals(tm.getInput().length(), tm.getTokenInput().length());
+        Assert.assertEquals(n * tokens, tm.getTokenSplit().length);
+        int last = (n - 1) * sentence.length();
+        Assert.assertEquals("The", tm.getToken(last));
+        Assert.assertEquals("Leibniz", tm.getToken(last + "The philosopher ".length()));
     }
 }
@@ -0,0 +1,35 @@
+package org.aksw.fox.nerlearner;
+
+import java.io.File;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import weka.classifiers.rules.ZeroR;
+import weka.core.SerializationHelper;
+
+public class TestClassifierCache {
+
+  @Test
+  public void reloadTest() throws Exception {
+    final File file = File.createTempFile("fox", ".model");
+    file.deleteOnExit();
+    SerializationHelper.write(file.getAbsolutePath(), new ZeroR());
+
+    // read once
+    final ClassifierCache.Model model = ClassifierCache.get(file.getAbsolutePath());
+    Assert.assertNotNull(model);
+    Assert.assertSame(model, ClassifierCache.get(file.getAbsolutePath()));
+    Assert.assertNotSame(model.copy(), model.copy());
+
+    // replaced with a new version
+    Assert.assertTrue(ClassifierCache.reload(file.getAbsolutePath()));
+    final ClassifierCache.Model reloaded = ClassifierCache.get(file.getAbsolutePath());
+    Assert.assertTrue(reloaded.getVersion() > model.getVersion());
+
+    // kept in case the file can not be read
+    SerializationHelper.write(file.getAbsolutePath(), "no classifier");
+    Assert.assertFalse(ClassifierCache.reload(file.getAbsolutePath()));
+    Assert.assertSame(reloaded, ClassifierCache.get(file.getAbsolutePath()));
+  }
+}
@@ -0,0 +1,54 @@
+package org.aksw.fox.output;
+
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.EntityClassMap;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestFoxJenaNew {
+
+  @Test
+  public void flushTest() {
+    final String input = "Leipzig and Berlin.";
+    final FoxJenaNew foxJena = new FoxJenaNew();
+    foxJena.setLang(Lang.TURTLE.getName());
+    foxJena.addInput(input, null);
+
+    foxJena.addEntities(entities("Leipzig", 0), "", "");
+    Assert.assertTrue(foxJena.flush());
+    Assert.assertTrue(foxJena.graph.isEmpty());
+    foxJena.addEntities(entities("Berlin", input.indexOf("Berlin")), "", "");
+
+    // both parts in one valid document
+    final Model model = ModelFactory.createDefaultModel();
+    RDFDataMgr.read(model, new StringReader(foxJena.print()), null, Lang.TURTLE);
+    Assert.assertEquals(2,
+        model.listSubjectsWithProperty(model.createProperty(AFoxJenaNew.ns_nif, "anchorOf"))
+            .toList().size());
+
+    // not in parts
+    foxJena.reset();
+    foxJena.setLang(Lang.JSONLD.getName());
+    foxJena.addInput(input, null);
+    foxJena.addEntities(entities("Leipzig", 0), "", "");
+    Assert.assertFalse(foxJena.flush());
+    Assert.assertFalse(foxJena.graph.isEmpty());
+  }
+
+  private Set<Entity> entities(final String text, final int index) {
+    final Entity entity = new Entity(text, EntityClassMap.L, Entity.DEFAULT_RELEVANCE, "tool");
+    entity.uri = "http://dbpedia.org/resource/" + text;
+    entity.addIndicies(index);
+    final Set<Entity> entities = new HashSet<>();
+    entities.add(entity);
+    return entities;
+  }
+}
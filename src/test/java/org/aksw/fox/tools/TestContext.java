@@ -0,0 +1,64 @@
+package org.aksw.fox.tools;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.aksw.fox.utils.CancelToken;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestContext {
+
+  @Test
+  public void lockTest() throws Exception {
+    final Object tool = new Object();
+    final CountDownLatch locked = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(1);
+    final Thread holder = new Thread(() -> {
+      final ReentrantLock lock = Context.NONE.lock(tool);
+      locked.countDown();
+      try {
+        done.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        lock.unlock();
+      }
+    });
+    holder.start();
+    locked.await();
+
+    // the wait ends at the deadline
+    final Context context = Context.NONE.child(200, TimeUnit.MILLISECONDS);
+    try {
+      context.lock(tool);
+      Assert.fail();
+    } catch (final CancellationException e) {
+      Assert.assertTrue(context.getRemaining(TimeUnit.MILLISECONDS) <= 0);
+    }
+
+    // and as soon as the call is cancelled
+    final CancelToken token = new CancelToken();
+    token.cancel();
+    try {
+      new Context(token).lock(tool);
+      Assert.fail();
+    } catch (final CancellationException e) {
+      Assert.assertTrue(token.isCancelled());
+    }
+
+    done.countDown();
+    holder.join();
+    Context.NONE.lock(tool).unlock();
+  }
+
+  @Test
+  public void bypassCacheTest() {
+    Assert.assertFalse(Context.NONE.child().isBypassCache());
+    final Context context = new Context(CancelToken.NONE, true);
+    Assert.assertTrue(context.child().isBypassCache());
+    Assert.assertTrue(context.child(1, TimeUnit.SECONDS).isBypassCache());
+  }
+}
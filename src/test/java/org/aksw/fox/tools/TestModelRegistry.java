@@ -0,0 +1,29 @@
+package org.aksw.fox.tools;
+
+import java.util.ArrayList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestModelRegistry {
+
+  @Test
+  public void shareTest() throws Exception {
+    final String cl = ArrayList.class.getName();
+    final ModelRegistry.Model<Object> a = ModelRegistry.acquire(cl);
+    final ModelRegistry.Model<Object> b = ModelRegistry.acquire(cl);
+
+    // loaded on first use and shared
+    Assert.assertFalse(ModelRegistry.getLoaded().contains(cl));
+    final Object model = a.get();
+    Assert.assertSame(model, b.get());
+    Assert.assertTrue(ModelRegistry.getLoaded().contains(cl));
+
+    // unloaded without consumers
+    a.release();
+    a.release();
+    Assert.assertTrue(ModelRegistry.getLoaded().contains(cl));
+    b.release();
+    Assert.assertFalse(ModelRegistry.getLoaded().contains(cl));
+  }
+}
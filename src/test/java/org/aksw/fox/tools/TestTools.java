@@ -0,0 +1,86 @@
+package org.aksw.fox.tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.aksw.fox.data.AnalyzedDocument;
+import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.data.EntitySet;
+import org.aksw.fox.utils.FoxCfg;
+import org.junit.Assert;
+import org.junit.Test;
+
+import weka.classifiers.Classifier;
+
+public class TestTools {
+
+  @Test
+  public void batchTest() throws Exception {
+    Assert.assertTrue(FoxCfg.loadFile("fox.properties-dist"));
+    final String[] sentences = {"Berlin is big.", "I like Berlin.", "Paris is nice.",
+        "Berlin and Paris.", "Rome is old."};
+    final AnalyzedDocument document =
+        new AnalyzedDocument(String.join(" ", sentences), sentences, "en");
+
+    // a tool that finds each Berlin of a batch
+    final List<Integer> batches = Collections.synchronizedList(new ArrayList<>());
+    final Tools tools = new Tools(new ArrayList<>(), "en") {
+      @Override
+      protected BatchResult runBatch(final AnalyzedDocument batch, final int offset,
+          final Queue<Classifier> classifiers, final Context context) {
+        batches.add(batch.getSentenceCount());
+        final Entity found = new Entity("Berlin", EntityClassMap.L, Entity.DEFAULT_RELEVANCE, "T");
+        final Entity entity = new Entity("Berlin", EntityClassMap.L);
+        for (int i = batch.getInput().indexOf("Berlin"); i > -1;
+            i = batch.getInput().indexOf("Berlin", i + 1)) {
+          found.addIndicies(i);
+          entity.addIndicies(i);
+        }
+        final Set<Entity> entities = new HashSet<>();
+        final Map<String, Set<Entity>> toolResults = new HashMap<>();
+        if (entity.getIndices() != null) {
+          entities.add(entity);
+          toolResults.put("T", new HashSet<>(Arrays.asList(found)));
+        }
+        return new BatchResult(entities, toolResults, offset);
+      }
+    };
+    tools.batchSentences = 2;
+
+    final Set<Entity> entities = tools.getEntities(document);
+
+    // split in whole batches of two sentences
+    Collections.sort(batches);
+    Assert.assertEquals(Arrays.asList(1, 2, 2), batches);
+
+    // merged with the offsets in the whole document
+    final Set<Integer> expected = new TreeSet<>();
+    for (int i = document.getInput().indexOf("Berlin"); i > -1;
+        i = document.getInput().indexOf("Berlin", i + 1)) {
+      expected.add(i);
+    }
+    Assert.assertEquals(3, expected.size());
+    Assert.assertEquals(1, entities.size());
+    Assert.assertEquals(expected, new TreeSet<>(entities.iterator().next().getIndices()));
+
+    final EntitySet spans = tools.getToolSpans().get("T");
+    Assert.assertEquals(3, spans.size());
+    int i = 0;
+    for (final Integer start : expected) {
+      Assert.assertEquals(start.intValue(), spans.getStart(i));
+      Assert.assertEquals(start + "Berlin".length(), spans.getEnd(i++));
+    }
+    final Set<Entity> toolResult = tools.getToolResult().get("T");
+    Assert.assertEquals(1, toolResult.size());
+    Assert.assertEquals("Berlin", toolResult.iterator().next().getText());
+  }
+}
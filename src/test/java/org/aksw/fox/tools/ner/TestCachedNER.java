@@ -0,0 +1,124 @@
+package org.aksw.fox.tools.ner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aksw.fox.data.AnalyzedDocument;
+import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.EntityClassMap;
+import org.aksw.fox.data.exception.ToolFailedException;
+import org.aksw.fox.tools.Context;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCachedNER {
+
+  /**
+   * Finds all occurrences of a few locations, keeps the inputs it got.
+   */
+  static class LocationNER extends AbstractNER {
+    final List<String> inputs = new ArrayList<>();
+
+    @Override
+    public List<Entity> retrieve(final String input) {
+      inputs.add(input);
+      final List<Entity> list = new ArrayList<>();
+      for (final String location : Arrays.asList("Leipzig", "Berlin", "Paris")) {
+        for (int i = input.indexOf(location); i > -1; i = input.indexOf(location, i + 1)) {
+          list.add(
+              getEntity(location, EntityClassMap.L, Entity.DEFAULT_RELEVANCE, getToolName(), i));
+        }
+      }
+      return list;
+    }
+  }
+
+  @Test
+  public void sentenceTest() {
+    CachedNER.clear();
+    final LocationNER tool = new LocationNER();
+    final INER ner = CachedNER.wrap(tool);
+
+    check(ner, "Leipzig is a city in Saxony. Berlin is the capital.");
+    Assert.assertEquals(1, tool.inputs.size());
+
+    // all sentences cached
+    check(ner, "Berlin is the capital. Leipzig is a city in Saxony. Berlin is the capital.");
+    Assert.assertEquals(1, tool.inputs.size());
+
+    // only the new sentence is sent to the tool
+    check(ner, "Leipzig is a city in Saxony. Paris is in France.");
+    Assert.assertEquals(2, tool.inputs.size());
+    Assert.assertEquals("Paris is in France.", tool.inputs.get(1));
+  }
+
+  @Test
+  public void failureTest() {
+    CachedNER.clear();
+    final LocationNER tool = new LocationNER() {
+      @Override
+      public List<Entity> retrieve(final String input) {
+        if (inputs.isEmpty()) {
+          inputs.add(input);
+          throw new ToolFailedException("no answer", null);
+        }
+        return super.retrieve(input);
+      }
+    };
+    final INER ner = CachedNER.wrap(tool);
+
+    final String text = "Leipzig is a city in Saxony.";
+    try {
+      ner.getResults(new AnalyzedDocument(text, "en"), Context.NONE);
+      Assert.fail();
+    } catch (final ToolFailedException e) {
+      // nothing cached, the tool gets the sentence again
+      check(ner, text);
+      Assert.assertEquals(2, tool.inputs.size());
+    }
+  }
+
+  @Test
+  public void placementTest() {
+    CachedNER.clear();
+    // texts as cleaned by the tools, without offsets
+    final LocationNER tool = new LocationNER() {
+      @Override
+      public List<Entity> retrieve(final String input) {
+        inputs.add(input);
+        return Arrays.asList(new Entity("U.S . Army", EntityClassMap.O),
+            new Entity("Nowhere", EntityClassMap.L));
+      }
+    };
+    final INER ner = CachedNER.wrap(tool);
+
+    final AnalyzedDocument document =
+        new AnalyzedDocument("The U.S. Army is here. It is big.", "en");
+    List<Entity> entities = ner.getResults(document, Context.NONE);
+    Assert.assertEquals(2, entities.size());
+    final Entity army = entities.get(entities.indexOf(new Entity("U.S. Army", EntityClassMap.O)));
+    Assert.assertTrue(army.getIndices().contains(document.getInput().indexOf("U.S. Army")));
+    // not in the input, returned without offsets
+    Assert.assertTrue(entities.contains(new Entity("Nowhere", EntityClassMap.L)));
+
+    // nothing cached, the entity without a sentence is not lost
+    entities = ner.getResults(document, Context.NONE);
+    Assert.assertEquals(2, tool.inputs.size());
+    Assert.assertTrue(entities.contains(new Entity("Nowhere", EntityClassMap.L)));
+  }
+
+  /**
+   * Checks the stitched entities against the occurrences in the input.
+   */
+  private void check(final INER ner, final String text) {
+    final AnalyzedDocument document = new AnalyzedDocument(text, "en");
+    final List<Entity> entities = ner.getResults(document, Context.NONE);
+    final List<Entity> expected = new LocationNER().retrieve(document.getInput());
+    Assert.assertEquals(expected.stream().distinct().count(), entities.size());
+    for (final Entity e : expected) {
+      final Entity found = entities.get(entities.indexOf(e));
+      Assert.assertTrue(found.getIndices().containsAll(e.getIndices()));
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package org.aksw.fox.tools.ner.es;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.aksw.fox.data.AnalyzedDocument;
+import org.aksw.fox.data.Entity;
+import org.aksw.fox.data.TokenManager;
+import org.aksw.fox.tools.Context;
+import org.aksw.fox.utils.CancelToken;
+import org.aksw.fox.utils.FoxConst;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestOpenNLPES {
+
+    @Test
+    public void offsetTest() {
+        AnalyzedDocument document = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+        TokenManager tm = document.getTokenManager();
+
+        OpenNLPES tool = new OpenNLPES();
+        tool.setInput(document);
+        tool.run();
+        List<Entity> entities = tool.getResults();
+        Assert.assertTrue(entities.size() > 0);
+
+        for (Entity entity : entities) {
+            Assert.assertNotNull(entity.toString(), entity.getIndices());
+            for (Integer index : entity.getIndices())
+                Assert.assertTrue(entity.toString(), tm.isTokenAligned(entity.getText(), index));
+
+            // no repair needed
+            String text = entity.getText();
+            Set<Entity> set = new HashSet<>();
+            set.add(entity);
+            tm.repairEntities(set);
+            Assert.assertEquals(text, set.iterator().next().getText());
+        }
+    }
+
+    @Test
+    public void reentrantTest() throws Exception {
+        AnalyzedDocument document = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+        OpenNLPES tool = new OpenNLPES();
+        Assert.assertTrue(tool.isReentrant());
+
+        Set<Entity> expected = new HashSet<>(tool.getResults(document, Context.NONE));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Entity>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++)
+                futures.add(executor.submit(() -> tool.getResults(document, Context.NONE)));
+            for (Future<List<Entity>> future : futures)
+                Assert.assertEquals(expected, new HashSet<>(future.get(1, TimeUnit.MINUTES)));
+        } finally {
+            executor.shutdownNow();
+        }
+        // the calls keep no state in the tool
+        Assert.assertNull(tool.getResults());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelTest() {
+        AnalyzedDocument document = new AnalyzedDocument(FoxConst.NER_ES_EXAMPLE_1, "es");
+        Context context = new Context(new CancelToken());
+        context.cancel();
+        new OpenNLPES().getResults(document, context);
+    }
+}
@@ -0,0 +1,87 @@
+package org.aksw.fox.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestBulkhead {
+
+  @Test
+  public void limitTest() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final Bulkhead slow = new Bulkhead("slow", executor, 2);
+      final Bulkhead fast = new Bulkhead("fast", executor, 2);
+
+      final CountDownLatch release = new CountDownLatch(1);
+      final AtomicInteger running = new AtomicInteger();
+      final AtomicInteger max = new AtomicInteger();
+
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        futures.add(slow.submit(() -> {
+          max.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          running.decrementAndGet();
+        }));
+      }
+
+      // a blocked tool does not hold threads for the other one
+      Assert.assertEquals("ok", fast.submit(() -> "ok").get(5, TimeUnit.SECONDS));
+      Assert.assertEquals(2, slow.getRunning());
+      Assert.assertEquals(8, slow.getWaiting());
+
+      release.countDown();
+      for (final Future<?> future : futures) {
+        future.get(5, TimeUnit.SECONDS);
+      }
+      Assert.assertEquals(2, max.get());
+      Assert.assertEquals(0, slow.getWaiting());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void cancelTest() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(1);
+    try {
+      final Bulkhead bulkhead = new Bulkhead("tool", executor, 1);
+      final CountDownLatch started = new CountDownLatch(1);
+      final Future<?> blocking = bulkhead.submit(() -> {
+        started.countDown();
+        try {
+          Thread.sleep(60000);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      final Future<String> queued = bulkhead.submit(() -> "done");
+
+      Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+      blocking.cancel(true);
+      Assert.assertEquals("done", queued.get(5, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shareTest() {
+    Assert.assertEquals(11, FoxExecutors.getShare(64, 6));
+    Assert.assertEquals(8, FoxExecutors.getShare(8, 0));
+    Assert.assertEquals(1, FoxExecutors.getShare(4, 10));
+  }
+}
@@ -0,0 +1,46 @@
+package org.aksw.fox.utils;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestCancelToken {
+
+  @Test
+  public void childTest() {
+    final CancelToken request = new CancelToken();
+    final CancelToken tool = request.child();
+    final CancelToken other = request.child();
+
+    tool.cancel();
+    Assert.assertTrue(tool.isCancelled());
+    Assert.assertFalse(other.isCancelled());
+    Assert.assertFalse(request.isCancelled());
+
+    request.cancel();
+    Assert.assertTrue(other.isCancelled());
+  }
+
+  @Test(expected = CancellationException.class)
+  public void checkTest() {
+    final CancelToken token = new CancelToken();
+    token.check();
+    token.cancel();
+    token.check();
+  }
+
+  @Test
+  public void interruptTest() {
+    CancelToken.NONE.cancel();
+    Assert.assertFalse(CancelToken.NONE.isCancelled());
+
+    Thread.currentThread().interrupt();
+    try {
+      Assert.assertTrue(CancelToken.NONE.child().isCancelled());
+    } finally {
+      Thread.interrupted();
+    }
+    Assert.assertFalse(CancelToken.NONE.isCancelled());
+  }
+}
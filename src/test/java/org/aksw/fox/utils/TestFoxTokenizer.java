@@ -0,0 +1,95 @@
+package org.aksw.fox.utils;
+
+import java.util.Random;
+
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestFoxTokenizer {
+
+  String[] examples = {"", " ", ".", ",", ",,", "a", "a,", ",a", "a,,b", "a , b ",
+      "U.S.-based co-founder A&B+C/D e_mail", "\tTab\nnew line\r\n", "(1) The (Karls-Universität Prag)!",
+      "He said: \"Leipzig?\" 'Yes'; {x|y} [z] <w> ~#$%^*@`=", FoxConst.NER_EN_EXAMPLE_1,
+      FoxConst.NER_EN_EXAMPLE_2, FoxConst.NER_GER_EXAMPLE_1, FoxConst.NER_ES_EXAMPLE_1};
+
+  @Test
+  public void tokenConformanceTest() {
+    for (final String example : examples) {
+      Assert.assertArrayEquals(example, example.split(FoxTextUtil.tokenSpliter),
+          FoxTextUtil.getToken(example));
+    }
+
+    final Random random = new Random(1);
+    final String alphabet = "ab .-_/&+,;:!?()\"'\t\n\rä";
+    for (int i = 0; i < 10000; i++) {
+      final char[] chars = new char[random.nextInt(20)];
+      for (int j = 0; j < chars.length; j++) {
+        chars[j] = alphabet.charAt(random.nextInt(alphabet.length()));
+      }
+      final String s = new String(chars);
+      Assert.assertArrayEquals(s, s.split(FoxTextUtil.tokenSpliter), FoxTextUtil.getToken(s));
+    }
+  }
+
+  @Test
+  public void sentenceTokenConformanceTest() {
+    for (final String example : examples) {
+      if (!example.trim().isEmpty()) {
+        Assert.assertArrayEquals(example, sentenceToken(example),
+            FoxTextUtil.getSentenceToken(example));
+        Assert.assertArrayEquals(example, sentenceToken(example + "."),
+            FoxTextUtil.getSentenceToken(example + "."));
+      }
+    }
+  }
+
+  @Test
+  public void spansTest() {
+    final String text = "Leipzig, Germany";
+    final TokenSpans spans = FoxTokenizer.tokenize(text);
+    Assert.assertEquals(3, spans.size());
+    Assert.assertEquals(0, spans.start(0));
+    Assert.assertEquals(7, spans.end(0));
+    Assert.assertEquals(8, spans.start(1));
+    Assert.assertEquals(8, spans.end(1));
+    Assert.assertEquals("Germany", spans.token(2));
+
+    FoxTokenizer.tokenize("a b", spans);
+    Assert.assertEquals(2, spans.size());
+    Assert.assertEquals("b", spans.token(1));
+  }
+
+  /**
+   * The former implementation of {@link FoxTextUtil#getSentenceToken(String)}.
+   */
+  protected String[] sentenceToken(String sentence) {
+    final char punctuationMark = sentence.trim().charAt(sentence.trim().length() - 1);
+    if ((punctuationMark == '!') || (punctuationMark == '?')) {
+      final int punctuationMarkIndex = sentence.lastIndexOf(punctuationMark);
+      sentence = sentence.substring(0, punctuationMarkIndex) + "."
+          + sentence.substring(punctuationMarkIndex + 1, sentence.length());
+    }
+
+    String[] token = sentence.split(FoxTextUtil.tokenSpliter);
+    if (token.length > 0) {
+      final String lastToken = token[token.length - 1];
+      if (lastToken.charAt(lastToken.length() - 1) == '.') {
+        token[token.length - 1] = lastToken.substring(0, lastToken.length() - 1);
+      }
+      final int len = sentence.length();
+      final String cleanSentence = StringUtils.join(token, " ");
+      String closeLen = "";
+      while ((cleanSentence.length() + closeLen.length()) < len) {
+        closeLen += " ";
+      }
+      if (!closeLen.isEmpty()) {
+        token = ArrayUtils.add(token, token.length, closeLen);
+      }
+    } else {
+      token = new String[0];
+    }
+    return token;
+  }
+}
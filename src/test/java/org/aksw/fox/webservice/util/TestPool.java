@@ -0,0 +1,96 @@
+package org.aksw.fox.webservice.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.aksw.fox.data.exception.PoolExhaustedException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPool {
+
+  @Test
+  public void acquireTest() throws Exception {
+    final Pool<StringBuilder> pool = new Pool<>(StringBuilder.class.getName(), "en", 1);
+    pool.getStarted().get();
+    Assert.assertEquals(Pool.State.READY, pool.getState());
+    final StringBuilder sb = pool.acquire(10, TimeUnit.MILLISECONDS);
+    Assert.assertEquals("en", sb.toString());
+
+    // saturated
+    try {
+      pool.acquire(10, TimeUnit.MILLISECONDS);
+      Assert.fail();
+    } catch (final PoolExhaustedException e) {
+      Assert.assertTrue(e.getRetryAfter() > 0);
+    }
+    Assert.assertEquals(1, pool.getStats().getInt("inUse"));
+    Assert.assertEquals(1, pool.getStats().getLong("rejected"));
+
+    // a waiting request gets the instance as soon as it is free
+    final Thread release = new Thread(() -> pool.push(sb));
+    release.start();
+    Assert.assertSame(sb, pool.acquire(10, TimeUnit.SECONDS));
+
+    // a discarded instance is replaced in the background
+    pool.discard(sb);
+    final StringBuilder replaced = pool.acquire(10, TimeUnit.SECONDS);
+    Assert.assertNotSame(sb, replaced);
+
+    // an instance in quarantine gets back after its run ended and it passed the health check
+    pool.setHealthCheck(t -> t == replaced);
+    final CountDownLatch done = new CountDownLatch(1);
+    pool.quarantine(replaced, done);
+    done.countDown();
+    final StringBuilder next = pool.acquire(10, TimeUnit.SECONDS);
+    Assert.assertNotNull(next);
+  }
+
+  @Test
+  public void warmingTest() throws Exception {
+    final Pool<StringBuilder> pool = new Pool<>(StringBuilder.class.getName(), "de", 1);
+    pool.setWarming(true);
+    pool.getStarted().get();
+    Assert.assertEquals(Pool.State.WARMING, pool.getState());
+
+    // requests wait for the warm-up, the warm-up gets the instance
+    try {
+      pool.acquire(10, TimeUnit.MILLISECONDS);
+      Assert.fail();
+    } catch (final PoolExhaustedException e) {
+      Assert.assertEquals(Pool.STARTING_RETRY_AFTER, e.getRetryAfter());
+    }
+    pool.push(pool.poll(10, TimeUnit.SECONDS));
+
+    pool.setWarming(false);
+    Assert.assertEquals(Pool.State.READY, pool.getState());
+    Assert.assertNotNull(pool.acquire(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void checkFreeTest() throws Exception {
+    final Pool<StringBuilder> pool = new Pool<>(StringBuilder.class.getName(), "fr", 1);
+    pool.getStarted().get();
+    final AtomicInteger checks = new AtomicInteger();
+    pool.healthCheck = t -> checks.incrementAndGet() > 0;
+
+    // no check while a request waits
+    pool.waiting.incrementAndGet();
+    pool.checkFree();
+    Assert.assertEquals(0, checks.get());
+
+    pool.waiting.decrementAndGet();
+    pool.checkFree();
+    Assert.assertEquals(1, checks.get());
+    Assert.assertNotNull(pool.acquire(10, TimeUnit.SECONDS));
+  }
+
+  @Test(expected = PoolExhaustedException.class)
+  public void startupTest() throws Exception {
+    final Pool<Object> pool = new Pool<>("org.aksw.fox.NoSuchClass", "en", 2);
+    pool.getStarted().get();
+    Assert.assertEquals(Pool.State.FAILED, pool.getState());
+    pool.acquire(10, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,62 @@
+package org.aksw.fox.webservice.util;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestResultCache {
+
+  @Test
+  public void lruTest() {
+    final ResultCache cache = new ResultCache(2, 1 << 20, 60000, "", 0);
+    Assert.assertNotEquals(ResultCache.key("ab", "c"), ResultCache.key("a", "bc"));
+
+    final String a = ResultCache.key("a");
+    final String b = ResultCache.key("b");
+    final String c = ResultCache.key("c");
+    cache.put(a, "A");
+    cache.put(b, "B");
+    Assert.assertEquals("A", cache.get(a));
+
+    // b is the least recently used one
+    cache.put(c, "C");
+    Assert.assertNull(cache.get(b));
+    Assert.assertEquals("A", cache.get(a));
+    Assert.assertEquals("C", cache.get(c));
+    Assert.assertEquals(1, cache.getStats().getLong("evictions"));
+    Assert.assertEquals(3, cache.getStats().getLong("hits"));
+    Assert.assertEquals(1, cache.getStats().getLong("misses"));
+
+    cache.invalidate();
+    Assert.assertNull(cache.get(a));
+    Assert.assertEquals(0, cache.getStats().getInt("entries"));
+  }
+
+  @Test
+  public void diskTest() throws Exception {
+    final Path dir = Files.createTempDirectory("fox-cache");
+    final String key = ResultCache.key("doc");
+    new ResultCache(10, 1 << 20, 60000, dir.toString(), 10).put(key, "nif");
+
+    // a new cache, e.g. after a restart
+    final ResultCache cache = new ResultCache(10, 1 << 20, 60000, dir.toString(), 10);
+    Assert.assertEquals("nif", cache.get(key));
+    Assert.assertEquals(1, cache.getStats().getLong("diskHits"));
+
+    // a disk hit expires with its file
+    final ResultCache shortTtl = new ResultCache(10, 1 << 20, 1000, dir.toString(), 10);
+    Files.setLastModifiedTime(dir.resolve(key),
+        FileTime.fromMillis(System.currentTimeMillis() - 900));
+    Assert.assertEquals("nif", shortTtl.get(key));
+    Thread.sleep(200);
+    Assert.assertNull(shortTtl.get(key));
+    Assert.assertEquals(2, shortTtl.getStats().getLong("expirations"));
+
+    cache.invalidate();
+    Assert.assertNull(new ResultCache(10, 1 << 20, 60000, dir.toString(), 10).get(key));
+    Files.delete(dir);
+  }
+}
@@ -0,0 +1,58 @@
+package org.aksw.fox.webservice.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSingleFlight {
+
+  @Test
+  public void coalesceTest() throws Exception {
+    final SingleFlight<String> flights = new SingleFlight<>();
+    final AtomicInteger calls = new AtomicInteger();
+    final CountDownLatch running = new CountDownLatch(1);
+    final CountDownLatch done = new CountDownLatch(1);
+
+    final CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> {
+      try {
+        return flights.run("key", () -> {
+          calls.incrementAndGet();
+          running.countDown();
+          done.await();
+          return "nif";
+        }, 10, TimeUnit.SECONDS);
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    running.await();
+
+    // waits for the running call
+    final CompletableFuture<String> follower = CompletableFuture.supplyAsync(() -> {
+      try {
+        return flights.run("key", () -> {
+          calls.incrementAndGet();
+          return "other";
+        }, 10, TimeUnit.SECONDS);
+      } catch (final Exception e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    while (flights.getStats().getLong("followers") == 0) {
+      Thread.sleep(10);
+    }
+    done.countDown();
+
+    Assert.assertEquals("nif", leader.get());
+    Assert.assertEquals("nif", follower.get());
+    Assert.assertEquals(1, calls.get());
+
+    // runs again after the call is done
+    Assert.assertEquals("other", flights.run("key", () -> "other", 1, TimeUnit.SECONDS));
+    Assert.assertEquals(0, flights.getStats().getInt("running"));
+  }
+}